@@ -0,0 +1,181 @@
+package com.semisaad.smartstudy.benchmark;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+import com.semisaad.smartstudy.dao.UserDAO;
+import com.semisaad.smartstudy.model.CardState;
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.model.Review;
+import com.semisaad.smartstudy.model.User;
+import com.semisaad.smartstudy.service.SpacedRepetitionService;
+import com.semisaad.smartstudy.service.SpacedRepetitionService.ReviewResult;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Seeds one benchmark user per scale ("bench_1000", "bench_100000", ...)
+ * with its own topic, questions and review history.
+ *
+ * Each reviewed question gets a chain of about REVIEWS_PER_QUESTION reviews
+ * run through the real SM-2 calculation, so ease factors, intervals and
+ * card states are consistent with what the app would have written. A
+ * quarter of the questions are left unreviewed so getNewQuestions has work
+ * to do. The data is generated from a fixed seed and only written once:
+ * later runs find the user and reuse it.
+ */
+public final class BenchmarkData {
+
+    private static final int REVIEWS_PER_QUESTION = 10;
+    private static final double NEW_QUESTION_SHARE = 0.25;
+    private static final double CORRECT_RATE = 0.85;
+    private static final int REVIEWS_PER_BATCH = 10_000;
+
+    private BenchmarkData() {
+    }
+
+    /**
+     * Make sure the user for this scale exists with exactly reviewCount reviews
+     * @return The seeded user and topic
+     * @throws IllegalStateException if an earlier seed was interrupted
+     */
+    public static Seed ensureSeeded(int reviewCount) {
+        String name = "bench_" + reviewCount;
+        UserDAO userDAO = new UserDAO();
+        TopicDAO topicDAO = new TopicDAO();
+        ReviewDAO reviewDAO = new ReviewDAO();
+
+        int topicId = topicDAO.resolveIds(List.of(name)).get(name);
+        User user = userDAO.getByUsername(name);
+
+        if (user != null) {
+            ReviewDAO.ReviewTotals totals = reviewDAO.getReviewTotals(user.getId());
+            if (totals == null) {
+                throw new IllegalStateException("Could not read the reviews of " + name);
+            }
+            int existing = totals.getTotalReviews();
+            if (existing != reviewCount) {
+                throw new IllegalStateException("User " + name + " has " + existing + " reviews instead of "
+                        + reviewCount + "; delete it (and topic " + name + ") and run again");
+            }
+            return new Seed(user.getId(), topicId);
+        }
+
+        System.out.println("Seeding " + name + " with " + reviewCount + " reviews...");
+        List<Integer> questionIds = seedQuestions(topicId, reviewCount);
+
+        if (!userDAO.insert(new User(name, name + "@bench.local"))) {
+            throw new IllegalStateException("Could not create user " + name);
+        }
+        int userId = userDAO.getByUsername(name).getId();
+        seedReviews(reviewDAO, userId, questionIds, reviewCount);
+
+        return new Seed(userId, topicId);
+    }
+
+    private static List<Integer> seedQuestions(int topicId, int reviewCount) {
+        QuestionDAO questionDAO = new QuestionDAO();
+        if (!questionDAO.getByTopicId(topicId).isEmpty()) {
+            throw new IllegalStateException("Topic " + topicId + " already has questions from an interrupted seed; "
+                    + "delete it and run again");
+        }
+
+        int reviewed = Math.max(1, reviewCount / REVIEWS_PER_QUESTION);
+        int total = (int) Math.ceil(reviewed / (1 - NEW_QUESTION_SHARE));
+
+        List<Question> questions = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            String difficulty = i % 3 == 0 ? "EASY" : i % 3 == 1 ? "MEDIUM" : "HARD";
+            questions.add(new Question("Benchmark question " + i + " for topic " + topicId + "?",
+                    "Benchmark answer " + i, topicId, difficulty));
+        }
+        if (questionDAO.bulkInsert(questions) != total) {
+            throw new IllegalStateException("Could not insert benchmark questions");
+        }
+
+        List<Integer> ids = new ArrayList<>(total);
+        for (Question question : questionDAO.getByTopicId(topicId)) {
+            ids.add(question.getId());
+        }
+        ids.sort(null);
+        // The first ones get reviews, the rest stay new
+        return ids.subList(0, reviewed);
+    }
+
+    private static void seedReviews(ReviewDAO reviewDAO, int userId, List<Integer> questionIds, int reviewCount) {
+        SpacedRepetitionService sm2 = new SpacedRepetitionService();
+        Random random = new Random(reviewCount);
+        LocalDate today = LocalDate.now();
+
+        List<Review> reviews = new ArrayList<>(REVIEWS_PER_BATCH + REVIEWS_PER_QUESTION * 2);
+        List<CardState> states = new ArrayList<>();
+
+        for (int q = 0; q < questionIds.size(); q++) {
+            int questionId = questionIds.get(q);
+            // Spread the remainder so the total is exactly reviewCount
+            int chainLength = reviewCount / questionIds.size() + (q < reviewCount % questionIds.size() ? 1 : 0);
+
+            // Simulate the chain in relative days, then shift it so the last
+            // review lands within the past month
+            int[] dayOffsets = new int[chainLength];
+            ReviewResult[] results = new ReviewResult[chainLength];
+            boolean[] correct = new boolean[chainLength];
+            int day = 0;
+            for (int i = 0; i < chainLength; i++) {
+                correct[i] = random.nextDouble() < CORRECT_RATE;
+                results[i] = i == 0
+                        ? sm2.calculateFirstReview(correct[i])
+                        : sm2.calculateNextReview(correct[i], results[i - 1].getEaseFactor(),
+                        results[i - 1].getIntervalDays(), results[i - 1].getRepetitions());
+                dayOffsets[i] = day;
+                day += results[i].getIntervalDays();
+            }
+            LocalDate firstDay = today.minusDays(random.nextInt(30) + dayOffsets[chainLength - 1]);
+
+            for (int i = 0; i < chainLength; i++) {
+                LocalDateTime reviewedAt = firstDay.plusDays(dayOffsets[i]).atStartOfDay()
+                        .plusSeconds(random.nextInt(24 * 60 * 60));
+                LocalDate nextReviewDate = reviewedAt.toLocalDate().plusDays(results[i].getIntervalDays());
+
+                Review review = new Review(questionId, userId, correct[i], results[i].getEaseFactor(),
+                        results[i].getIntervalDays(), nextReviewDate);
+                review.setReviewedAt(reviewedAt);
+                reviews.add(review);
+
+                if (i == chainLength - 1) {
+                    states.add(new CardState(userId, questionId, results[i].getEaseFactor(),
+                            results[i].getIntervalDays(), results[i].getRepetitions(), nextReviewDate, reviewedAt));
+                }
+            }
+
+            // Flush whole chains only, so each card state matches its latest review
+            if (reviews.size() >= REVIEWS_PER_BATCH || q == questionIds.size() - 1) {
+                if (!reviewDAO.insertBatch(reviews, states)) {
+                    throw new IllegalStateException("Could not insert benchmark reviews");
+                }
+                reviews.clear();
+                states.clear();
+            }
+        }
+    }
+
+    /**
+     * IDs of a seeded benchmark user and its topic
+     */
+    public static class Seed {
+        private final int userId;
+        private final int topicId;
+
+        public Seed(int userId, int topicId) {
+            this.userId = userId;
+            this.topicId = topicId;
+        }
+
+        public int getUserId() { return userId; }
+        public int getTopicId() { return topicId; }
+    }
+}
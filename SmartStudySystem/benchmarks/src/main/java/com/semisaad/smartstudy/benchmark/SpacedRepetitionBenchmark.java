@@ -0,0 +1,63 @@
+package com.semisaad.smartstudy.benchmark;
+
+import com.semisaad.smartstudy.service.SpacedRepetitionService;
+import com.semisaad.smartstudy.service.SpacedRepetitionService.ReviewResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SM-2 calculation on its own, no database involved.
+ * Inputs are drawn from a fixed pool of realistic card states so the JIT
+ * can't fold them into constants.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SpacedRepetitionBenchmark {
+
+    private static final int INPUTS = 1024; // Power of two, for cheap wrap-around
+
+    private final SpacedRepetitionService sm2 = new SpacedRepetitionService();
+
+    private boolean[] correct;
+    private float[] easeFactors;
+    private int[] intervals;
+    private int[] repetitions;
+    private int next = 0;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        correct = new boolean[INPUTS];
+        easeFactors = new float[INPUTS];
+        intervals = new int[INPUTS];
+        repetitions = new int[INPUTS];
+
+        for (int i = 0; i < INPUTS; i++) {
+            correct[i] = random.nextDouble() < 0.85;
+            easeFactors[i] = 1.3f + random.nextFloat() * 1.7f;
+            repetitions[i] = random.nextInt(8);
+            intervals[i] = repetitions[i] == 0 ? 1 : 1 + random.nextInt(180);
+        }
+    }
+
+    @Benchmark
+    public ReviewResult calculateNextReview() {
+        int i = next++ & (INPUTS - 1);
+        return sm2.calculateNextReview(correct[i], easeFactors[i], intervals[i], repetitions[i]);
+    }
+}
@@ -0,0 +1,98 @@
+package com.semisaad.smartstudy.benchmark;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.database.SchemaMigrator;
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.service.StudySessionService;
+import com.semisaad.smartstudy.service.StudySessionService.SessionStats;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Study-session queries against PostgreSQL, at several review-table sizes.
+ *
+ * Uses the database DatabaseConnection points at - run it against a
+ * scratch database (-Dsmartstudy.db.url=...), since each scale adds a
+ * benchmark user, topic, questions and reviews. Seeding happens on the
+ * first run of a scale and is reused afterwards; the 1M scale takes a few
+ * minutes the first time.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudySessionBenchmark {
+
+    // Size of the list getPrioritizedQuestions sorts, about one study session's worth
+    private static final int QUESTIONS_TO_PRIORITIZE = 200;
+
+    @Param({"1000", "100000", "1000000"})
+    public int reviewCount;
+
+    private StudySessionService service;
+    private int userId;
+    private List<Integer> topicIds;
+    private List<Question> sessionQuestions;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        SchemaMigrator.migrate();
+        BenchmarkData.Seed seed = BenchmarkData.ensureSeeded(reviewCount);
+        userId = seed.getUserId();
+        topicIds = List.of(seed.getTopicId());
+        service = new StudySessionService();
+
+        List<Question> topicQuestions = new QuestionDAO().getByTopicId(seed.getTopicId());
+        sessionQuestions = new ArrayList<>(topicQuestions.subList(0,
+                Math.min(QUESTIONS_TO_PRIORITIZE, topicQuestions.size())));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        DatabaseConnection.shutdown();
+    }
+
+    @Benchmark
+    public List<Question> getPrioritizedQuestions() {
+        // It sorts in place, so hand it a fresh copy each time
+        return service.getPrioritizedQuestions(userId, new ArrayList<>(sessionQuestions));
+    }
+
+    @Benchmark
+    public List<Question> getNewQuestions() {
+        // Scoped to the seeded topic: unscoped, it finds the first 20 unreviewed
+        // IDs (usually other scales' questions) and never reads this scale's data
+        return service.getNewQuestions(userId, topicIds, List.of(), 20);
+    }
+
+    @Benchmark
+    public SessionStats getSessionStats() {
+        // Drop the cached counters so every call measures the aggregate query
+        service.invalidateStats(userId);
+        return service.getSessionStats(userId);
+    }
+
+    @Benchmark
+    public SessionStats getSessionStatsCached() {
+        return service.getSessionStats(userId);
+    }
+}
@@ -115,6 +115,20 @@ public class QuestionDAOTest {
             System.out.println("Test question not found (may have been deleted already)");
         }
 
+        System.out.println("\n---\n");
+
+        // Test 9: Full-text search (Test 7 put "UPDATED" in question 1's answer)
+        System.out.println("🔍 Test 9: Full-Text Search (\"updat\")");
+        List<QuestionDAO.SearchHit> hits = questionDAO.search("updat", null, null, 0, 5);
+        System.out.println("Found " + hits.size() + " matching questions:");
+        boolean foundUpdated = false;
+        for (QuestionDAO.SearchHit hit : hits) {
+            System.out.println("  - [" + hit.getQuestion().getId() + "] rank " +
+                    String.format("%.3f", hit.getRank()) + ": " + hit.getSnippet());
+            foundUpdated |= hit.getQuestion().getId() == 1;
+        }
+        System.out.println(foundUpdated ? "✅ Found the updated question" : "❌ Updated question not found");
+
         System.out.println("\n=== TEST COMPLETE ===");
     }
 }
@@ -0,0 +1,164 @@
+package com.semisaad.smartstudy;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.service.QuestionImporter;
+import com.semisaad.smartstudy.service.QuestionImporter.Format;
+import com.semisaad.smartstudy.service.QuestionImporter.ImportResult;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser edge cases of the CSV, TSV and JSON importers.
+ * Runs without a database: the DAOs below only record what would be written.
+ */
+public class QuestionImporterTest {
+
+    private static int failures = 0;
+
+    public static void main(String[] args) throws IOException {
+        System.out.println("=== QUESTION IMPORTER TEST ===\n");
+
+        // Test 1: CSV with a byte order mark, CRLF line endings and quoting
+        System.out.println("Test 1: CSV quoting, CRLF and BOM");
+        List<Question> rows = parse(Format.CSV,
+                "\uFEFFQuestion,Answer,Topic,Difficulty\r\n" +
+                        "\"What is 2, plus 2?\",\"It is \"\"four\"\"\",Math,easy\r\n" +
+                        "\r\n" +
+                        "\"Which line\r\nbreaks here?\",This one,Math,\r\n" +
+                        "What does a lone CR do?,Ends a row,Misc,HARD\r" +
+                        "No newline at the end?,Still a row,Misc,MEDIUM");
+        check("4 rows imported (BOM stripped from the header)", rows.size() == 4);
+        check("delimiter inside quotes kept", rows.get(0).getQuestionText().equals("What is 2, plus 2?"));
+        check("doubled quotes unescaped", rows.get(0).getAnswer().equals("It is \"four\""));
+        check("difficulty upper-cased", rows.get(0).getDifficulty().equals("EASY"));
+        check("line break inside quotes kept", rows.get(1).getQuestionText().equals("Which line\r\nbreaks here?"));
+        check("empty difficulty defaults to MEDIUM", rows.get(1).getDifficulty().equals("MEDIUM"));
+        check("lone CR ends a row", rows.get(2).getAnswer().equals("Ends a row"));
+        check("last row without a newline", rows.get(3).getAnswer().equals("Still a row"));
+        System.out.println();
+
+        // Test 2: CSV errors
+        System.out.println("Test 2: CSV errors");
+        expectError(Format.CSV, "question,answer,topic\n\"Never closed,answer here,Math\n");
+        ImportResult result = importText(Format.CSV,
+                "question,answer,topic,difficulty\n" +
+                        "Too short,Some answer,Math,EASY\n" +
+                        "A long enough question?,Fine answer,Math,IMPOSSIBLE\n" +
+                        "A long enough question?,Fine answer,Math,EASY\n", new ArrayList<>());
+        check("1 imported, 2 rejected", result.getImported() == 1 && result.getRejected() == 2);
+        check("rejected rows numbered from 1",
+                result.getErrors().get(0).getRowNumber() == 1 && result.getErrors().get(1).getRowNumber() == 2);
+        System.out.println();
+
+        // Test 3: TSV doesn't treat quotes specially
+        System.out.println("Test 3: TSV");
+        rows = parse(Format.TSV,
+                "question\tanswer\ttopic\n" +
+                        "Is \"this\" quoted, really?\tNo, \"kept\"\tMisc\r\n");
+        check("1 row imported", rows.size() == 1);
+        check("quotes and commas kept as-is", rows.get(0).getQuestionText().equals("Is \"this\" quoted, really?")
+                && rows.get(0).getAnswer().equals("No, \"kept\""));
+        System.out.println();
+
+        // Test 4: JSON escapes, BOM and literals
+        System.out.println("Test 4: JSON escapes, BOM and literals");
+        rows = parse(Format.JSON,
+                "\uFEFF[\r\n" +
+                        "  {\"Question\": \"Caf\\u00e9 or \\\"cafe\\\"?\", \"answer\": \"Line one\\nline two\", " +
+                        "\"topic\": \"French\", \"difficulty\": null},\n" +
+                        "  {\"question\": \"What is 6 times 7?\", \"answer\": \"42\\t(tab)\", \"topic\": \"Math\", " +
+                        "\"extra\": 42, \"flag\": true, \"difficulty\": \"hard\"}\n" +
+                        "]");
+        check("2 rows imported", rows.size() == 2);
+        check("\\u and \\\" escapes decoded", rows.get(0).getQuestionText().equals("Café or \"cafe\"?"));
+        check("\\n escape decoded", rows.get(0).getAnswer().equals("Line one\nline two"));
+        check("null difficulty defaults to MEDIUM", rows.get(0).getDifficulty().equals("MEDIUM"));
+        check("\\t escape decoded", rows.get(1).getAnswer().equals("42\t(tab)"));
+        check("number and boolean fields accepted", rows.get(1).getDifficulty().equals("HARD"));
+        check("empty array imports nothing", parse(Format.JSON, " [ ] ").isEmpty());
+        System.out.println();
+
+        // Test 5: JSON errors
+        System.out.println("Test 5: JSON errors");
+        expectError(Format.JSON, "{\"question\": \"Not in an array\"}");
+        expectError(Format.JSON, "[{\"question\": \"Nested?\", \"answer\": {\"a\": 1}}]");
+        expectError(Format.JSON, "[{\"question\": \"Bad escape \\uZZZZ\"}]");
+        expectError(Format.JSON, "[{\"question\": \"Cut off");
+        expectError(Format.JSON, "[{\"question\": \"Missing comma\"} {\"question\": \"x\"}]");
+        System.out.println();
+
+        System.out.println("=== TEST COMPLETE ===");
+
+        if (failures > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static List<Question> parse(Format format, String text) throws IOException {
+        List<Question> inserted = new ArrayList<>();
+        importText(format, text, inserted);
+        return inserted;
+    }
+
+    private static ImportResult importText(Format format, String text, List<Question> inserted) throws IOException {
+        QuestionImporter importer = new QuestionImporter(new RecordingQuestionDAO(inserted), new FakeTopicDAO());
+        return importer.importFrom(new StringReader(text), format, null);
+    }
+
+    private static void expectError(Format format, String text) {
+        try {
+            parse(format, text);
+            check("rejected: " + text.replace("\n", "\\n"), false);
+        } catch (IOException e) {
+            check("rejected (" + e.getMessage() + ")", true);
+        }
+    }
+
+    private static void check(String description, boolean passed) {
+        System.out.println((passed ? "✅ " : "❌ ") + description);
+        if (!passed) {
+            failures++;
+        }
+    }
+
+    /**
+     * Collects bulk inserts instead of writing them
+     */
+    private static class RecordingQuestionDAO extends QuestionDAO {
+        private final List<Question> inserted;
+
+        RecordingQuestionDAO(List<Question> inserted) {
+            this.inserted = inserted;
+        }
+
+        @Override
+        public int bulkInsert(List<Question> questions) {
+            inserted.addAll(questions);
+            return questions.size();
+        }
+    }
+
+    /**
+     * Hands out topic IDs in order of first use
+     */
+    private static class FakeTopicDAO extends TopicDAO {
+        private final Map<String, Integer> ids = new HashMap<>();
+
+        @Override
+        public Map<String, Integer> resolveIds(Collection<String> names) {
+            Map<String, Integer> resolved = new HashMap<>();
+            for (String name : names) {
+                resolved.put(name, ids.computeIfAbsent(name, n -> ids.size() + 1));
+            }
+            return resolved;
+        }
+    }
+}
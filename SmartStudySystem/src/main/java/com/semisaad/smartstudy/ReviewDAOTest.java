@@ -77,6 +77,21 @@ public class ReviewDAOTest {
                     " | Next review: " + r.getNextReviewDate());
         }
 
+        // Keyset pages and the streaming variant must see the same reviews
+        int paged = 0;
+        Review last = null;
+        List<Review> page;
+        do {
+            page = reviewDAO.getByUserIdPage(1, last, 2);
+            paged += page.size();
+            if (!page.isEmpty()) {
+                last = page.get(page.size() - 1);
+            }
+        } while (page.size() == 2);
+        int streamed = reviewDAO.forEachByUserId(1, r -> { });
+        System.out.println("Paged (2 per page): " + paged + " | Streamed: " + streamed +
+                (paged == userReviews.size() && streamed == userReviews.size() ? " ✅" : " ❌"));
+
         System.out.println("\n---\n");
 
         // Test 5: Get reviews by question
@@ -0,0 +1,41 @@
+package com.semisaad.smartstudy;
+
+import com.semisaad.smartstudy.database.SchemaMigrator;
+
+import java.sql.SQLException;
+import java.util.List;
+
+public class SchemaMigratorTest {
+    public static void main(String[] args) throws SQLException {
+        System.out.println("=== SCHEMA MIGRATOR TEST ===\n");
+
+        // Test 1: Apply migrations
+        System.out.println("Test 1: Apply pending migrations");
+        int applied = SchemaMigrator.migrate();
+        System.out.println("Applied " + applied + " migration(s), schema is at V" + SchemaMigrator.getCurrentVersion());
+        System.out.println();
+
+        // Test 2: Running again is a no-op
+        System.out.println("Test 2: Migrate again (should apply nothing)");
+        int reapplied = SchemaMigrator.migrate();
+        System.out.println(reapplied == 0 ? "✅ Idempotent" : "❌ Re-applied " + reapplied + " migration(s)!");
+        System.out.println();
+
+        // Test 3: Hot queries must use indexes
+        System.out.println("Test 3: Check hot query plans");
+        List<String> problems = SchemaMigrator.checkHotQueryPlans();
+        if (problems.isEmpty()) {
+            System.out.println("✅ All hot queries use an index");
+        } else {
+            for (String problem : problems) {
+                System.out.println("❌ " + problem);
+            }
+        }
+
+        System.out.println("\n=== TEST COMPLETE ===");
+
+        if (reapplied != 0 || !problems.isEmpty()) {
+            System.exit(1);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.semisaad.smartstudy;
 
 import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.service.StudyPlanner;
 import com.semisaad.smartstudy.service.StudySessionService;
 import com.semisaad.smartstudy.service.StudySessionService.SessionStats;
 
@@ -126,6 +127,18 @@ public class StudySessionServiceTest {
         SessionStats finalStats = sessionService.getSessionStats(userId);
         System.out.println(finalStats);
 
+        System.out.println("---\n");
+
+        // Study counts (cached until the next answer)
+        System.out.println("🗂 Test 7: Study Counts for All Topics");
+        StudyPlanner.StudyCounts counts = sessionService.getStudyCounts(userId, List.of());
+        System.out.println(counts);
+        int dueCount = sessionService.getDueQuestions(userId).size();
+        int newCount = sessionService.getNewQuestions(userId, 0).size();
+        System.out.println(counts.getDueCount() == dueCount && counts.getNewCount() == newCount
+                ? "✅ Matches the due and new question lists"
+                : "❌ Expected due=" + dueCount + ", new=" + newCount);
+
         System.out.println("\n=== TEST COMPLETE ===");
         System.out.println("\n💡 What just happened:");
         System.out.println("- Found new questions you've never reviewed");
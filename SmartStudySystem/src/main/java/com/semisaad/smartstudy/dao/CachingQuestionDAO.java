@@ -0,0 +1,136 @@
+package com.semisaad.smartstudy.dao;
+
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.util.LruCache;
+import com.semisaad.smartstudy.util.QuestionSearchIndex;
+
+import java.util.List;
+
+/**
+ * QuestionDAO that serves getById from a bounded LRU cache.
+ * List queries still go to the database (their results depend on filters),
+ * but the rows they return warm the cache. Writes through this DAO evict
+ * the affected question.
+ *
+ * Also owns a QuestionSearchIndex over every question, built on first use
+ * and updated by each insert/update/delete.
+ */
+public class CachingQuestionDAO extends QuestionDAO {
+
+    private static final int DEFAULT_MAX_SIZE = 5000;
+
+    private final LruCache<Integer, Question> byId;
+    private QuestionSearchIndex searchIndex; // null until first requested (guarded by "this")
+
+    public CachingQuestionDAO() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public CachingQuestionDAO(int maxSize) {
+        this.byId = new LruCache<>(maxSize);
+    }
+
+    @Override
+    public Question getById(int id) {
+        return byId.get(id, super::getById);
+    }
+
+    @Override
+    public List<Question> getAll() {
+        long seenInvalidations = byId.getInvalidations();
+        return remember(super.getAll(), seenInvalidations);
+    }
+
+    @Override
+    public List<Question> getByTopicId(int topicId) {
+        long seenInvalidations = byId.getInvalidations();
+        return remember(super.getByTopicId(topicId), seenInvalidations);
+    }
+
+    @Override
+    public boolean insert(Question question) {
+        boolean inserted = super.insert(question);
+        if (inserted) {
+            synchronized (this) {
+                if (searchIndex != null) {
+                    searchIndex.add(question);
+                }
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public int bulkInsert(List<Question> questions) {
+        int inserted = super.bulkInsert(questions);
+        if (inserted > 0) {
+            synchronized (this) {
+                searchIndex = null; // IDs aren't known, so rebuild on next use
+            }
+        }
+        return inserted;
+    }
+
+    @Override
+    public boolean update(Question question) {
+        boolean updated = super.update(question);
+        // Evict even on failure: the caller may have mutated the cached object
+        byId.invalidate(question.getId());
+        synchronized (this) {
+            if (searchIndex != null) {
+                Question stored = updated ? question : super.getById(question.getId());
+                if (stored != null) {
+                    searchIndex.update(stored);
+                }
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean deleted = super.delete(id);
+        byId.invalidate(id);
+        if (deleted) {
+            synchronized (this) {
+                if (searchIndex != null) {
+                    searchIndex.remove(id);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    /**
+     * Get the search index, loading every question into it on first use
+     */
+    public synchronized QuestionSearchIndex getSearchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new QuestionSearchIndex(getAll());
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Drop everything, e.g. after a topic delete cascaded to its questions
+     */
+    public synchronized void invalidateAll() {
+        byId.invalidateAll();
+        searchIndex = null;
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return byId.getStats();
+    }
+
+    /**
+     * Warm the cache with rows from a list query, unless a write through
+     * this DAO evicted anything while the query ran
+     */
+    private List<Question> remember(List<Question> questions, long seenInvalidations) {
+        for (Question question : questions) {
+            byId.put(question.getId(), question, seenInvalidations);
+        }
+        return questions;
+    }
+}
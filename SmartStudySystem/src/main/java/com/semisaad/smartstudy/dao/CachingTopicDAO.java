@@ -0,0 +1,117 @@
+package com.semisaad.smartstudy.dao;
+
+import com.semisaad.smartstudy.model.Topic;
+import com.semisaad.smartstudy.util.LruCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * TopicDAO that serves getById and getAll from memory.
+ * Topics change rarely but are looked up once per question row, so the
+ * cache is filled on first read and invalidated by every write through
+ * this DAO.
+ */
+public class CachingTopicDAO extends TopicDAO {
+
+    private static final int DEFAULT_MAX_SIZE = 500;
+
+    private final LruCache<Integer, Topic> byId;
+    private List<Topic> all; // Cached getAll result, null until loaded (guarded by "this")
+
+    // Bumped by every write, so a getAll that raced with one isn't cached (guarded by "this")
+    private long writes = 0;
+
+    public CachingTopicDAO() {
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    public CachingTopicDAO(int maxSize) {
+        this.byId = new LruCache<>(maxSize);
+    }
+
+    @Override
+    public Topic getById(int id) {
+        return byId.get(id, super::getById);
+    }
+
+    @Override
+    public List<Topic> getAll() {
+        long seenWrites;
+        long seenInvalidations;
+
+        synchronized (this) {
+            if (all != null) {
+                return new ArrayList<>(all);
+            }
+            seenWrites = writes;
+            seenInvalidations = byId.getInvalidations();
+        }
+
+        // Loaded outside the lock, then cached only if no write happened meanwhile
+        List<Topic> topics = super.loadAll();
+        if (topics == null) {
+            return new ArrayList<>(); // Failed - not cached, so the next call retries
+        }
+
+        for (Topic topic : topics) {
+            byId.put(topic.getId(), topic, seenInvalidations);
+        }
+        synchronized (this) {
+            if (seenWrites == writes) {
+                all = topics;
+            }
+        }
+        return new ArrayList<>(topics);
+    }
+
+    @Override
+    public boolean insert(Topic topic) {
+        boolean inserted = super.insert(topic);
+        dropAll();
+        return inserted;
+    }
+
+    @Override
+    public Map<String, Integer> resolveIds(Collection<String> names) {
+        Map<String, Integer> ids = super.resolveIds(names);
+        dropAll(); // May have created topics
+        return ids;
+    }
+
+    @Override
+    public boolean update(Topic topic) {
+        boolean updated = super.update(topic);
+        // Evict even on failure: the caller may have mutated the cached object
+        byId.invalidate(topic.getId());
+        dropAll();
+        return updated;
+    }
+
+    @Override
+    public boolean delete(int id) {
+        boolean deleted = super.delete(id);
+        byId.invalidate(id);
+        dropAll();
+        return deleted;
+    }
+
+    /**
+     * Drop everything, e.g. after topics were changed outside this DAO
+     */
+    public void invalidateAll() {
+        byId.invalidateAll();
+        dropAll();
+    }
+
+    private synchronized void dropAll() {
+        all = null;
+        writes++;
+    }
+
+    public LruCache.Stats getCacheStats() {
+        return byId.getStats();
+    }
+}
@@ -0,0 +1,236 @@
+package com.semisaad.smartstudy.dao;
+
+import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.model.CardState;
+
+import java.sql.*;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class CardStateDAO {
+
+    // get(), public for SchemaMigrator.checkHotQueryPlans
+    public static final String GET_SQL =
+            "SELECT * FROM card_state WHERE user_id = ? AND question_id = ?";
+
+    // Only move the state forward - a late-arriving older review must not
+    // overwrite a newer one
+    private static final String UPSERT_SQL =
+            "INSERT INTO card_state (user_id, question_id, ease_factor, interval_days, repetitions, " +
+                    "next_review_date, last_reviewed_at) VALUES (?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (user_id, question_id) DO UPDATE SET " +
+                    "ease_factor = EXCLUDED.ease_factor, " +
+                    "interval_days = EXCLUDED.interval_days, " +
+                    "repetitions = EXCLUDED.repetitions, " +
+                    "next_review_date = EXCLUDED.next_review_date, " +
+                    "last_reviewed_at = EXCLUDED.last_reviewed_at " +
+                    "WHERE card_state.last_reviewed_at <= EXCLUDED.last_reviewed_at";
+
+    // State of one card derived from its history: the latest review's
+    // schedule, with repetitions = correct answers since the last wrong one.
+    // The V8 backfill uses the same derivation.
+    private static final String REFRESH_SQL =
+            "INSERT INTO card_state (user_id, question_id, ease_factor, interval_days, repetitions, " +
+                    "next_review_date, last_reviewed_at) " +
+                    "SELECT r.user_id, r.question_id, r.ease_factor, r.interval_days, " +
+                    "(SELECT COUNT(*) FROM reviews c " +
+                    "WHERE c.user_id = r.user_id AND c.question_id = r.question_id AND c.was_correct " +
+                    "AND c.reviewed_at > COALESCE((SELECT MAX(w.reviewed_at) FROM reviews w " +
+                    "WHERE w.user_id = r.user_id AND w.question_id = r.question_id AND NOT w.was_correct), " +
+                    "'-infinity'::timestamp)), " +
+                    "r.next_review_date, r.reviewed_at " +
+                    "FROM reviews r WHERE r.user_id = ? AND r.question_id = ? " +
+                    "ORDER BY r.reviewed_at DESC, r.id DESC LIMIT 1";
+
+    /**
+     * Get the current card state for a question and user
+     * @param userId The user ID
+     * @param questionId The question ID
+     * @return CardState, or null if the user has no state for this question
+     */
+    public CardState get(int userId, int questionId) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(GET_SQL)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, questionId);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                CardState state = extractCardStateFromResultSet(rs);
+                rs.close();
+                return state;
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting card state: " + e.getMessage());
+        }
+
+        return null;
+    }
+
+    /**
+     * Get the card states of several questions for a user, in one query
+     * @param userId The user ID
+     * @param questionIds The question IDs to look up
+     * @return Map of question ID to CardState (questions without state are absent)
+     */
+    public Map<Integer, CardState> getByQuestionIds(int userId, Collection<Integer> questionIds) {
+        Map<Integer, CardState> states = new HashMap<>();
+        if (questionIds.isEmpty()) {
+            return states;
+        }
+
+        String sql = "SELECT * FROM card_state WHERE user_id = ? AND question_id = ANY(?::int[])";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setArray(2, conn.createArrayOf("integer", questionIds.toArray()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                CardState state = extractCardStateFromResultSet(rs);
+                states.put(state.getQuestionId(), state);
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting card states: " + e.getMessage());
+        }
+
+        return states;
+    }
+
+    /**
+     * Insert or update the card state for a question and user
+     * @param state The new state
+     * @return true if successful, false otherwise
+     */
+    public boolean upsert(CardState state) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            upsert(conn, state);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error saving card state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Upsert on a caller-supplied connection, so it can share a transaction
+     * with the matching reviews insert
+     */
+    void upsert(Connection conn, CardState state) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            pstmt.setInt(1, state.getUserId());
+            pstmt.setInt(2, state.getQuestionId());
+            pstmt.setFloat(3, state.getEaseFactor());
+            pstmt.setInt(4, state.getIntervalDays());
+            pstmt.setInt(5, state.getRepetitions());
+            pstmt.setDate(6, Date.valueOf(state.getNextReviewDate()));
+            pstmt.setTimestamp(7, Timestamp.valueOf(state.getLastReviewedAt()));
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Batched upsert on a caller-supplied connection
+     */
+    void upsertBatch(Connection conn, List<CardState> states) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(UPSERT_SQL)) {
+            for (CardState state : states) {
+                pstmt.setInt(1, state.getUserId());
+                pstmt.setInt(2, state.getQuestionId());
+                pstmt.setFloat(3, state.getEaseFactor());
+                pstmt.setInt(4, state.getIntervalDays());
+                pstmt.setInt(5, state.getRepetitions());
+                pstmt.setDate(6, Date.valueOf(state.getNextReviewDate()));
+                pstmt.setTimestamp(7, Timestamp.valueOf(state.getLastReviewedAt()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+        }
+    }
+
+    /**
+     * Delete the card state for a question and user
+     * @param userId The user ID
+     * @param questionId The question ID
+     * @return true if a row was deleted, false otherwise
+     */
+    public boolean delete(int userId, int questionId) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            return delete(conn, userId, questionId);
+        } catch (SQLException e) {
+            System.err.println("Error deleting card state: " + e.getMessage());
+            return false;
+        }
+    }
+
+    boolean delete(Connection conn, int userId, int questionId) throws SQLException {
+        String sql = "DELETE FROM card_state WHERE user_id = ? AND question_id = ?";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, questionId);
+            return pstmt.executeUpdate() > 0;
+        }
+    }
+
+    /**
+     * Recompute a card's state from its review history on a caller-supplied
+     * connection, after the history was changed other than by a new answer.
+     * The row is removed if no reviews are left.
+     */
+    void refresh(Connection conn, int userId, int questionId) throws SQLException {
+        delete(conn, userId, questionId);
+
+        try (PreparedStatement pstmt = conn.prepareStatement(REFRESH_SQL)) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, questionId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Delete every card state belonging to a user
+     * @param userId The user ID
+     * @return Number of rows deleted
+     */
+    public int deleteByUserId(int userId) {
+        String sql = "DELETE FROM card_state WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            return pstmt.executeUpdate();
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting card states by user: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Helper method to extract a CardState object from a ResultSet
+     */
+    private CardState extractCardStateFromResultSet(ResultSet rs) throws SQLException {
+        return new CardState(
+                rs.getInt("user_id"),
+                rs.getInt("question_id"),
+                rs.getFloat("ease_factor"),
+                rs.getInt("interval_days"),
+                rs.getInt("repetitions"),
+                rs.getDate("next_review_date").toLocalDate(),
+                rs.getTimestamp("last_reviewed_at").toLocalDateTime()
+        );
+    }
+}
@@ -2,24 +2,80 @@ package com.semisaad.smartstudy.dao;
 
 import com.semisaad.smartstudy.database.DatabaseConnection;
 import com.semisaad.smartstudy.model.Question;
+import org.postgresql.PGConnection;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public class QuestionDAO {
 
+    // Rows fetched per round trip when streaming with a server-side cursor
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Weighted document searched by search(); must match idx_questions_search (V5)
+    private static final String SEARCH_VECTOR =
+            "(setweight(to_tsvector('english', q.question_text), 'A') || " +
+                    "setweight(to_tsvector('english', q.answer), 'B'))";
+
+    // Queries on the study path, public so SchemaMigrator.checkHotQueryPlans
+    // can EXPLAIN exactly what runs
+    public static final String BY_TOPIC_SQL =
+            "SELECT * FROM questions WHERE topic_id = ? ORDER BY id";
+
+    public static final String BY_DIFFICULTY_SQL =
+            "SELECT * FROM questions WHERE difficulty = ? ORDER BY id";
+
+    public static final String UNREVIEWED_SQL = unreviewedSql("q.id");
+    public static final String UNREVIEWED_RANDOM_SQL = unreviewedSql("random()");
+
+    public static final String SEARCH_SQL = searchSql(true);
+    public static final String BROWSE_SQL = searchSql(false); // Blank query
+
+    private final ReviewRollupDAO rollupDAO = new ReviewRollupDAO();
+
+    private static String unreviewedSql(String order) {
+        return "SELECT q.* FROM questions q " +
+                "WHERE NOT EXISTS (SELECT 1 FROM card_state s WHERE s.user_id = ? AND s.question_id = q.id) " +
+                "AND (cardinality(?::int[]) = 0 OR q.topic_id = ANY(?::int[])) " +
+                "AND q.id <> ALL(?::int[]) " +
+                "ORDER BY " + order + " " +
+                "LIMIT ?";
+    }
+
+    // Rank and page first, so ts_headline only runs on the rows returned
+    private static String searchSql(boolean hasQuery) {
+        return "SELECT page.*, " +
+                (hasQuery ? "ts_headline('english', page.question_text || ' ' || page.answer, " +
+                        "to_tsquery('english', ?), " +
+                        "'StartSel=[, StopSel=], MaxWords=20, MinWords=5, MaxFragments=2')" : "NULL") +
+                " AS snippet FROM (" +
+                "SELECT q.*, " +
+                (hasQuery ? "ts_rank(" + SEARCH_VECTOR + ", to_tsquery('english', ?))" : "0") + " AS rank " +
+                "FROM questions q " +
+                "WHERE (?::int IS NULL OR q.topic_id = ?::int) " +
+                "AND (?::varchar IS NULL OR q.difficulty = ?::varchar) " +
+                (hasQuery ? "AND " + SEARCH_VECTOR + " @@ to_tsquery('english', ?) " : "") +
+                "ORDER BY rank DESC, q.id " +
+                "OFFSET ? LIMIT ?" +
+                ") page ORDER BY page.rank DESC, page.id";
+    }
+
     /**
      * Insert a new question into the database
-     * @param question The question to insert
+     * @param question The question to insert (its ID is set to the generated key)
      * @return true if successful, false otherwise
      */
     public boolean insert(Question question) {
         String sql = "INSERT INTO questions (question_text, answer, topic_id, difficulty, created_at) VALUES (?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(sql, new String[] {"id"})) {
 
             pstmt.setString(1, question.getQuestionText());
             pstmt.setString(2, question.getAnswer());
@@ -28,6 +84,13 @@ public class QuestionDAO {
             pstmt.setTimestamp(5, Timestamp.valueOf(question.getCreatedAt()));
 
             int rowsAffected = pstmt.executeUpdate();
+
+            try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                if (keys.next()) {
+                    question.setId(keys.getInt(1));
+                }
+            }
+
             return rowsAffected > 0;
 
         } catch (SQLException e) {
@@ -36,6 +99,85 @@ public class QuestionDAO {
         }
     }
 
+    /**
+     * Insert many questions at once (used by bulk import).
+     * Uses PostgreSQL COPY when the driver supports it, otherwise a JDBC
+     * batch; either way the whole list is one transaction.
+     * Question IDs are not set.
+     * @param questions Questions to insert
+     * @return Number of rows inserted (0 if the insert failed)
+     */
+    public int bulkInsert(List<Question> questions) {
+        if (questions.isEmpty()) {
+            return 0;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            if (conn.isWrapperFor(PGConnection.class)) {
+                return copyIn(conn.unwrap(PGConnection.class), questions);
+            }
+            return insertBatch(conn, questions);
+
+        } catch (SQLException | IOException e) {
+            System.err.println("Error bulk inserting questions: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    private int copyIn(PGConnection conn, List<Question> questions) throws SQLException, IOException {
+        String sql = "COPY questions (question_text, answer, topic_id, difficulty, created_at) " +
+                "FROM STDIN WITH (FORMAT csv)";
+
+        StringBuilder csv = new StringBuilder(questions.size() * 128);
+        for (Question question : questions) {
+            appendCsvField(csv, question.getQuestionText()).append(',');
+            appendCsvField(csv, question.getAnswer()).append(',');
+            csv.append(question.getTopicId()).append(',');
+            appendCsvField(csv, question.getDifficulty()).append(',');
+            csv.append(Timestamp.valueOf(question.getCreatedAt())).append('\n');
+        }
+
+        return (int) conn.getCopyAPI().copyIn(sql, new StringReader(csv.toString()));
+    }
+
+    private int insertBatch(Connection conn, List<Question> questions) throws SQLException {
+        String sql = "INSERT INTO questions (question_text, answer, topic_id, difficulty, created_at) VALUES (?, ?, ?, ?, ?)";
+
+        conn.setAutoCommit(false);
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            for (Question question : questions) {
+                pstmt.setString(1, question.getQuestionText());
+                pstmt.setString(2, question.getAnswer());
+                pstmt.setInt(3, question.getTopicId());
+                pstmt.setString(4, question.getDifficulty());
+                pstmt.setTimestamp(5, Timestamp.valueOf(question.getCreatedAt()));
+                pstmt.addBatch();
+            }
+            pstmt.executeBatch();
+            conn.commit();
+            return questions.size();
+
+        } catch (SQLException e) {
+            conn.rollback();
+            throw e;
+        }
+    }
+
+    /**
+     * Quote a value for COPY ... FORMAT csv
+     */
+    private static StringBuilder appendCsvField(StringBuilder csv, String value) {
+        csv.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') {
+                csv.append('"');
+            }
+            csv.append(c);
+        }
+        return csv.append('"');
+    }
+
     /**
      * Get all questions from the database
      * @return List of all questions
@@ -68,6 +210,73 @@ public class QuestionDAO {
         return questions;
     }
 
+    /**
+     * Get one page of questions in ID order, using keyset pagination
+     * @param afterId ID of the last question on the previous page (0 for the first page)
+     * @param pageSize Maximum number of questions
+     * @return Questions with an ID greater than afterId (empty when there are no more)
+     */
+    public List<Question> getPage(int afterId, int pageSize) {
+        List<Question> questions = new ArrayList<>();
+        String sql = "SELECT * FROM questions WHERE id > ? ORDER BY id LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, afterId);
+            pstmt.setInt(2, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                questions.add(extractQuestionFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting question page: " + e.getMessage());
+        }
+
+        return questions;
+    }
+
+    /**
+     * Stream every question in ID order through a server-side cursor, so
+     * memory use doesn't grow with the size of the question bank
+     * @param action Called once per question
+     * @return Number of questions streamed, or -1 if the query failed
+     *         (possibly after some questions were already passed to the action)
+     */
+    public int forEach(Consumer<Question> action) {
+        String sql = "SELECT * FROM questions ORDER BY id";
+        int count = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // Required for the driver to use a cursor
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(extractQuestionFromResultSet(rs));
+                        count++;
+                    }
+                }
+            } finally {
+                conn.commit(); // Closes the cursor
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming questions: " + e.getMessage());
+            return -1;
+        }
+
+        return count;
+    }
+
     /**
      * Get a question by its ID
      * @param id The question ID
@@ -110,10 +319,9 @@ public class QuestionDAO {
      */
     public List<Question> getByTopicId(int topicId) {
         List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE topic_id = ? ORDER BY id";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(BY_TOPIC_SQL)) {
 
             pstmt.setInt(1, topicId);
             ResultSet rs = pstmt.executeQuery();
@@ -146,10 +354,9 @@ public class QuestionDAO {
      */
     public List<Question> getByDifficulty(String difficulty) {
         List<Question> questions = new ArrayList<>();
-        String sql = "SELECT * FROM questions WHERE difficulty = ? ORDER BY id";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(BY_DIFFICULTY_SQL)) {
 
             pstmt.setString(1, difficulty);
             ResultSet rs = pstmt.executeQuery();
@@ -175,6 +382,167 @@ public class QuestionDAO {
         return questions;
     }
 
+    /**
+     * Get questions a user has never reviewed (no card_state row), in one
+     * anti-join query
+     * @param userId The user ID
+     * @param topicIds Topics to include (empty = all topics)
+     * @param excludeIds Question IDs to leave out (e.g. already handled this session)
+     * @param limit Maximum number of questions (0 or less = no limit)
+     * @param randomOrder true for a random sample, false for ID order
+     * @return List of unreviewed questions
+     */
+    public List<Question> getUnreviewed(int userId, Collection<Integer> topicIds,
+                                        Collection<Integer> excludeIds, int limit, boolean randomOrder) {
+        List<Question> questions = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(randomOrder ? UNREVIEWED_RANDOM_SQL : UNREVIEWED_SQL)) {
+
+            Array topics = conn.createArrayOf("integer", topicIds.toArray());
+            pstmt.setInt(1, userId);
+            pstmt.setArray(2, topics);
+            pstmt.setArray(3, topics);
+            pstmt.setArray(4, conn.createArrayOf("integer", excludeIds.toArray()));
+            if (limit > 0) {
+                pstmt.setInt(5, limit);
+            } else {
+                pstmt.setNull(5, Types.INTEGER); // LIMIT NULL = no limit
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                questions.add(extractQuestionFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting unreviewed questions: " + e.getMessage());
+        }
+
+        return questions;
+    }
+
+    /**
+     * Full-text search over question and answer text, best matches first.
+     * Each query word also matches longer words it prefixes ("photo" finds
+     * "photosynthesis"). A blank query lists all questions in ID order.
+     * @param query Search text
+     * @param topicId Only this topic, or null for all topics
+     * @param difficulty Only this difficulty, or null for any
+     * @param offset Number of results to skip (for paging)
+     * @param limit Maximum number of results
+     * @return One page of results with highlighted snippets
+     */
+    public List<SearchHit> search(String query, Integer topicId, String difficulty, int offset, int limit) {
+        List<SearchHit> hits = new ArrayList<>();
+        String tsQuery = toPrefixQuery(query);
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(tsQuery == null ? BROWSE_SQL : SEARCH_SQL)) {
+
+            int i = 1;
+            if (tsQuery != null) {
+                pstmt.setString(i++, tsQuery); // headline
+                pstmt.setString(i++, tsQuery); // rank
+            }
+            pstmt.setObject(i++, topicId, Types.INTEGER);
+            pstmt.setObject(i++, topicId, Types.INTEGER);
+            pstmt.setString(i++, difficulty);
+            pstmt.setString(i++, difficulty);
+            if (tsQuery != null) {
+                pstmt.setString(i++, tsQuery); // match
+            }
+            pstmt.setInt(i++, offset);
+            pstmt.setInt(i, limit);
+
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                hits.add(new SearchHit(
+                        extractQuestionFromResultSet(rs),
+                        rs.getFloat("rank"),
+                        rs.getString("snippet")
+                ));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error searching questions: " + e.getMessage());
+        }
+
+        return hits;
+    }
+
+    /**
+     * Count the results search() would return across all pages
+     * @param query Search text (blank = all questions)
+     * @param topicId Only this topic, or null for all topics
+     * @param difficulty Only this difficulty, or null for any
+     * @return Number of matching questions
+     */
+    public int countSearch(String query, Integer topicId, String difficulty) {
+        String tsQuery = toPrefixQuery(query);
+        String sql = "SELECT COUNT(*) FROM questions q " +
+                "WHERE (?::int IS NULL OR q.topic_id = ?::int) " +
+                "AND (?::varchar IS NULL OR q.difficulty = ?::varchar) " +
+                (tsQuery == null ? "" : "AND " + SEARCH_VECTOR + " @@ to_tsquery('english', ?)");
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setObject(1, topicId, Types.INTEGER);
+            pstmt.setObject(2, topicId, Types.INTEGER);
+            pstmt.setString(3, difficulty);
+            pstmt.setString(4, difficulty);
+            if (tsQuery != null) {
+                pstmt.setString(5, tsQuery);
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+            if (rs.next()) {
+                int count = rs.getInt(1);
+                rs.close();
+                return count;
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error counting search results: " + e.getMessage());
+        }
+
+        return 0;
+    }
+
+    /**
+     * Turn free text into a to_tsquery expression of prefix terms ANDed
+     * together ("cell wal" -> "cell:* & wal:*"). Only letters and digits are
+     * kept, so user input can never produce invalid tsquery syntax.
+     * @return The expression, or null if the text has no words
+     */
+    static String toPrefixQuery(String text) {
+        if (text == null) {
+            return null;
+        }
+
+        StringBuilder tsQuery = new StringBuilder();
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (word.isEmpty()) {
+                continue;
+            }
+            if (tsQuery.length() > 0) {
+                tsQuery.append(" & ");
+            }
+            tsQuery.append(word.toLowerCase()).append(":*");
+        }
+
+        return tsQuery.length() > 0 ? tsQuery.toString() : null;
+    }
+
     /**
      * Update an existing question
      * @param question The question with updated information
@@ -183,17 +551,35 @@ public class QuestionDAO {
     public boolean update(Question question) {
         String sql = "UPDATE questions SET question_text = ?, answer = ?, topic_id = ?, difficulty = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setString(1, question.getQuestionText());
-            pstmt.setString(2, question.getAnswer());
-            pstmt.setInt(3, question.getTopicId());
-            pstmt.setString(4, question.getDifficulty());
-            pstmt.setInt(5, question.getId());
-
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // The daily rollup is kept per topic, so a move takes the
+                // question's review counts along
+                boolean topicChanged = getTopicIdForUpdate(conn, question.getId()) != question.getTopicId();
+                if (topicChanged) {
+                    rollupDAO.removeQuestion(conn, question.getId());
+                }
+
+                pstmt.setString(1, question.getQuestionText());
+                pstmt.setString(2, question.getAnswer());
+                pstmt.setInt(3, question.getTopicId());
+                pstmt.setString(4, question.getDifficulty());
+                pstmt.setInt(5, question.getId());
+                int rowsAffected = pstmt.executeUpdate();
+
+                if (topicChanged) {
+                    rollupDAO.addQuestion(conn, question.getId());
+                }
+
+                conn.commit();
+                return rowsAffected > 0;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error updating question: " + e.getMessage());
@@ -201,6 +587,22 @@ public class QuestionDAO {
         }
     }
 
+    /**
+     * Lock a question row for the rest of the transaction
+     * @return Its topic ID, or -1 if the question doesn't exist
+     */
+    private int getTopicIdForUpdate(Connection conn, int questionId) throws SQLException {
+        String sql = "SELECT topic_id FROM questions WHERE id = ? FOR UPDATE";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, questionId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? rs.getInt(1) : -1;
+            }
+        }
+    }
+
     /**
      * Delete a question by its ID
      * @param id The question ID to delete
@@ -209,12 +611,31 @@ public class QuestionDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM questions WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
 
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // Lock the question so no review of it is inserted between
+                // the rollup subtraction and the delete
+                if (getTopicIdForUpdate(conn, id) < 0) {
+                    conn.rollback();
+                    return false;
+                }
+
+                // Its reviews go with it (ON DELETE CASCADE), so take them out
+                // of the daily rollup first
+                rollupDAO.removeQuestion(conn, id);
+
+                pstmt.setInt(1, id);
+                int rowsAffected = pstmt.executeUpdate();
+
+                conn.commit();
+                return rowsAffected > 0;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error deleting question: " + e.getMessage());
@@ -243,4 +664,43 @@ public class QuestionDAO {
 
         return 0;
     }
-}
\ No newline at end of file
+
+    /**
+     * Helper method to extract a Question object from a ResultSet
+     * (shared with DAOs that join against questions)
+     */
+    static Question extractQuestionFromResultSet(ResultSet rs) throws SQLException {
+        int id = rs.getInt("id");
+        String questionText = rs.getString("question_text");
+        String answer = rs.getString("answer");
+        int topicId = rs.getInt("topic_id");
+        String difficulty = rs.getString("difficulty");
+        Timestamp timestamp = rs.getTimestamp("created_at");
+        LocalDateTime createdAt = timestamp.toLocalDateTime();
+
+        return new Question(id, questionText, answer, topicId, difficulty, createdAt);
+    }
+
+    /**
+     * One full-text search result
+     */
+    public static class SearchHit {
+        private final Question question;
+        private final float rank;
+        private final String snippet;
+
+        public SearchHit(Question question, float rank, String snippet) {
+            this.question = question;
+            this.rank = rank;
+            this.snippet = snippet;
+        }
+
+        public Question getQuestion() { return question; }
+        public float getRank() { return rank; }
+
+        /**
+         * Matching text with hits wrapped in [brackets], or null for a blank query
+         */
+        public String getSnippet() { return snippet; }
+    }
+}
@@ -1,38 +1,160 @@
 package com.semisaad.smartstudy.dao;
 
 import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.model.CardState;
+import com.semisaad.smartstudy.model.Question;
 import com.semisaad.smartstudy.model.Review;
+import com.semisaad.smartstudy.model.Topic;
 
 import java.sql.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
 
 public class ReviewDAO {
 
+    // Rows fetched per round trip when streaming with a server-side cursor
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Columns read by extractReviewFromResultSet, in the order it reads them
+    private static final String REVIEW_COLUMNS =
+            "id, question_id, user_id, reviewed_at, was_correct, ease_factor, interval_days, next_review_date";
+
+    // How far back getCurrentStreak looks; longer streaks are reported as this
+    private static final int STREAK_LOOKBACK_DAYS = 365;
+
+    // A card whose latest answer was correct counts as mastered once its
+    // interval reaches this many days (Anki calls these "mature" cards)
+    public static final int MASTERED_INTERVAL_DAYS = 21;
+
+    // Queries on the study path, public so SchemaMigrator.checkHotQueryPlans
+    // can EXPLAIN exactly what runs
+    public static final String INSERT_SQL = ReviewRollupDAO.withRollup(
+            "INSERT INTO reviews (question_id, user_id, reviewed_at, was_correct, ease_factor, interval_days, next_review_date) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?)");
+
+    public static final String INSERT_BATCH_SQL = ReviewRollupDAO.withRollup(
+            "INSERT INTO reviews (question_id, user_id, reviewed_at, was_correct, ease_factor, interval_days, " +
+                    "next_review_date, submission_id) VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+                    "ON CONFLICT (submission_id) DO NOTHING");
+
+    public static final String BY_USER_SQL =
+            "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE user_id = ? ORDER BY reviewed_at DESC";
+
+    // Later pages of getByUserIdPage (the first page leaves out the keyset condition)
+    public static final String USER_PAGE_AFTER_SQL =
+            "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE user_id = ? AND (reviewed_at, id) < (?, ?) " +
+                    "ORDER BY reviewed_at DESC, id DESC LIMIT ?";
+
+    public static final String BY_QUESTION_SQL =
+            "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE question_id = ? ORDER BY reviewed_at DESC";
+
+    public static final String DUE_QUESTION_IDS_SQL =
+            "SELECT question_id FROM card_state " +
+                    "WHERE user_id = ? AND next_review_date <= CURRENT_DATE";
+
+    public static final String DUE_QUESTIONS_SQL =
+            "SELECT q.* FROM card_state s " +
+                    "JOIN questions q ON q.id = s.question_id " +
+                    "WHERE s.user_id = ? AND s.next_review_date <= CURRENT_DATE " +
+                    "AND (cardinality(?::int[]) = 0 OR q.topic_id = ANY(?::int[])) " +
+                    "AND q.id <> ALL(?::int[]) " +
+                    "ORDER BY s.next_review_date, q.id " +
+                    "LIMIT ?";
+
+    public static final String LATEST_REVIEW_SQL =
+            "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE question_id = ? AND user_id = ? " +
+                    "ORDER BY reviewed_at DESC LIMIT 1";
+
+    public static final String LATEST_REVIEWS_SQL =
+            "SELECT DISTINCT ON (question_id) " + REVIEW_COLUMNS + " FROM reviews " +
+                    "WHERE user_id = ? AND question_id = ANY(?::int[]) " +
+                    "ORDER BY question_id, reviewed_at DESC";
+
+    // Only question_id, for callers that just need to know what was reviewed
+    public static final String REVIEWED_QUESTION_IDS_SQL =
+            "SELECT DISTINCT question_id FROM reviews WHERE user_id = ? AND question_id = ANY(?::int[])";
+
+    // The latest review of each question, then the most recent of those
+    public static final String RECENT_QUESTIONS_SQL =
+            "SELECT * FROM (SELECT DISTINCT ON (question_id) " + REVIEW_COLUMNS + " FROM reviews " +
+                    "WHERE user_id = ? ORDER BY question_id, reviewed_at DESC, id DESC) latest " +
+                    "ORDER BY reviewed_at DESC, id DESC LIMIT ?";
+
+    public static final String TOPIC_PERFORMANCE_SQL =
+            "SELECT t.id, t.name, t.description, t.created_at, " +
+                    "COUNT(q.id) AS questions, " +
+                    "COUNT(s.question_id) AS reviewed, " +
+                    "COUNT(*) FILTER (WHERE s.repetitions > 0) AS correct, " +
+                    "COUNT(*) FILTER (WHERE s.repetitions > 0 AND s.interval_days >= ?) AS mastered " +
+                    "FROM topics t " +
+                    "LEFT JOIN questions q ON q.topic_id = t.id " +
+                    "LEFT JOIN card_state s ON s.user_id = ? AND s.question_id = q.id " +
+                    "GROUP BY t.id ORDER BY t.name";
+
+    // One rollup row per topic studied that day, not one per review
+    public static final String DAILY_ACTIVITY_SQL =
+            "SELECT day, SUM(reviews) AS reviews, SUM(correct) AS correct " +
+                    "FROM review_daily_rollup WHERE user_id = ? AND day BETWEEN ? AND ? " +
+                    "GROUP BY day HAVING SUM(reviews) > 0 ORDER BY day";
+
+    private final CardStateDAO cardStateDAO = new CardStateDAO();
+    private final ReviewRollupDAO rollupDAO = new ReviewRollupDAO();
+
     /**
-     * Insert a new review into the database
+     * Insert a new review into the database. The card's state is recomputed
+     * from its history in the same transaction.
      * @param review The review to insert
      * @return true if successful, false otherwise
      */
     public boolean insert(Review review) {
-        String sql = "INSERT INTO reviews (question_id, user_id, reviewed_at, was_correct, ease_factor, interval_days, next_review_date) " +
-                "VALUES (?, ?, ?, ?, ?, ?, ?)";
-
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, review.getQuestionId());
-            pstmt.setInt(2, review.getUserId());
-            pstmt.setTimestamp(3, Timestamp.valueOf(review.getReviewedAt()));
-            pstmt.setBoolean(4, review.isWasCorrect());
-            pstmt.setFloat(5, review.getEaseFactor());
-            pstmt.setInt(6, review.getIntervalDays());
-            pstmt.setDate(7, Date.valueOf(review.getNextReviewDate()));
+        return insert(review, null);
+    }
 
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+    /**
+     * Insert a review and upsert the matching card_state row in one transaction
+     * @param review The review to insert
+     * @param state The card state after this review, or null to recompute it
+     *              from the card's history
+     * @return true if both writes committed, false otherwise
+     */
+    public boolean insert(Review review, CardState state) {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_SQL)) {
+                lockCards(conn, List.of(review));
+
+                pstmt.setInt(1, review.getQuestionId());
+                pstmt.setInt(2, review.getUserId());
+                pstmt.setTimestamp(3, Timestamp.valueOf(review.getReviewedAt()));
+                pstmt.setBoolean(4, review.isWasCorrect());
+                pstmt.setFloat(5, review.getEaseFactor());
+                pstmt.setInt(6, review.getIntervalDays());
+                pstmt.setDate(7, Date.valueOf(review.getNextReviewDate()));
+                pstmt.executeUpdate();
+
+                if (state != null) {
+                    cardStateDAO.upsert(conn, state);
+                } else {
+                    cardStateDAO.refresh(conn, review.getUserId(), review.getQuestionId());
+                }
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error inserting review: " + e.getMessage());
@@ -40,13 +162,66 @@ public class ReviewDAO {
         }
     }
 
+    /**
+     * Insert many reviews and their card states in one transaction using
+     * JDBC batching. Reviews whose submission ID is already stored are
+     * skipped, so a batch can safely be retried.
+     * @param reviews Reviews to insert, oldest first
+     * @param states Card state after each review (same order)
+     * @return true if the whole batch committed, false otherwise
+     */
+    public boolean insertBatch(List<Review> reviews, List<CardState> states) {
+        try {
+            insertBatchOrThrow(reviews, states);
+            return true;
+        } catch (SQLException e) {
+            System.err.println("Error inserting review batch: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Same as insertBatch, but the failure is thrown so the caller can tell
+     * a bad row (SQLState class 23) from a lost connection (class 08)
+     * @throws SQLException if the batch was rolled back
+     */
+    public void insertBatchOrThrow(List<Review> reviews, List<CardState> states) throws SQLException {
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(INSERT_BATCH_SQL)) {
+                lockCards(conn, reviews);
+
+                for (Review review : reviews) {
+                    pstmt.setInt(1, review.getQuestionId());
+                    pstmt.setInt(2, review.getUserId());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(review.getReviewedAt()));
+                    pstmt.setBoolean(4, review.isWasCorrect());
+                    pstmt.setFloat(5, review.getEaseFactor());
+                    pstmt.setInt(6, review.getIntervalDays());
+                    pstmt.setDate(7, Date.valueOf(review.getNextReviewDate()));
+                    pstmt.setObject(8, review.getSubmissionId());
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                cardStateDAO.upsertBatch(conn, states);
+                conn.commit();
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+        }
+    }
+
     /**
      * Get all reviews from the database
      * @return List of all reviews
      */
     public List<Review> getAll() {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT * FROM reviews ORDER BY reviewed_at DESC";
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM reviews ORDER BY reviewed_at DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement();
@@ -64,13 +239,60 @@ public class ReviewDAO {
         return reviews;
     }
 
+    /**
+     * Get one page of all reviews, newest first, using keyset pagination
+     * @param after Last review of the previous page, or null for the first page
+     * @param pageSize Maximum number of reviews
+     * @return Reviews older than "after" (empty when there are no more)
+     */
+    public List<Review> getPage(Review after, int pageSize) {
+        List<Review> reviews = new ArrayList<>();
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM reviews " +
+                (after == null ? "" : "WHERE (reviewed_at, id) < (?, ?) ") +
+                "ORDER BY reviewed_at DESC, id DESC LIMIT ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            if (after != null) {
+                pstmt.setTimestamp(i++, Timestamp.valueOf(after.getReviewedAt()));
+                pstmt.setInt(i++, after.getId());
+            }
+            pstmt.setInt(i, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reviews.add(extractReviewFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting review page: " + e.getMessage());
+        }
+
+        return reviews;
+    }
+
+    /**
+     * Stream every review, newest first, without holding them all in memory
+     * @param action Called once per review
+     * @return Number of reviews streamed, or -1 if the query failed (possibly
+     *         after some reviews were already passed to the action)
+     */
+    public int forEach(Consumer<Review> action) {
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM reviews ORDER BY reviewed_at DESC, id DESC";
+        return stream(sql, null, action);
+    }
+
     /**
      * Get a review by its ID
      * @param id The review ID
      * @return Review object, or null if not found
      */
     public Review getById(int id) {
-        String sql = "SELECT * FROM reviews WHERE id = ?";
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE id = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
@@ -100,10 +322,9 @@ public class ReviewDAO {
      */
     public List<Review> getByUserId(int userId) {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT * FROM reviews WHERE user_id = ? ORDER BY reviewed_at DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(BY_USER_SQL)) {
 
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -122,6 +343,92 @@ public class ReviewDAO {
         return reviews;
     }
 
+    /**
+     * Get one page of a user's reviews, newest first, using keyset pagination
+     * @param userId The user ID
+     * @param after Last review of the previous page, or null for the first page
+     * @param pageSize Maximum number of reviews
+     * @return Reviews older than "after" (empty when there are no more)
+     */
+    public List<Review> getByUserIdPage(int userId, Review after, int pageSize) {
+        List<Review> reviews = new ArrayList<>();
+        String sql = after == null
+                ? "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE user_id = ? ORDER BY reviewed_at DESC, id DESC LIMIT ?"
+                : USER_PAGE_AFTER_SQL;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            int i = 1;
+            pstmt.setInt(i++, userId);
+            if (after != null) {
+                pstmt.setTimestamp(i++, Timestamp.valueOf(after.getReviewedAt()));
+                pstmt.setInt(i++, after.getId());
+            }
+            pstmt.setInt(i, pageSize);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reviews.add(extractReviewFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting review page by user: " + e.getMessage());
+        }
+
+        return reviews;
+    }
+
+    /**
+     * Stream a user's reviews, newest first, without holding them all in memory
+     * @param userId The user ID
+     * @param action Called once per review
+     * @return Number of reviews streamed, or -1 if the query failed
+     */
+    public int forEachByUserId(int userId, Consumer<Review> action) {
+        String sql = "SELECT " + REVIEW_COLUMNS + " FROM reviews WHERE user_id = ? ORDER BY reviewed_at DESC, id DESC";
+        return stream(sql, userId, action);
+    }
+
+    /**
+     * Run a query through a server-side cursor: with autocommit off and a
+     * fetch size set, the driver pulls STREAM_FETCH_SIZE rows at a time
+     * instead of buffering the whole result
+     */
+    private int stream(String sql, Integer userId, Consumer<Review> action) {
+        int count = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+                if (userId != null) {
+                    pstmt.setInt(1, userId);
+                }
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(extractReviewFromResultSet(rs));
+                        count++;
+                    }
+                }
+            } finally {
+                conn.commit(); // Closes the cursor
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming reviews: " + e.getMessage());
+            return -1;
+        }
+
+        return count;
+    }
+
     /**
      * Get all reviews for a specific question
      * @param questionId The question ID
@@ -129,10 +436,9 @@ public class ReviewDAO {
      */
     public List<Review> getByQuestionId(int questionId) {
         List<Review> reviews = new ArrayList<>();
-        String sql = "SELECT * FROM reviews WHERE question_id = ? ORDER BY reviewed_at DESC";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(BY_QUESTION_SQL)) {
 
             pstmt.setInt(1, questionId);
             ResultSet rs = pstmt.executeQuery();
@@ -152,19 +458,18 @@ public class ReviewDAO {
     }
 
     /**
-     * Get questions that are due for review today for a specific user
+     * Get questions that are due for review today for a specific user.
+     * Read from card_state, which holds each card's latest schedule, so an old
+     * review whose date has passed doesn't make a card due if it was reviewed
+     * again since.
      * @param userId The user ID
      * @return List of question IDs that need review
      */
     public List<Integer> getDueQuestionIds(int userId) {
         List<Integer> questionIds = new ArrayList<>();
 
-        // Fixed query: Remove ORDER BY or include it in SELECT
-        String sql = "SELECT DISTINCT question_id FROM reviews " +
-                "WHERE user_id = ? AND next_review_date <= CURRENT_DATE";
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(DUE_QUESTION_IDS_SQL)) {
 
             pstmt.setInt(1, userId);
             ResultSet rs = pstmt.executeQuery();
@@ -182,6 +487,49 @@ public class ReviewDAO {
         return questionIds;
     }
 
+    /**
+     * Get fully loaded questions due for review, in one query.
+     * Uses each card's state, most overdue first.
+     * @param userId The user ID
+     * @param topicIds Topics to include (empty = all topics)
+     * @param excludeIds Question IDs to leave out before the limit is applied
+     *                   (e.g. answered this session but not yet written)
+     * @param limit Maximum number of questions (0 or less = no limit)
+     * @return List of due questions
+     */
+    public List<Question> getDueQuestions(int userId, Collection<Integer> topicIds,
+                                          Collection<Integer> excludeIds, int limit) {
+        List<Question> questions = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DUE_QUESTIONS_SQL)) {
+
+            Array topics = conn.createArrayOf("integer", topicIds.toArray());
+            pstmt.setInt(1, userId);
+            pstmt.setArray(2, topics);
+            pstmt.setArray(3, topics);
+            pstmt.setArray(4, conn.createArrayOf("integer", excludeIds.toArray()));
+            if (limit > 0) {
+                pstmt.setInt(5, limit);
+            } else {
+                pstmt.setNull(5, Types.INTEGER); // LIMIT NULL = no limit
+            }
+
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                questions.add(QuestionDAO.extractQuestionFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting due questions: " + e.getMessage());
+        }
+
+        return questions;
+    }
+
     /**
      * Get the most recent review for a specific question and user
      * @param questionId The question ID
@@ -189,11 +537,8 @@ public class ReviewDAO {
      * @return Most recent Review, or null if not found
      */
     public Review getLatestReview(int questionId, int userId) {
-        String sql = "SELECT * FROM reviews WHERE question_id = ? AND user_id = ? " +
-                "ORDER BY reviewed_at DESC LIMIT 1";
-
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+             PreparedStatement pstmt = conn.prepareStatement(LATEST_REVIEW_SQL)) {
 
             pstmt.setInt(1, questionId);
             pstmt.setInt(2, userId);
@@ -214,6 +559,139 @@ public class ReviewDAO {
         return null;
     }
 
+    /**
+     * Get the most recent review of each of several questions for a user,
+     * in one query
+     * @param userId The user ID
+     * @param questionIds The question IDs to look up
+     * @return Map of question ID to latest Review (questions never reviewed are absent)
+     */
+    public Map<Integer, Review> getLatestReviews(int userId, Collection<Integer> questionIds) {
+        Map<Integer, Review> latest = new HashMap<>();
+        if (questionIds.isEmpty()) {
+            return latest;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(LATEST_REVIEWS_SQL)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setArray(2, conn.createArrayOf("integer", questionIds.toArray()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Review review = extractReviewFromResultSet(rs);
+                latest.put(review.getQuestionId(), review);
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting latest reviews: " + e.getMessage());
+        }
+
+        return latest;
+    }
+
+    /**
+     * Find which of several questions a user has reviewed, reading only the
+     * question IDs instead of whole review rows
+     * @param userId The user ID
+     * @param questionIds The question IDs to check
+     * @return The IDs among questionIds with at least one review
+     */
+    public Set<Integer> getReviewedQuestionIds(int userId, Collection<Integer> questionIds) {
+        Set<Integer> reviewed = new HashSet<>();
+        if (questionIds.isEmpty()) {
+            return reviewed;
+        }
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(REVIEWED_QUESTION_IDS_SQL)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setArray(2, conn.createArrayOf("integer", questionIds.toArray()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reviewed.add(rs.getInt(1));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting reviewed question IDs: " + e.getMessage());
+        }
+
+        return reviewed;
+    }
+
+    /**
+     * Get the latest review of each of the questions a user reviewed most recently
+     * @param userId The user ID
+     * @param limit Maximum number of questions
+     * @return One review per question, newest first
+     */
+    public List<Review> getRecentlyReviewed(int userId, int limit) {
+        List<Review> reviews = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(RECENT_QUESTIONS_SQL)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, limit);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                reviews.add(extractReviewFromResultSet(rs));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting recently reviewed questions: " + e.getMessage());
+        }
+
+        return reviews;
+    }
+
+    /**
+     * Count how many times in a row the user has answered a question
+     * correctly, i.e. correct reviews since their most recent wrong one
+     * @param questionId The question ID
+     * @param userId The user ID
+     * @return Current run of correct answers
+     */
+    public int getConsecutiveCorrectCount(int questionId, int userId) {
+        String sql = "SELECT COUNT(*) FROM reviews " +
+                "WHERE question_id = ? AND user_id = ? AND was_correct " +
+                "AND reviewed_at > COALESCE((SELECT MAX(reviewed_at) FROM reviews " +
+                "WHERE question_id = ? AND user_id = ? AND NOT was_correct), '-infinity'::timestamp)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, questionId);
+            pstmt.setInt(2, userId);
+            pstmt.setInt(3, questionId);
+            pstmt.setInt(4, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                int count = rs.getInt(1);
+                rs.close();
+                return count;
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error counting consecutive correct reviews: " + e.getMessage());
+        }
+
+        return 0;
+    }
+
     /**
      * Update an existing review
      * @param review The review with updated information
@@ -223,19 +701,52 @@ public class ReviewDAO {
         String sql = "UPDATE reviews SET question_id = ?, user_id = ?, was_correct = ?, " +
                 "ease_factor = ?, interval_days = ?, next_review_date = ? WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, review.getQuestionId());
-            pstmt.setInt(2, review.getUserId());
-            pstmt.setBoolean(3, review.isWasCorrect());
-            pstmt.setFloat(4, review.getEaseFactor());
-            pstmt.setInt(5, review.getIntervalDays());
-            pstmt.setDate(6, Date.valueOf(review.getNextReviewDate()));
-            pstmt.setInt(7, review.getId());
-
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                // The edit may move the review to another card; take both
+                // cards out of the rollup and count them again afterwards
+                int[] oldCard = lockReview(conn, review.getId());
+                if (oldCard == null) {
+                    conn.rollback();
+                    return false;
+                }
+                SortedSet<Long> cards = new TreeSet<>();
+                cards.add(ReviewRollupDAO.card(oldCard[0], oldCard[1]));
+                cards.add(ReviewRollupDAO.card(review.getUserId(), review.getQuestionId()));
+                ReviewRollupDAO.lockCards(conn, cards);
+
+                boolean sameCard = cards.size() == 1;
+                rollupDAO.removeCard(conn, oldCard[0], oldCard[1]);
+                if (!sameCard) {
+                    rollupDAO.removeCard(conn, review.getUserId(), review.getQuestionId());
+                }
+
+                pstmt.setInt(1, review.getQuestionId());
+                pstmt.setInt(2, review.getUserId());
+                pstmt.setBoolean(3, review.isWasCorrect());
+                pstmt.setFloat(4, review.getEaseFactor());
+                pstmt.setInt(5, review.getIntervalDays());
+                pstmt.setDate(6, Date.valueOf(review.getNextReviewDate()));
+                pstmt.setInt(7, review.getId());
+                int rowsAffected = pstmt.executeUpdate();
+
+                // Editing history changes the derived card states the same way
+                rollupDAO.addCard(conn, oldCard[0], oldCard[1]);
+                cardStateDAO.refresh(conn, oldCard[0], oldCard[1]);
+                if (!sameCard) {
+                    rollupDAO.addCard(conn, review.getUserId(), review.getQuestionId());
+                    cardStateDAO.refresh(conn, review.getUserId(), review.getQuestionId());
+                }
+
+                conn.commit();
+                return rowsAffected > 0;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error updating review: " + e.getMessage());
@@ -251,12 +762,34 @@ public class ReviewDAO {
     public boolean delete(int id) {
         String sql = "DELETE FROM reviews WHERE id = ?";
 
-        try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement pstmt = conn.prepareStatement(sql)) {
-
-            pstmt.setInt(1, id);
-            int rowsAffected = pstmt.executeUpdate();
-            return rowsAffected > 0;
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                int[] card = lockReview(conn, id);
+                if (card == null) {
+                    conn.rollback();
+                    return false;
+                }
+                ReviewRollupDAO.lockCards(conn, new TreeSet<>(List.of(ReviewRollupDAO.card(card[0], card[1]))));
+
+                // Later reviews of the card may change from "new" or "lapse",
+                // so the whole card is counted again without this review
+                rollupDAO.removeCard(conn, card[0], card[1]);
+                pstmt.setInt(1, id);
+                pstmt.executeUpdate();
+                rollupDAO.addCard(conn, card[0], card[1]);
+
+                // The card is due (or new) again according to what is left
+                cardStateDAO.refresh(conn, card[0], card[1]);
+
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
 
         } catch (SQLException e) {
             System.err.println("Error deleting review: " + e.getMessage());
@@ -264,6 +797,68 @@ public class ReviewDAO {
         }
     }
 
+    /**
+     * Delete all of a user's reviews, with their card states and rollup rows,
+     * in one transaction
+     * @param userId The user ID
+     * @return Number of reviews deleted, or -1 on error
+     */
+    public int deleteByUserId(int userId) {
+        String sql = "DELETE FROM reviews WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql);
+                 PreparedStatement states = conn.prepareStatement("DELETE FROM card_state WHERE user_id = ?")) {
+                pstmt.setInt(1, userId);
+                int deleted = pstmt.executeUpdate();
+
+                states.setInt(1, userId);
+                states.executeUpdate();
+                rollupDAO.deleteByUserId(conn, userId);
+
+                conn.commit();
+                return deleted;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error deleting reviews by user: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    /**
+     * Lock the cards of new reviews before inserting them (see ReviewRollupDAO.lockCards)
+     */
+    private static void lockCards(Connection conn, List<Review> reviews) throws SQLException {
+        SortedSet<Long> cards = new TreeSet<>();
+        for (Review review : reviews) {
+            cards.add(ReviewRollupDAO.card(review.getUserId(), review.getQuestionId()));
+        }
+        ReviewRollupDAO.lockCards(conn, cards);
+    }
+
+    /**
+     * Lock a review row for the rest of the transaction
+     * @return {userId, questionId} of the review, or null if it doesn't exist
+     */
+    private int[] lockReview(Connection conn, int reviewId) throws SQLException {
+        String sql = "SELECT user_id, question_id FROM reviews WHERE id = ? FOR UPDATE";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, reviewId);
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                return rs.next() ? new int[]{rs.getInt(1), rs.getInt(2)} : null;
+            }
+        }
+    }
+
     /**
      * Get total count of reviews
      * @return Number of reviews
@@ -286,23 +881,262 @@ public class ReviewDAO {
         return 0;
     }
 
+    /**
+     * Get a user's review totals and current due count in one query
+     * @param userId The user ID
+     * @return ReviewTotals (all zero if the user has no reviews), or null on error
+     */
+    public ReviewTotals getReviewTotals(int userId) {
+        // Totals come from the daily rollup, the due count from card_state
+        String sql = "SELECT COALESCE(SUM(reviews), 0) AS total, " +
+                "COALESCE(SUM(correct), 0) AS correct, " +
+                "(SELECT COUNT(*) FROM card_state " +
+                "WHERE user_id = ? AND next_review_date <= CURRENT_DATE) AS due " +
+                "FROM review_daily_rollup WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            if (rs.next()) {
+                ReviewTotals totals = new ReviewTotals(rs.getInt("total"), rs.getInt("correct"), rs.getInt("due"));
+                rs.close();
+                return totals;
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting review totals: " + e.getMessage());
+            return null;
+        }
+
+        return new ReviewTotals(0, 0, 0);
+    }
+
+    /**
+     * Get how many different questions a user has reviewed, from the daily
+     * rollup (each card's first review is counted once as a new card)
+     * @param userId The user ID
+     * @return Number of questions reviewed at least once (0 on error)
+     */
+    public int getReviewedQuestionCount(int userId) {
+        String sql = "SELECT COALESCE(SUM(new_cards), 0) FROM review_daily_rollup WHERE user_id = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            int count = rs.next() ? rs.getInt(1) : 0;
+            rs.close();
+            return count;
+
+        } catch (SQLException e) {
+            System.err.println("Error getting reviewed question count: " + e.getMessage());
+            return 0;
+        }
+    }
+
+    /**
+     * Get per-topic progress for a user from each card's state, in one
+     * grouped query (a card with repetitions was last answered correctly)
+     * @param userId The user ID
+     * @return One entry per topic (including topics without questions),
+     *         ordered by topic name (empty on error)
+     */
+    public List<TopicPerformance> getTopicPerformance(int userId) {
+        List<TopicPerformance> performance = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(TOPIC_PERFORMANCE_SQL)) {
+
+            pstmt.setInt(1, MASTERED_INTERVAL_DAYS);
+            pstmt.setInt(2, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Topic topic = new Topic(rs.getInt("id"), rs.getString("name"),
+                        rs.getString("description"), rs.getTimestamp("created_at").toLocalDateTime());
+                performance.add(new TopicPerformance(topic, rs.getInt("questions"), rs.getInt("reviewed"),
+                        rs.getInt("correct"), rs.getInt("mastered")));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting topic performance: " + e.getMessage());
+        }
+
+        return performance;
+    }
+
+    /**
+     * Get a user's review and correct counts per day for a date range.
+     * Days without reviews are left out.
+     * @param userId The user ID
+     * @param from First day (inclusive)
+     * @param to Last day (inclusive)
+     * @return One entry per active day, oldest first (empty on error)
+     */
+    public List<DailyActivity> getDailyActivity(int userId, LocalDate from, LocalDate to) {
+        List<DailyActivity> days = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(DAILY_ACTIVITY_SQL)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setObject(2, from);
+            pstmt.setObject(3, to);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                days.add(new DailyActivity(rs.getObject("day", LocalDate.class),
+                        rs.getInt("reviews"), rs.getInt("correct")));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting daily activity: " + e.getMessage());
+        }
+
+        return days;
+    }
+
+    /**
+     * Get the number of consecutive days, ending today, on which the user
+     * reviewed at least once
+     * @param userId The user ID
+     * @param today The last day of the streak
+     * @return Streak length in days (0 if there was no review today or on error)
+     */
+    public int getCurrentStreak(int userId, LocalDate today) {
+        // Gaps and islands: numbering the distinct days newest first, day + n is
+        // the same for every day in an unbroken run, so the streak is the size of
+        // the run that contains today
+        String sql = "WITH days AS (" +
+                "SELECT DISTINCT day FROM review_daily_rollup " +
+                "WHERE user_id = ? AND day BETWEEN ? AND ? AND reviews > 0), " +
+                "islands AS (" +
+                "SELECT day, day + (ROW_NUMBER() OVER (ORDER BY day DESC))::int AS island FROM days) " +
+                "SELECT COUNT(*) FROM islands " +
+                "WHERE island = (SELECT island FROM islands WHERE day = ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setInt(1, userId);
+            pstmt.setObject(2, today.minusDays(STREAK_LOOKBACK_DAYS - 1));
+            pstmt.setObject(3, today);
+            pstmt.setObject(4, today);
+            ResultSet rs = pstmt.executeQuery();
+
+            int streak = rs.next() ? rs.getInt(1) : 0;
+            rs.close();
+            return streak;
+
+        } catch (SQLException e) {
+            System.err.println("Error getting current streak: " + e.getMessage());
+            return 0;
+        }
+    }
+
     /**
      * Helper method to extract a Review object from a ResultSet
-     * (Reduces code duplication)
+     * (Reduces code duplication). Reads by position, so the query must
+     * select REVIEW_COLUMNS. Dates are decoded straight into java.time
+     * instead of going through Timestamp/Date.
      */
     private Review extractReviewFromResultSet(ResultSet rs) throws SQLException {
-        int id = rs.getInt("id");
-        int questionId = rs.getInt("question_id");
-        int userId = rs.getInt("user_id");
-        Timestamp timestamp = rs.getTimestamp("reviewed_at");
-        LocalDateTime reviewedAt = timestamp.toLocalDateTime();
-        boolean wasCorrect = rs.getBoolean("was_correct");
-        float easeFactor = rs.getFloat("ease_factor");
-        int intervalDays = rs.getInt("interval_days");
-        Date date = rs.getDate("next_review_date");
-        LocalDate nextReviewDate = date.toLocalDate();
+        int id = rs.getInt(1);
+        int questionId = rs.getInt(2);
+        int userId = rs.getInt(3);
+        LocalDateTime reviewedAt = rs.getObject(4, LocalDateTime.class);
+        boolean wasCorrect = rs.getBoolean(5);
+        float easeFactor = rs.getFloat(6);
+        int intervalDays = rs.getInt(7);
+        LocalDate nextReviewDate = rs.getObject(8, LocalDate.class);
 
         return new Review(id, questionId, userId, reviewedAt, wasCorrect,
                 easeFactor, intervalDays, nextReviewDate);
     }
-}
\ No newline at end of file
+
+    /**
+     * Aggregate review counts for one user
+     */
+    public static class ReviewTotals {
+        private final int totalReviews;
+        private final int correctReviews;
+        private final int dueQuestions;
+
+        public ReviewTotals(int totalReviews, int correctReviews, int dueQuestions) {
+            this.totalReviews = totalReviews;
+            this.correctReviews = correctReviews;
+            this.dueQuestions = dueQuestions;
+        }
+
+        public int getTotalReviews() { return totalReviews; }
+        public int getCorrectReviews() { return correctReviews; }
+        public int getDueQuestions() { return dueQuestions; }
+    }
+
+    /**
+     * Review counts for one user on one day
+     */
+    public static class DailyActivity {
+        private final LocalDate date;
+        private final int reviewCount;
+        private final int correctCount;
+
+        public DailyActivity(LocalDate date, int reviewCount, int correctCount) {
+            this.date = date;
+            this.reviewCount = reviewCount;
+            this.correctCount = correctCount;
+        }
+
+        public LocalDate getDate() { return date; }
+        public int getReviewCount() { return reviewCount; }
+        public int getCorrectCount() { return correctCount; }
+    }
+
+    /**
+     * One topic's progress for one user, based on the latest review of
+     * each of its cards
+     */
+    public static class TopicPerformance {
+        private final Topic topic;
+        private final int totalQuestions;
+        private final int reviewedCount;
+        private final int correctCount;
+        private final int masteredCount;
+
+        public TopicPerformance(Topic topic, int totalQuestions, int reviewedCount,
+                                int correctCount, int masteredCount) {
+            this.topic = topic;
+            this.totalQuestions = totalQuestions;
+            this.reviewedCount = reviewedCount;
+            this.correctCount = correctCount;
+            this.masteredCount = masteredCount;
+        }
+
+        public Topic getTopic() { return topic; }
+        public int getTotalQuestions() { return totalQuestions; }
+        public int getReviewedCount() { return reviewedCount; }
+        public int getCorrectCount() { return correctCount; }
+        public int getMasteredCount() { return masteredCount; }
+        public int getLearningCount() { return reviewedCount - masteredCount; }
+        public int getNewCount() { return totalQuestions - reviewedCount; }
+
+        /**
+         * Share of reviewed cards whose latest answer was correct, 0-100
+         */
+        public double getAccuracy() {
+            return reviewedCount > 0 ? correctCount * 100.0 / reviewedCount : 0;
+        }
+    }
+}
@@ -0,0 +1,227 @@
+package com.semisaad.smartstudy.dao;
+
+import com.semisaad.smartstudy.database.DatabaseConnection;
+
+import java.sql.*;
+import java.util.SortedSet;
+
+/**
+ * Maintains review_daily_rollup: one row per (user, day, topic) with the
+ * number of reviews, correct answers, first reviews of a card (new_cards)
+ * and lapses (a wrong answer right after a correct one) on that day.
+ *
+ * ReviewDAO keeps it current on every insert, update and delete (and
+ * QuestionDAO when a question moves topic or is deleted), so analytics can
+ * sum a few rows per day instead of scanning reviews.
+ * rebuild() recomputes a user's rows from scratch (see ReviewRollupBackfill).
+ *
+ * Every write to a card's reviews first takes lockCards() on that card, so
+ * a recount (removeCard, edit, addCard) can't interleave with an insert
+ * into the same card and count the new review twice.
+ */
+public class ReviewRollupDAO {
+
+    // Per-day totals for whichever reviews the filter selects. The window
+    // runs before the day grouping, so each review is compared with the one
+    // before it on the same card even across days. Must stay in line with
+    // the backfill in V7__review_daily_rollup.sql.
+    private static String contributionSql(String reviewFilter) {
+        return "SELECT r.user_id, q.topic_id, r.reviewed_at::date AS day, COUNT(*) AS reviews, " +
+                "COUNT(*) FILTER (WHERE r.was_correct) AS correct, " +
+                "COUNT(*) FILTER (WHERE r.previous_correct IS NULL) AS new_cards, " +
+                "COUNT(*) FILTER (WHERE NOT r.was_correct AND r.previous_correct) AS lapses " +
+                "FROM (SELECT user_id, question_id, reviewed_at, was_correct, " +
+                "LAG(was_correct) OVER (PARTITION BY user_id, question_id ORDER BY reviewed_at, id) " +
+                "AS previous_correct FROM reviews WHERE " + reviewFilter + ") r " +
+                "JOIN questions q ON q.id = r.question_id " +
+                "GROUP BY r.user_id, q.topic_id, r.reviewed_at::date";
+    }
+
+    private static String addSql(String reviewFilter) {
+        return "INSERT INTO review_daily_rollup AS t (user_id, topic_id, day, reviews, correct, new_cards, lapses) " +
+                contributionSql(reviewFilter) + " " +
+                "ON CONFLICT (user_id, day, topic_id) DO UPDATE SET " +
+                "reviews = t.reviews + EXCLUDED.reviews, " +
+                "correct = t.correct + EXCLUDED.correct, " +
+                "new_cards = t.new_cards + EXCLUDED.new_cards, " +
+                "lapses = t.lapses + EXCLUDED.lapses";
+    }
+
+    private static String subtractSql(String reviewFilter) {
+        return "UPDATE review_daily_rollup t SET " +
+                "reviews = t.reviews - c.reviews, " +
+                "correct = t.correct - c.correct, " +
+                "new_cards = t.new_cards - c.new_cards, " +
+                "lapses = t.lapses - c.lapses " +
+                "FROM (" + contributionSql(reviewFilter) + ") c " +
+                "WHERE t.user_id = c.user_id AND t.day = c.day AND t.topic_id = c.topic_id";
+    }
+
+    /**
+     * Wrap an INSERT INTO reviews statement so the same statement also adds
+     * the new row to the rollup. Only rows actually inserted are counted, so
+     * an ON CONFLICT DO NOTHING insert that skips a duplicate adds nothing.
+     *
+     * A review is classified against the latest earlier review of its card.
+     * Reviews normally arrive oldest first; if an older one is inserted
+     * after newer ones, rebuild() puts the counts right.
+     */
+    static String withRollup(String insertReviewSql) {
+        return "WITH inserted AS (" + insertReviewSql +
+                " RETURNING id, user_id, question_id, reviewed_at, was_correct) " +
+                "INSERT INTO review_daily_rollup AS t (user_id, topic_id, day, reviews, correct, new_cards, lapses) " +
+                "SELECT i.user_id, q.topic_id, i.reviewed_at::date, 1, " +
+                "CASE WHEN i.was_correct THEN 1 ELSE 0 END, " +
+                "CASE WHEN previous.was_correct IS NULL THEN 1 ELSE 0 END, " +
+                "CASE WHEN NOT i.was_correct AND previous.was_correct THEN 1 ELSE 0 END " +
+                "FROM inserted i JOIN questions q ON q.id = i.question_id " +
+                "LEFT JOIN LATERAL (SELECT p.was_correct FROM reviews p " +
+                "WHERE p.user_id = i.user_id AND p.question_id = i.question_id " +
+                "AND (p.reviewed_at, p.id) < (i.reviewed_at, i.id) " +
+                "ORDER BY p.reviewed_at DESC, p.id DESC LIMIT 1) previous ON TRUE " +
+                "ON CONFLICT (user_id, day, topic_id) DO UPDATE SET " +
+                "reviews = t.reviews + EXCLUDED.reviews, " +
+                "correct = t.correct + EXCLUDED.correct, " +
+                "new_cards = t.new_cards + EXCLUDED.new_cards, " +
+                "lapses = t.lapses + EXCLUDED.lapses";
+    }
+
+    /**
+     * Key of one card (user, question) for lockCards
+     */
+    static long card(int userId, int questionId) {
+        return ((long) userId << 32) | (questionId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Take a transaction-scoped advisory lock on each card, in key order so
+     * two transactions locking overlapping cards can't deadlock, then a KEY
+     * SHARE lock on the cards' questions. Question deletes and moves lock
+     * the question before the rollup rows; taking it here too (instead of
+     * in the foreign key check, after the rollup upsert) keeps that order.
+     * Held until commit or rollback.
+     */
+    static void lockCards(Connection conn, SortedSet<Long> cards) throws SQLException {
+        String sql = "SELECT pg_advisory_xact_lock(c.user_id, c.question_id) " +
+                "FROM unnest(?::int[], ?::int[]) AS c(user_id, question_id)";
+        String questionSql = "SELECT id FROM questions WHERE id = ANY(?) ORDER BY id FOR KEY SHARE";
+
+        Integer[] userIds = new Integer[cards.size()];
+        Integer[] questionIds = new Integer[cards.size()];
+        int i = 0;
+        for (long card : cards) {
+            userIds[i] = (int) (card >>> 32);
+            questionIds[i] = (int) card;
+            i++;
+        }
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql);
+             PreparedStatement questions = conn.prepareStatement(questionSql)) {
+            pstmt.setArray(1, conn.createArrayOf("integer", userIds));
+            pstmt.setArray(2, conn.createArrayOf("integer", questionIds));
+            pstmt.executeQuery().close();
+
+            questions.setArray(1, conn.createArrayOf("integer", questionIds));
+            questions.executeQuery().close();
+        }
+    }
+
+    /**
+     * Remove one card's reviews from the rollup, before its history is edited.
+     * Call addCard with the same card afterwards to count the edited history.
+     */
+    void removeCard(Connection conn, int userId, int questionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(subtractSql("user_id = ? AND question_id = ?"))) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, questionId);
+            pstmt.executeUpdate();
+        }
+        deleteEmptyRows(conn, userId);
+    }
+
+    /**
+     * Add one card's reviews to the rollup (see removeCard)
+     */
+    void addCard(Connection conn, int userId, int questionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(addSql("user_id = ? AND question_id = ?"))) {
+            pstmt.setInt(1, userId);
+            pstmt.setInt(2, questionId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Remove every user's reviews of a question, before the question is
+     * deleted (its reviews go by cascade) or moved to another topic. Rows
+     * left at zero are skipped by the readers and cleared by the next rebuild.
+     * The caller must hold the question row FOR UPDATE, which blocks new
+     * reviews of it (their foreign key check takes KEY SHARE on the row).
+     */
+    void removeQuestion(Connection conn, int questionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(subtractSql("question_id = ?"))) {
+            pstmt.setInt(1, questionId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Add every user's reviews of a question, e.g. under its new topic
+     */
+    void addQuestion(Connection conn, int questionId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement(addSql("question_id = ?"))) {
+            pstmt.setInt(1, questionId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Delete every rollup row of a user
+     */
+    void deleteByUserId(Connection conn, int userId) throws SQLException {
+        try (PreparedStatement pstmt = conn.prepareStatement("DELETE FROM review_daily_rollup WHERE user_id = ?")) {
+            pstmt.setInt(1, userId);
+            pstmt.executeUpdate();
+        }
+    }
+
+    /**
+     * Recompute a user's rollup from their full review history, in one transaction
+     * @param userId The user ID
+     * @return Number of rollup rows written, or -1 on error
+     */
+    public int rebuild(int userId) {
+        String sql = "INSERT INTO review_daily_rollup (user_id, topic_id, day, reviews, correct, new_cards, lapses) " +
+                contributionSql("user_id = ?");
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+                deleteByUserId(conn, userId);
+
+                pstmt.setInt(1, userId);
+                int rows = pstmt.executeUpdate();
+
+                conn.commit();
+                return rows;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error rebuilding review rollup: " + e.getMessage());
+            return -1;
+        }
+    }
+
+    private void deleteEmptyRows(Connection conn, int userId) throws SQLException {
+        String sql = "DELETE FROM review_daily_rollup WHERE user_id = ? AND reviews <= 0";
+
+        try (PreparedStatement pstmt = conn.prepareStatement(sql)) {
+            pstmt.setInt(1, userId);
+            pstmt.executeUpdate();
+        }
+    }
+}
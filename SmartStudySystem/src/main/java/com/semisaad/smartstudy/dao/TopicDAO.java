@@ -6,9 +6,30 @@ import com.semisaad.smartstudy.model.Topic;
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 public class TopicDAO {
+
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // getAllWithCounts, public for SchemaMigrator.checkHotQueryPlans. Due and
+    // new follow ReviewDAO.getDueQuestions / QuestionDAO.getUnreviewed:
+    // due = card_state scheduled for today or earlier, new = no card_state
+    public static final String COUNTS_SQL =
+            "SELECT t.*, COALESCE(c.questions, 0) AS question_count, " +
+                    "COALESCE(c.due, 0) AS due_count, COALESCE(c.unreviewed, 0) AS new_count " +
+                    "FROM topics t LEFT JOIN (" +
+                    "SELECT q.topic_id, COUNT(*) AS questions, " +
+                    "COUNT(*) FILTER (WHERE s.next_review_date <= CURRENT_DATE) AS due, " +
+                    "COUNT(*) FILTER (WHERE s.question_id IS NULL) AS unreviewed " +
+                    "FROM questions q LEFT JOIN card_state s ON s.user_id = ? AND s.question_id = q.id " +
+                    "GROUP BY q.topic_id) c ON c.topic_id = t.id " +
+                    "ORDER BY t.name";
+
     /**
      * Insert a new topic into the database
      * @param topic The topic to insert
@@ -38,9 +59,18 @@ public class TopicDAO {
 
     /**
      * Get all topics from the database
-     * @return List of all topics
+     * @return List of all topics (empty if the query failed)
      */
     public List<Topic> getAll() {
+        List<Topic> topics = loadAll();
+        return topics != null ? topics : new ArrayList<>();
+    }
+
+    /**
+     * getAll(), but telling a failed query apart from having no topics
+     * @return List of all topics, or null on error
+     */
+    List<Topic> loadAll() {
         List<Topic> topics = new ArrayList<>();
         String sql = "SELECT * FROM topics ORDER BY name";
 
@@ -66,9 +96,78 @@ public class TopicDAO {
 
         } catch (SQLException e) {
             System.err.println("Error getting all topics: " + e.getMessage());
+            return null;
+        }
+
+        return topics; // Return the list (might be empty if no data)
+    }
+
+    /**
+     * Get all topics with their question counts for a user, in one grouped query
+     * @param userId The user whose due and new counts are wanted
+     * @return Topics ordered by name, like getAll(), or null if the query failed
+     */
+    public List<TopicCounts> getAllWithCounts(int userId) {
+        List<TopicCounts> topics = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(COUNTS_SQL)) {
+
+            pstmt.setInt(1, userId);
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                Topic topic = new Topic(rs.getInt("id"), rs.getString("name"),
+                        rs.getString("description"), rs.getTimestamp("created_at").toLocalDateTime());
+                topics.add(new TopicCounts(topic, rs.getInt("question_count"),
+                        rs.getInt("due_count"), rs.getInt("new_count")));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error getting topics with counts: " + e.getMessage());
+            return null;
+        }
+
+        return topics;
+    }
+
+    /**
+     * Stream every topic in ID order through a server-side cursor
+     * @param action Called once per topic
+     * @return Number of topics streamed, or -1 if the query failed (possibly
+     *         after some topics were already passed to the action)
+     */
+    public int forEach(Consumer<Topic> action) {
+        String sql = "SELECT * FROM topics ORDER BY id";
+        int count = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false); // Required for the driver to use a cursor
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+
+                pstmt.setFetchSize(STREAM_FETCH_SIZE);
+
+                try (ResultSet rs = pstmt.executeQuery()) {
+                    while (rs.next()) {
+                        action.accept(new Topic(rs.getInt("id"), rs.getString("name"),
+                                rs.getString("description"), rs.getTimestamp("created_at").toLocalDateTime()));
+                        count++;
+                    }
+                }
+            } finally {
+                conn.commit(); // Closes the cursor
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error streaming topics: " + e.getMessage());
+            return -1;
         }
 
-        return topics; // Return the list (might be empty if error or no data)
+        return count;
     }
 
     /**
@@ -110,6 +209,49 @@ public class TopicDAO {
         return null; // Return null if not found or error
     }
 
+    /**
+     * Look up topics by name, creating any that don't exist yet, in one
+     * statement (used by bulk import)
+     * @param names Topic names
+     * @return Map of name to topic ID (if a name exists twice, the oldest topic wins)
+     */
+    public Map<String, Integer> resolveIds(Collection<String> names) {
+        Map<String, Integer> ids = new HashMap<>();
+        if (names.isEmpty()) {
+            return ids;
+        }
+
+        // The INSERT isn't visible to the second SELECT (same snapshot),
+        // so each name comes back exactly once
+        String sql = "WITH wanted AS (SELECT DISTINCT unnest(?::text[]) AS name), " +
+                "inserted AS (" +
+                "INSERT INTO topics (name, description, created_at) " +
+                "SELECT w.name, '', CURRENT_TIMESTAMP FROM wanted w " +
+                "WHERE NOT EXISTS (SELECT 1 FROM topics t WHERE t.name = w.name) " +
+                "RETURNING id, name) " +
+                "SELECT id, name FROM inserted " +
+                "UNION ALL " +
+                "SELECT MIN(t.id), t.name FROM topics t JOIN wanted w ON w.name = t.name GROUP BY t.name";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement pstmt = conn.prepareStatement(sql)) {
+
+            pstmt.setArray(1, conn.createArrayOf("text", names.toArray()));
+            ResultSet rs = pstmt.executeQuery();
+
+            while (rs.next()) {
+                ids.put(rs.getString("name"), rs.getInt("id"));
+            }
+
+            rs.close();
+
+        } catch (SQLException e) {
+            System.err.println("Error resolving topics: " + e.getMessage());
+        }
+
+        return ids;
+    }
+
     /**
      * Update an existing topic
      * @param topic The topic with updated information
@@ -162,5 +304,25 @@ public class TopicDAO {
         }
     }
 
+    /**
+     * A topic with its question counts for one user
+     */
+    public static class TopicCounts {
+        private final Topic topic;
+        private final int questionCount;
+        private final int dueCount;
+        private final int newCount;
+
+        public TopicCounts(Topic topic, int questionCount, int dueCount, int newCount) {
+            this.topic = topic;
+            this.questionCount = questionCount;
+            this.dueCount = dueCount;
+            this.newCount = newCount;
+        }
 
-}
\ No newline at end of file
+        public Topic getTopic() { return topic; }
+        public int getQuestionCount() { return questionCount; }
+        public int getDueCount() { return dueCount; }
+        public int getNewCount() { return newCount; }
+    }
+}
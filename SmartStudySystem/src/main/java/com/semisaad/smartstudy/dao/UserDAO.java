@@ -34,6 +34,50 @@ public class UserDAO {
         }
     }
 
+    /**
+     * Insert many users in one transaction and set their generated IDs
+     * (used by the synthetic data generator)
+     * @param users Users to insert
+     * @return true if all of them were inserted, false otherwise
+     */
+    public boolean insertBatch(List<User> users) {
+        String sql = "INSERT INTO users (username, email, created_at) VALUES (?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement pstmt = conn.prepareStatement(sql, new String[]{"id"})) {
+                for (User user : users) {
+                    pstmt.setString(1, user.getUsername());
+                    pstmt.setString(2, user.getEmail());
+                    pstmt.setTimestamp(3, Timestamp.valueOf(user.getCreatedAt()));
+                    pstmt.addBatch();
+                }
+                pstmt.executeBatch();
+
+                // Keys come back in batch order
+                try (ResultSet keys = pstmt.getGeneratedKeys()) {
+                    for (User user : users) {
+                        if (!keys.next()) {
+                            throw new SQLException("Missing generated ID for " + user.getUsername());
+                        }
+                        user.setId(keys.getInt(1));
+                    }
+                }
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error inserting user batch: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Get all users from the database
      * @return List of all users
@@ -5,6 +5,7 @@ import com.semisaad.smartstudy.database.DatabaseConnection;
 
 import java.sql.*;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class UserSettingsDAO {
 
@@ -77,6 +78,42 @@ public class UserSettingsDAO {
         }
     }
 
+    /**
+     * Insert settings for many users in one transaction
+     */
+    public boolean insertBatch(List<UserSettings> settingsList) {
+        String sql = "INSERT INTO user_settings (user_id, daily_goal, reminders_enabled, theme, notification_time, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (UserSettings settings : settingsList) {
+                    stmt.setInt(1, settings.getUserId());
+                    stmt.setInt(2, settings.getDailyGoal());
+                    stmt.setBoolean(3, settings.isRemindersEnabled());
+                    stmt.setString(4, settings.getTheme());
+                    stmt.setString(5, settings.getNotificationTime());
+                    stmt.setTimestamp(6, Timestamp.valueOf(settings.getCreatedAt()));
+                    stmt.setTimestamp(7, Timestamp.valueOf(settings.getUpdatedAt()));
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+                return true;
+
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error inserting user settings batch: " + e.getMessage());
+            return false;
+        }
+    }
+
     /**
      * Update existing user settings
      */
@@ -0,0 +1,627 @@
+package com.semisaad.smartstudy.database;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Logger;
+
+/**
+ * Small bounded JDBC connection pool.
+ *
+ * Physical connections are opened lazily through DriverManager and handed out
+ * wrapped in a proxy whose close() returns them to the pool instead of closing
+ * the socket. Callers keep using try-with-resources exactly as before.
+ * Statements, result sets and unwrap() results are wrapped too, so nothing a
+ * caller holds leads back to the physical connection once it is returned.
+ */
+public class ConnectionPool implements DataSource {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final Settings settings;
+
+    private final Semaphore permits;
+    private final Deque<PooledConnection> idle = new ArrayDeque<>();
+    private final Map<PooledConnection, Boolean> borrowed = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed = false;
+
+    // Metrics
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong destroyed = new AtomicLong();
+    private final AtomicLong borrows = new AtomicLong();
+    private final AtomicLong timeouts = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong leaksDetected = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong maxWaitNanos = new AtomicLong();
+
+    public ConnectionPool(String url, String user, String password, Settings settings) {
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.settings = settings;
+        this.permits = new Semaphore(settings.maxSize, true);
+
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "connection-pool-housekeeper");
+            t.setDaemon(true);
+            return t;
+        });
+        long period = settings.housekeepingIntervalMillis;
+        housekeeper.execute(this::fillIdle);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrow a connection from the pool, opening a new one if no idle
+     * connection is available and the pool is below its maximum size.
+     * @return Connection whose close() returns it to the pool
+     * @throws SQLException if no connection could be obtained in time
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool is closed");
+        }
+
+        long start = System.nanoTime();
+        try {
+            if (!permits.tryAcquire(settings.acquireTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                timeouts.incrementAndGet();
+                throw new SQLException("Timed out after " + settings.acquireTimeoutMillis +
+                        "ms waiting for a database connection (active=" + borrowed.size() + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+
+        try {
+            PooledConnection pooled = takeValidIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+                created.incrementAndGet();
+            }
+
+            pooled.borrowedAt = System.currentTimeMillis();
+            pooled.borrowSite = settings.leakDetectionThresholdMillis > 0
+                    ? new Exception("Connection acquired here") : null;
+            pooled.leakReported = false;
+            borrowed.put(pooled, Boolean.TRUE);
+            borrows.incrementAndGet();
+
+            long waited = System.nanoTime() - start;
+            totalWaitNanos.addAndGet(waited);
+            maxWaitNanos.accumulateAndGet(waited, Math::max);
+
+            return pooled.newHandle();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Pool is bound to a single set of credentials");
+    }
+
+    /**
+     * Pop idle connections until one passes validation.
+     * Connections that fail validation are closed and discarded.
+     */
+    private PooledConnection takeValidIdle() {
+        while (true) {
+            PooledConnection candidate;
+            synchronized (idle) {
+                candidate = idle.pollFirst();
+            }
+            if (candidate == null) {
+                return null;
+            }
+            if (isUsable(candidate)) {
+                return candidate;
+            }
+            validationFailures.incrementAndGet();
+            destroy(candidate);
+        }
+    }
+
+    private boolean isUsable(PooledConnection pooled) {
+        try {
+            // A connection handed back moments ago is almost certainly fine;
+            // skip the round trip so tight DAO loops don't pay for validation
+            if (System.currentTimeMillis() - pooled.lastReturnedAt < settings.validationBypassMillis) {
+                return !pooled.physical.isClosed();
+            }
+            return !pooled.physical.isClosed()
+                    && pooled.physical.isValid(settings.validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Called by a handle's close(). Resets per-session state and puts the
+     * physical connection back on the idle stack.
+     */
+    private void release(PooledConnection pooled) {
+        borrowed.remove(pooled);
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            if (reusable) {
+                pooled.lastReturnedAt = System.currentTimeMillis();
+                synchronized (idle) {
+                    // Most recently used first, so the tail holds the stalest
+                    idle.addFirst(pooled);
+                }
+            } else {
+                destroy(pooled);
+            }
+        } catch (SQLException e) {
+            System.err.println("Discarding connection after failed reset: " + e.getMessage());
+            destroy(pooled);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void destroy(PooledConnection pooled) {
+        destroyed.incrementAndGet();
+        try {
+            pooled.physical.close();
+        } catch (SQLException e) {
+            System.err.println("Error closing pooled connection: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Open connections until minIdle are idle, without going over maxSize.
+     * Runs on the housekeeping thread so no caller waits for it.
+     */
+    private void fillIdle() {
+        while (!closed) {
+            synchronized (idle) {
+                if (idle.size() >= settings.minIdle || idle.size() + borrowed.size() >= settings.maxSize) {
+                    return;
+                }
+            }
+
+            PooledConnection pooled;
+            try {
+                pooled = new PooledConnection(DriverManager.getConnection(url, user, password));
+                created.incrementAndGet();
+            } catch (SQLException e) {
+                System.err.println("Error opening idle connection: " + e.getMessage());
+                return;
+            }
+
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            synchronized (idle) {
+                if (!closed) {
+                    // Never used, so it goes at the stale end
+                    idle.addLast(pooled);
+                    continue;
+                }
+            }
+            destroy(pooled);
+        }
+    }
+
+    /**
+     * Periodic task: evict connections idle for too long, top the pool back
+     * up to minIdle, and report connections that have been borrowed past the
+     * leak threshold.
+     */
+    private void housekeep() {
+        long now = System.currentTimeMillis();
+
+        synchronized (idle) {
+            Iterator<PooledConnection> stalest = idle.descendingIterator();
+            while (stalest.hasNext() && idle.size() > settings.minIdle) {
+                PooledConnection pooled = stalest.next();
+                if (now - pooled.lastReturnedAt > settings.idleTimeoutMillis) {
+                    stalest.remove();
+                    destroy(pooled);
+                }
+            }
+        }
+        fillIdle();
+
+        if (settings.leakDetectionThresholdMillis > 0) {
+            for (PooledConnection pooled : borrowed.keySet()) {
+                long heldFor = now - pooled.borrowedAt;
+                if (!pooled.leakReported && heldFor > settings.leakDetectionThresholdMillis) {
+                    pooled.leakReported = true;
+                    leaksDetected.incrementAndGet();
+                    System.err.println("Possible connection leak: connection held for " + heldFor + "ms");
+                    if (pooled.borrowSite != null) {
+                        pooled.borrowSite.printStackTrace();
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Close every idle connection and stop the housekeeping thread.
+     * Borrowed connections are closed when their holders return them.
+     */
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        synchronized (idle) {
+            while (!idle.isEmpty()) {
+                destroy(idle.pollFirst());
+            }
+        }
+    }
+
+    /**
+     * Get a snapshot of the pool counters
+     * @return Stats object
+     */
+    public Stats getStats() {
+        int idleCount;
+        synchronized (idle) {
+            idleCount = idle.size();
+        }
+        long borrowCount = borrows.get();
+        return new Stats(
+                borrowed.size(),
+                idleCount,
+                settings.maxSize,
+                created.get(),
+                destroyed.get(),
+                borrowCount,
+                timeouts.get(),
+                validationFailures.get(),
+                leaksDetected.get(),
+                borrowCount > 0 ? totalWaitNanos.get() / borrowCount / 1_000_000.0 : 0.0,
+                maxWaitNanos.get() / 1_000_000.0
+        );
+    }
+
+    // DataSource boilerplate
+
+    @Override
+    public PrintWriter getLogWriter() {
+        return null;
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) {
+        // Not used - errors go to System.err like the rest of the app
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) {
+        DriverManager.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() {
+        return DriverManager.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        throw new SQLFeatureNotSupportedException();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        throw new SQLException("Not a wrapper for " + iface.getName());
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) {
+        return iface.isInstance(this);
+    }
+
+    /**
+     * One physical connection plus its bookkeeping
+     */
+    private class PooledConnection {
+        private final Connection physical;
+        private volatile long borrowedAt;
+        private volatile long lastReturnedAt;
+        private volatile Exception borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+        }
+
+        Connection newHandle() {
+            return (Connection) Proxy.newProxyInstance(
+                    Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class},
+                    new Handle(this));
+        }
+    }
+
+    /**
+     * Proxy handler given to callers. close() returns the connection to the
+     * pool once; any later call behaves like a closed connection.
+     */
+    private class Handle implements InvocationHandler {
+        private PooledConnection pooled;
+
+        Handle(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+
+            switch (name) {
+                case "close":
+                    if (pooled != null) {
+                        PooledConnection returning = pooled;
+                        pooled = null;
+                        release(returning);
+                    }
+                    return null;
+                case "isClosed":
+                    return pooled == null;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "PooledConnection[" + (pooled == null ? "closed" : pooled.physical) + "]";
+                default:
+                    break;
+            }
+
+            if (pooled == null) {
+                throw new SQLException("Connection is closed");
+            }
+
+            switch (name) {
+                case "unwrap": {
+                    // e.g. PGConnection for COPY: usable only while this handle is open
+                    Class<?> iface = (Class<?>) args[0];
+                    if (iface.isInstance(proxy)) {
+                        return proxy;
+                    }
+                    return wrap(iface, pooled.physical.unwrap(iface), proxy);
+                }
+                case "isWrapperFor":
+                    return ((Class<?>) args[0]).isInstance(proxy) || pooled.physical.isWrapperFor((Class<?>) args[0]);
+                default:
+                    break;
+            }
+
+            Object result;
+            try {
+                result = method.invoke(pooled.physical, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof Statement || result instanceof DatabaseMetaData) {
+                return wrap(method.getReturnType(), result, proxy);
+            }
+            return result;
+        }
+
+        /**
+         * Wrap an object obtained through this handle so that it stops
+         * working when the handle is closed and hands out the given parent
+         * (the handle or a statement) instead of the physical one
+         */
+        private Object wrap(Class<?> type, Object target, Object parent) throws SQLException {
+            if (!type.isInterface()) {
+                throw new SQLException("Cannot expose " + type.getName() + " of a pooled connection");
+            }
+            return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, new Child(target, parent));
+        }
+
+        /**
+         * Handler for statements, result sets and unwrapped driver objects
+         */
+        private class Child implements InvocationHandler {
+            private final Object target;
+            private final Object parent;
+
+            Child(Object target, Object parent) {
+                this.target = target;
+                this.parent = parent;
+            }
+
+            @Override
+            public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+                switch (method.getName()) {
+                    case "getConnection":
+                    case "getStatement":
+                        if (method.getParameterCount() == 0) {
+                            return parent;
+                        }
+                        break;
+                    case "unwrap":
+                        if (((Class<?>) args[0]).isInstance(proxy)) {
+                            return proxy;
+                        }
+                        throw new SQLException("Not a wrapper for " + ((Class<?>) args[0]).getName());
+                    case "isWrapperFor":
+                        return ((Class<?>) args[0]).isInstance(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "close":
+                    case "isClosed":
+                        return call(method, args); // Allowed after the handle is closed
+                    default:
+                        break;
+                }
+
+                if (pooled == null) {
+                    throw new SQLException("Connection is closed");
+                }
+
+                Object result = call(method, args);
+                if (result instanceof ResultSet) {
+                    // Metadata result sets have no statement
+                    return wrap(ResultSet.class, result, target instanceof Statement ? proxy : null);
+                }
+                return result;
+            }
+
+            private Object call(Method method, Object[] args) throws Throwable {
+                try {
+                    return method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            }
+        }
+    }
+
+    /**
+     * Pool tuning knobs
+     */
+    public static class Settings {
+        private int maxSize = 10;
+        private int minIdle = 2;
+        private long acquireTimeoutMillis = 10_000;
+        private long idleTimeoutMillis = 5 * 60_000;
+        private long leakDetectionThresholdMillis = 30_000;
+        private long housekeepingIntervalMillis = 15_000;
+        private int validationTimeoutSeconds = 2;
+        private long validationBypassMillis = 500;
+
+        public Settings maxSize(int maxSize) {
+            this.maxSize = maxSize;
+            return this;
+        }
+
+        public Settings minIdle(int minIdle) {
+            this.minIdle = minIdle;
+            return this;
+        }
+
+        public Settings acquireTimeoutMillis(long acquireTimeoutMillis) {
+            this.acquireTimeoutMillis = acquireTimeoutMillis;
+            return this;
+        }
+
+        public Settings idleTimeoutMillis(long idleTimeoutMillis) {
+            this.idleTimeoutMillis = idleTimeoutMillis;
+            return this;
+        }
+
+        public Settings leakDetectionThresholdMillis(long leakDetectionThresholdMillis) {
+            this.leakDetectionThresholdMillis = leakDetectionThresholdMillis;
+            return this;
+        }
+
+        public Settings housekeepingIntervalMillis(long housekeepingIntervalMillis) {
+            this.housekeepingIntervalMillis = housekeepingIntervalMillis;
+            return this;
+        }
+
+        public Settings validationTimeoutSeconds(int validationTimeoutSeconds) {
+            this.validationTimeoutSeconds = validationTimeoutSeconds;
+            return this;
+        }
+
+        public Settings validationBypassMillis(long validationBypassMillis) {
+            this.validationBypassMillis = validationBypassMillis;
+            return this;
+        }
+    }
+
+    /**
+     * Point-in-time pool metrics
+     */
+    public static class Stats {
+        private final int active;
+        private final int idle;
+        private final int maxSize;
+        private final long created;
+        private final long destroyed;
+        private final long borrows;
+        private final long timeouts;
+        private final long validationFailures;
+        private final long leaksDetected;
+        private final double avgWaitMillis;
+        private final double maxWaitMillis;
+
+        public Stats(int active, int idle, int maxSize, long created, long destroyed, long borrows,
+                     long timeouts, long validationFailures, long leaksDetected,
+                     double avgWaitMillis, double maxWaitMillis) {
+            this.active = active;
+            this.idle = idle;
+            this.maxSize = maxSize;
+            this.created = created;
+            this.destroyed = destroyed;
+            this.borrows = borrows;
+            this.timeouts = timeouts;
+            this.validationFailures = validationFailures;
+            this.leaksDetected = leaksDetected;
+            this.avgWaitMillis = avgWaitMillis;
+            this.maxWaitMillis = maxWaitMillis;
+        }
+
+        public int getActive() { return active; }
+        public int getIdle() { return idle; }
+        public int getMaxSize() { return maxSize; }
+        public long getCreated() { return created; }
+        public long getDestroyed() { return destroyed; }
+        public long getBorrows() { return borrows; }
+        public long getTimeouts() { return timeouts; }
+        public long getValidationFailures() { return validationFailures; }
+        public long getLeaksDetected() { return leaksDetected; }
+        public double getAvgWaitMillis() { return avgWaitMillis; }
+        public double getMaxWaitMillis() { return maxWaitMillis; }
+
+        @Override
+        public String toString() {
+            return "PoolStats{" +
+                    "active=" + active +
+                    ", idle=" + idle +
+                    ", maxSize=" + maxSize +
+                    ", created=" + created +
+                    ", destroyed=" + destroyed +
+                    ", borrows=" + borrows +
+                    ", timeouts=" + timeouts +
+                    ", validationFailures=" + validationFailures +
+                    ", leaksDetected=" + leaksDetected +
+                    ", avgWaitMs=" + String.format("%.2f", avgWaitMillis) +
+                    ", maxWaitMs=" + String.format("%.2f", maxWaitMillis) +
+                    '}';
+        }
+    }
+}
@@ -0,0 +1,391 @@
+package com.semisaad.smartstudy.database;
+
+import com.semisaad.smartstudy.util.LatencyHistogram;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-DAO-method query metrics.
+ *
+ * Every DAO gets its connection from DatabaseConnection.getConnection(),
+ * which hands out a connection wrapped by track(). The wrapper attributes
+ * the checkout to the DAO method that asked for it (found by walking the
+ * stack) and records, per method:
+ * - calls, and calls that hit an SQLException
+ * - latency from asking for the connection to closing it (histogram)
+ * - time spent waiting for the pool (histogram)
+ * - statements executed and rows read from result sets
+ *
+ * Many calls with few rows each is the signature of an N+1 loop; many
+ * statements per call points at one inside a DAO method. Streaming methods
+ * (forEach) include the time their callback takes.
+ *
+ * Disable with -Dsmartstudy.metrics=false.
+ */
+public final class DaoMetrics {
+
+    private static final String DAO_PACKAGE = "com.semisaad.smartstudy.dao.";
+    private static final int MAX_STACK_DEPTH = 24;
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("smartstudy.metrics", "true"));
+    private static final Map<String, MethodStats> METHODS = new ConcurrentHashMap<>();
+    private static final StackWalker WALKER = StackWalker.getInstance();
+
+    private static ScheduledExecutorService dumper; // null until startPeriodicDump()
+
+    private DaoMetrics() {
+        // This class only has static methods
+    }
+
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Wrap a freshly borrowed connection so its use is recorded against the
+     * calling DAO method
+     * @param conn The pooled connection
+     * @param requestedAtNanos System.nanoTime() from before the pool was asked
+     */
+    static Connection track(Connection conn, long requestedAtNanos) {
+        if (!ENABLED) {
+            return conn;
+        }
+
+        MethodStats stats = statsFor(findCaller());
+        stats.acquire.recordNanos(System.nanoTime() - requestedAtNanos);
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class}, new CallHandler(conn, stats, requestedAtNanos));
+    }
+
+    /**
+     * Record a call that failed before it got a connection
+     */
+    static void recordAcquireFailure(long requestedAtNanos) {
+        if (!ENABLED) {
+            return;
+        }
+        MethodStats stats = statsFor(findCaller());
+        stats.calls.increment();
+        stats.errors.increment();
+        stats.latency.recordNanos(System.nanoTime() - requestedAtNanos);
+    }
+
+    /**
+     * Current numbers for every method seen so far, slowest in total first
+     */
+    public static List<Snapshot> getSnapshots() {
+        List<Snapshot> snapshots = new ArrayList<>(METHODS.size());
+        for (Map.Entry<String, MethodStats> entry : METHODS.entrySet()) {
+            snapshots.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        snapshots.sort((a, b) -> Double.compare(b.getTotalMillis(), a.getTotalMillis()));
+        return snapshots;
+    }
+
+    /**
+     * Forget everything recorded so far
+     */
+    public static void reset() {
+        METHODS.clear();
+    }
+
+    /**
+     * Rewrite the report to a file every intervalSeconds (on a daemon thread),
+     * replacing any earlier dump schedule
+     */
+    public static synchronized void startPeriodicDump(Path file, long intervalSeconds) {
+        stopPeriodicDump();
+
+        Map<String, Long> callsAtLastDump = new HashMap<>();
+        dumper = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "dao-metrics-dump");
+            thread.setDaemon(true);
+            return thread;
+        });
+        dumper.scheduleAtFixedRate(() -> dump(file, callsAtLastDump),
+                intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stop the periodic dump, if running
+     */
+    public static synchronized void stopPeriodicDump() {
+        if (dumper != null) {
+            dumper.shutdownNow();
+            dumper = null;
+        }
+    }
+
+    /**
+     * Plain-text table of all methods
+     * @param callsAtLastDump Call counts from the previous report, used for a
+     *                        "new calls" column and then updated; may be null
+     */
+    public static String formatReport(Map<String, Long> callsAtLastDump) {
+        StringBuilder report = new StringBuilder();
+        report.append("DAO metrics at ").append(LocalDateTime.now().withNano(0)).append('\n');
+        report.append(DatabaseConnection.getPoolStats()).append("\n\n");
+        report.append(String.format("%-48s %9s %9s %7s %6s %10s %9s %9s %9s %9s %10s%n",
+                "method", "calls", "new", "errors", "stmts", "rows", "p50 ms", "p99 ms", "max ms",
+                "total ms", "acq p99 ms"));
+
+        for (Snapshot s : getSnapshots()) {
+            long newCalls = s.getCalls();
+            if (callsAtLastDump != null) {
+                newCalls -= callsAtLastDump.getOrDefault(s.getMethod(), 0L);
+                callsAtLastDump.put(s.getMethod(), s.getCalls());
+            }
+            report.append(String.format("%-48s %9d %9d %7d %6.1f %10d %9.2f %9.2f %9.2f %9.0f %10.2f%n",
+                    s.getMethod(), s.getCalls(), newCalls, s.getErrors(), s.getStatementsPerCall(), s.getRows(),
+                    s.getP50Millis(), s.getP99Millis(), s.getMaxMillis(), s.getTotalMillis(), s.getAcquireP99Millis()));
+        }
+        return report.toString();
+    }
+
+    private static void dump(Path file, Map<String, Long> callsAtLastDump) {
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.writeString(temp, formatReport(callsAtLastDump), StandardCharsets.UTF_8);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            System.err.println("Error writing DAO metrics: " + e.getMessage());
+        }
+    }
+
+    private static MethodStats statsFor(String method) {
+        return METHODS.computeIfAbsent(method, m -> new MethodStats());
+    }
+
+    /**
+     * Name the DAO method that asked for a connection, as "ReviewDAO.getByUserId".
+     * Private helpers report as the public method of the same class that
+     * called them (e.g. ReviewDAO.stream as ReviewDAO.forEach); callers
+     * outside the DAO package report as their own class and method.
+     */
+    private static String findCaller() {
+        return WALKER.walk(frames -> {
+            String daoClass = null;
+            String daoMethod = null;
+
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames.limit(MAX_STACK_DEPTH)::iterator) {
+                String className = frame.getClassName();
+                if (className.equals(DaoMetrics.class.getName()) || className.equals(DatabaseConnection.class.getName())) {
+                    continue;
+                }
+
+                if (daoClass == null) {
+                    if (!className.startsWith(DAO_PACKAGE)) {
+                        return simpleName(className) + "." + frame.getMethodName();
+                    }
+                    daoClass = className;
+                    daoMethod = frame.getMethodName();
+                } else if (!className.equals(daoClass)) {
+                    break; // Left the DAO class: daoMethod is the outermost frame in it
+                } else if (!frame.getMethodName().startsWith("lambda$")) {
+                    daoMethod = frame.getMethodName();
+                }
+            }
+
+            return daoClass != null ? simpleName(daoClass) + "." + daoMethod : "unknown";
+        });
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    // ==================== RECORDING ====================
+
+    private static class MethodStats {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LatencyHistogram acquire = new LatencyHistogram();
+
+        Snapshot snapshot(String method) {
+            return new Snapshot(method, calls.sum(), errors.sum(), statements.sum(), rows.sum(),
+                    latency.getValueAtPercentile(50), latency.getValueAtPercentile(95),
+                    latency.getValueAtPercentile(99), latency.getMax(), latency.getMean(),
+                    acquire.getValueAtPercentile(99));
+        }
+    }
+
+    /**
+     * Connection wrapper for one DAO call. Counts statements (and their
+     * failures), wraps result sets to count rows, and records the call when
+     * the connection is closed.
+     */
+    private static class CallHandler implements InvocationHandler {
+        private final Connection target;
+        private final MethodStats stats;
+        private final long startNanos;
+        private boolean failed = false;
+        private boolean recorded = false;
+
+        CallHandler(Connection target, MethodStats stats, long startNanos) {
+            this.target = target;
+            this.stats = stats;
+            this.startNanos = startNanos;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().equals("close") && !recorded) {
+                recorded = true;
+                stats.calls.increment();
+                stats.latency.recordNanos(System.nanoTime() - startNanos);
+                if (failed) {
+                    stats.errors.increment();
+                }
+            }
+
+            Object result = call(target, method, args);
+            if (result instanceof Statement statement) {
+                return wrap(method.getReturnType(), statement, new StatementHandler(statement, this));
+            }
+            return result;
+        }
+
+        Object call(Object on, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(on, args);
+            } catch (InvocationTargetException e) {
+                if (e.getCause() instanceof SQLException) {
+                    failed = true;
+                }
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static class StatementHandler implements InvocationHandler {
+        private final Statement target;
+        private final CallHandler call;
+
+        StatementHandler(Statement target, CallHandler call) {
+            this.target = target;
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (method.getName().startsWith("execute")) {
+                call.stats.statements.increment();
+            }
+
+            Object result = call.call(target, method, args);
+            if (result instanceof ResultSet resultSet && !method.getName().equals("getGeneratedKeys")) {
+                return wrap(ResultSet.class, resultSet, new ResultSetHandler(resultSet, call));
+            }
+            return result;
+        }
+    }
+
+    private static class ResultSetHandler implements InvocationHandler {
+        private final ResultSet target;
+        private final CallHandler call;
+
+        ResultSetHandler(ResultSet target, CallHandler call) {
+            this.target = target;
+            this.call = call;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            Object result = call.call(target, method, args);
+            if (Boolean.TRUE.equals(result) && method.getName().equals("next")) {
+                call.stats.rows.increment();
+            }
+            return result;
+        }
+    }
+
+    private static Object wrap(Class<?> type, Object target, InvocationHandler handler) {
+        if (!type.isInterface()) {
+            return target;
+        }
+        return Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Numbers for one DAO method. Latencies are in milliseconds.
+     */
+    public static class Snapshot {
+        private final String method;
+        private final long calls;
+        private final long errors;
+        private final long statements;
+        private final long rows;
+        private final long p50Micros;
+        private final long p95Micros;
+        private final long p99Micros;
+        private final long maxMicros;
+        private final double meanMicros;
+        private final long acquireP99Micros;
+
+        public Snapshot(String method, long calls, long errors, long statements, long rows,
+                        long p50Micros, long p95Micros, long p99Micros, long maxMicros,
+                        double meanMicros, long acquireP99Micros) {
+            this.method = method;
+            this.calls = calls;
+            this.errors = errors;
+            this.statements = statements;
+            this.rows = rows;
+            this.p50Micros = p50Micros;
+            this.p95Micros = p95Micros;
+            this.p99Micros = p99Micros;
+            this.maxMicros = maxMicros;
+            this.meanMicros = meanMicros;
+            this.acquireP99Micros = acquireP99Micros;
+        }
+
+        public String getMethod() { return method; }
+        public long getCalls() { return calls; }
+        public long getErrors() { return errors; }
+        public long getStatements() { return statements; }
+        public long getRows() { return rows; }
+        public double getP50Millis() { return p50Micros / 1000.0; }
+        public double getP95Millis() { return p95Micros / 1000.0; }
+        public double getP99Millis() { return p99Micros / 1000.0; }
+        public double getMaxMillis() { return maxMicros / 1000.0; }
+        public double getMeanMillis() { return meanMicros / 1000.0; }
+        public double getTotalMillis() { return meanMicros * calls / 1000.0; }
+        public double getAcquireP99Millis() { return acquireP99Micros / 1000.0; }
+
+        public double getStatementsPerCall() {
+            return calls > 0 ? (double) statements / calls : 0.0;
+        }
+
+        public double getRowsPerCall() {
+            return calls > 0 ? (double) rows / calls : 0.0;
+        }
+    }
+}
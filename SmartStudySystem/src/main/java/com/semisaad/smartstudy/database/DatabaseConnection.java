@@ -1,14 +1,24 @@
 package com.semisaad.smartstudy.database;
 
+import javax.sql.DataSource;
 import java.sql.Connection;
-import java.sql.DriverManager;
 import java.sql.SQLException;
 
 public class DatabaseConnection {
-    // Database credentials
-    private static final String URL = "jdbc:postgresql://localhost:5432/smart_study_system";
-    private static final String USER = "saad";
-    private static final String PASSWORD = "saad210@khan";
+    // Database credentials (overridable with -Dsmartstudy.db.url etc., e.g. to point benchmarks at a scratch database)
+    private static final String URL = System.getProperty("smartstudy.db.url",
+            "jdbc:postgresql://localhost:5432/smart_study_system");
+    private static final String USER = System.getProperty("smartstudy.db.user", "saad");
+    private static final String PASSWORD = System.getProperty("smartstudy.db.password", "saad210@khan");
+
+    // Shared pool used by every DAO
+    private static final ConnectionPool POOL = new ConnectionPool(URL, USER, PASSWORD,
+            new ConnectionPool.Settings()
+                    .maxSize(10)
+                    .minIdle(2)
+                    .acquireTimeoutMillis(10_000)
+                    .idleTimeoutMillis(5 * 60_000)
+                    .leakDetectionThresholdMillis(30_000));
 
     // Private constructor - prevents instantiation
     private DatabaseConnection() {
@@ -16,14 +26,17 @@ public class DatabaseConnection {
     }
 
     /**
-     * Get a connection to the database
+     * Get a pooled connection to the database.
+     * Closing it returns it to the pool. Its use is recorded in DaoMetrics.
      * @return Connection object
      * @throws SQLException if connection fails
      */
     public static Connection getConnection() throws SQLException {
+        long requestedAt = System.nanoTime();
         try {
-            return DriverManager.getConnection(URL, USER, PASSWORD);
+            return DaoMetrics.track(POOL.getConnection(), requestedAt);
         } catch (SQLException e) {
+            DaoMetrics.recordAcquireFailure(requestedAt);
             System.err.println("Database connection failed!");
             throw e;
         }
@@ -55,4 +68,27 @@ public class DatabaseConnection {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Get the shared pooled DataSource
+     * @return DataSource backed by the connection pool
+     */
+    public static DataSource getDataSource() {
+        return POOL;
+    }
+
+    /**
+     * Get current connection pool metrics
+     * @return Snapshot of pool counters
+     */
+    public static ConnectionPool.Stats getPoolStats() {
+        return POOL.getStats();
+    }
+
+    /**
+     * Close all pooled connections (call on application shutdown)
+     */
+    public static void shutdown() {
+        POOL.close();
+    }
+}
@@ -0,0 +1,260 @@
+package com.semisaad.smartstudy.database;
+
+import com.semisaad.smartstudy.dao.CardStateDAO;
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Applies the versioned SQL scripts in /db/migration in order.
+ * Each script runs in its own transaction and is recorded in schema_version,
+ * so calling migrate() on every startup is safe.
+ */
+public class SchemaMigrator {
+
+    // Ordered list of migration scripts: {version, description, resource}
+    private static final String[][] MIGRATIONS = {
+            {"1", "base schema", "/db/migration/V1__base_schema.sql"},
+            {"2", "card state", "/db/migration/V2__card_state.sql"},
+            {"3", "hot query indexes", "/db/migration/V3__hot_query_indexes.sql"},
+            {"4", "review submission id", "/db/migration/V4__review_submission_id.sql"},
+            {"5", "question full-text search", "/db/migration/V5__question_full_text_search.sql"},
+            {"6", "keyset pagination indexes", "/db/migration/V6__keyset_pagination_indexes.sql"},
+            {"7", "review daily rollup", "/db/migration/V7__review_daily_rollup.sql"},
+            {"8", "card state backfill", "/db/migration/V8__card_state_backfill.sql"},
+    };
+
+    // Arbitrary key so two app instances don't migrate at the same time
+    private static final long MIGRATION_LOCK_KEY = 7_351_220_418L;
+
+    // Hot DAO queries that must be served by an index. The SQL is the DAOs'
+    // own, EXPLAINed with sample parameters.
+    private static final HotQuery[] HOT_QUERIES = {
+            new HotQuery("ReviewDAO.getLatestReview", "reviews", ReviewDAO.LATEST_REVIEW_SQL, 1, 1),
+            new HotQuery("ReviewDAO.getLatestReviews", "reviews", ReviewDAO.LATEST_REVIEWS_SQL,
+                    1, new Integer[]{1, 2, 3}),
+            new HotQuery("ReviewDAO.getReviewedQuestionIds", "reviews", ReviewDAO.REVIEWED_QUESTION_IDS_SQL,
+                    1, new Integer[]{1, 2, 3}),
+            new HotQuery("ReviewDAO.getByUserId", "reviews", ReviewDAO.BY_USER_SQL, 1),
+            new HotQuery("ReviewDAO.getRecentlyReviewed", "reviews", ReviewDAO.RECENT_QUESTIONS_SQL, 1, 5),
+            new HotQuery("ReviewDAO.getByUserIdPage", "reviews", ReviewDAO.USER_PAGE_AFTER_SQL,
+                    1, LocalDateTime.of(2024, 1, 1, 0, 0), 1, 100),
+            new HotQuery("ReviewDAO.getByQuestionId", "reviews", ReviewDAO.BY_QUESTION_SQL, 1),
+            // The rollup's LATERAL lookup of each card's previous review
+            new HotQuery("ReviewDAO.insert", "reviews", ReviewDAO.INSERT_SQL,
+                    1, 1, LocalDateTime.of(2024, 1, 1, 0, 0), true, 2.5f, 1, LocalDate.of(2024, 1, 2)),
+            new HotQuery("ReviewDAO.insertBatch", "reviews", ReviewDAO.INSERT_BATCH_SQL,
+                    1, 1, LocalDateTime.of(2024, 1, 1, 0, 0), true, 2.5f, 1, LocalDate.of(2024, 1, 2),
+                    new UUID(0, 1)),
+            new HotQuery("ReviewDAO.getDueQuestionIds", "card_state", ReviewDAO.DUE_QUESTION_IDS_SQL, 1),
+            new HotQuery("ReviewDAO.getDueQuestions", "card_state", ReviewDAO.DUE_QUESTIONS_SQL,
+                    1, new Integer[]{1}, new Integer[]{1}, new Integer[]{1, 2}, 20),
+            new HotQuery("ReviewDAO.getTopicPerformance", "card_state", ReviewDAO.TOPIC_PERFORMANCE_SQL,
+                    ReviewDAO.MASTERED_INTERVAL_DAYS, 1),
+            new HotQuery("ReviewDAO.getDailyActivity", "review_daily_rollup", ReviewDAO.DAILY_ACTIVITY_SQL,
+                    1, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 12, 31)),
+            new HotQuery("QuestionDAO.getByTopicId", "questions", QuestionDAO.BY_TOPIC_SQL, 1),
+            new HotQuery("QuestionDAO.getByDifficulty", "questions", QuestionDAO.BY_DIFFICULTY_SQL, "HARD"),
+            new HotQuery("QuestionDAO.getUnreviewed", "card_state", QuestionDAO.UNREVIEWED_RANDOM_SQL,
+                    1, new Integer[]{1}, new Integer[]{1}, new Integer[0], 20),
+            new HotQuery("QuestionDAO.search", "questions", QuestionDAO.SEARCH_SQL,
+                    "cell:*", "cell:*", null, null, null, null, "cell:*", 0, 20),
+            new HotQuery("TopicDAO.getAllWithCounts", "card_state", TopicDAO.COUNTS_SQL, 1),
+            new HotQuery("CardStateDAO.get", "card_state", CardStateDAO.GET_SQL, 1, 1),
+    };
+
+    private SchemaMigrator() {
+        // This class only has static methods
+    }
+
+    /**
+     * Apply all pending migrations
+     * @return Number of migrations applied
+     * @throws SQLException if a migration fails (it is rolled back)
+     */
+    public static int migrate() throws SQLException {
+        int applied = 0;
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+
+            stmt.execute("CREATE TABLE IF NOT EXISTS schema_version (" +
+                    "version INTEGER PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP)");
+
+            stmt.execute("SELECT pg_advisory_lock(" + MIGRATION_LOCK_KEY + ")");
+            try {
+                Set<Integer> done = getAppliedVersions(conn);
+
+                for (String[] migration : MIGRATIONS) {
+                    int version = Integer.parseInt(migration[0]);
+                    if (done.contains(version)) {
+                        continue;
+                    }
+                    apply(conn, version, migration[1], loadScript(migration[2]));
+                    applied++;
+                }
+            } finally {
+                stmt.execute("SELECT pg_advisory_unlock(" + MIGRATION_LOCK_KEY + ")");
+            }
+        }
+
+        return applied;
+    }
+
+    /**
+     * Get the highest applied schema version
+     * @return Version number, or 0 if nothing has been applied
+     */
+    public static int getCurrentVersion() {
+        String sql = "SELECT COALESCE(MAX(version), 0) FROM schema_version";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery(sql)) {
+
+            if (rs.next()) {
+                return rs.getInt(1);
+            }
+
+        } catch (SQLException e) {
+            System.err.println("Error reading schema version: " + e.getMessage());
+        }
+
+        return 0;
+    }
+
+    /**
+     * EXPLAIN each hot DAO query and report any that would scan a whole table.
+     * Sequential scans are disabled for the check, so the planner only falls
+     * back to one when no usable index exists - table size doesn't matter.
+     * @return Problems found (empty if every hot query uses an index)
+     * @throws SQLException if a query can't be explained
+     */
+    public static List<String> checkHotQueryPlans() throws SQLException {
+        List<String> problems = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+
+            try (Statement stmt = conn.createStatement()) {
+                stmt.execute("SET LOCAL enable_seqscan = off");
+
+                for (HotQuery query : HOT_QUERIES) {
+                    String plan = explain(conn, query);
+                    if (plan.contains("Seq Scan on " + query.table)) {
+                        problems.add(query.name + " falls back to a sequential scan on " +
+                                query.table + ":\n" + plan);
+                    }
+                }
+            } finally {
+                conn.rollback();
+            }
+        }
+
+        return problems;
+    }
+
+    private static String explain(Connection conn, HotQuery query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+
+        try (PreparedStatement pstmt = conn.prepareStatement("EXPLAIN " + query.sql)) {
+            for (int i = 0; i < query.params.length; i++) {
+                if (query.params[i] instanceof Integer[] ids) {
+                    pstmt.setArray(i + 1, conn.createArrayOf("integer", ids));
+                } else {
+                    pstmt.setObject(i + 1, query.params[i]);
+                }
+            }
+
+            try (ResultSet rs = pstmt.executeQuery()) {
+                while (rs.next()) {
+                    plan.append(rs.getString(1)).append('\n');
+                }
+            }
+        }
+
+        return plan.toString();
+    }
+
+    private static Set<Integer> getAppliedVersions(Connection conn) throws SQLException {
+        Set<Integer> versions = new HashSet<>();
+
+        try (Statement stmt = conn.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT version FROM schema_version")) {
+            while (rs.next()) {
+                versions.add(rs.getInt(1));
+            }
+        }
+
+        return versions;
+    }
+
+    private static void apply(Connection conn, int version, String description, String script)
+            throws SQLException {
+        conn.setAutoCommit(false);
+
+        try (Statement stmt = conn.createStatement();
+             PreparedStatement record = conn.prepareStatement(
+                     "INSERT INTO schema_version (version, description) VALUES (?, ?)")) {
+
+            stmt.execute(script);
+
+            record.setInt(1, version);
+            record.setString(2, description);
+            record.executeUpdate();
+
+            conn.commit();
+            System.out.println("Applied migration V" + version + " (" + description + ")");
+
+        } catch (SQLException e) {
+            conn.rollback();
+            System.err.println("Migration V" + version + " failed: " + e.getMessage());
+            throw e;
+        } finally {
+            conn.setAutoCommit(true);
+        }
+    }
+
+    private static String loadScript(String resource) throws SQLException {
+        try (InputStream in = SchemaMigrator.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new SQLException("Migration script not found: " + resource);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new SQLException("Could not read migration script " + resource, e);
+        }
+    }
+
+    /**
+     * A query for checkHotQueryPlans, the table it must not scan
+     * sequentially, and sample parameters (an Integer[] is bound as int[])
+     */
+    private static class HotQuery {
+        private final String name;
+        private final String table;
+        private final String sql;
+        private final Object[] params;
+
+        HotQuery(String name, String table, String sql, Object... params) {
+            this.name = name;
+            this.table = table;
+            this.sql = sql;
+            this.params = params;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.semisaad.smartstudy.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Current SM-2 scheduling state of one question for one user.
+ * This is the latest row of the reviews history, kept in its own table
+ * so answering a card doesn't have to scan that history.
+ */
+public class CardState {
+    private int userId;
+    private int questionId;
+    private float easeFactor;
+    private int intervalDays;
+    private int repetitions;
+    private LocalDate nextReviewDate;
+    private LocalDateTime lastReviewedAt;
+
+    public CardState(int userId, int questionId, float easeFactor, int intervalDays,
+                     int repetitions, LocalDate nextReviewDate, LocalDateTime lastReviewedAt) {
+        this.userId = userId;
+        this.questionId = questionId;
+        this.easeFactor = easeFactor;
+        this.intervalDays = intervalDays;
+        this.repetitions = repetitions;
+        this.nextReviewDate = nextReviewDate;
+        this.lastReviewedAt = lastReviewedAt;
+    }
+
+    // Getters
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getQuestionId() {
+        return questionId;
+    }
+
+    public float getEaseFactor() {
+        return easeFactor;
+    }
+
+    public int getIntervalDays() {
+        return intervalDays;
+    }
+
+    public int getRepetitions() {
+        return repetitions;
+    }
+
+    public LocalDate getNextReviewDate() {
+        return nextReviewDate;
+    }
+
+    public LocalDateTime getLastReviewedAt() {
+        return lastReviewedAt;
+    }
+
+    // Setters
+    public void setUserId(int userId) {
+        this.userId = userId;
+    }
+
+    public void setQuestionId(int questionId) {
+        this.questionId = questionId;
+    }
+
+    public void setEaseFactor(float easeFactor) {
+        this.easeFactor = easeFactor;
+    }
+
+    public void setIntervalDays(int intervalDays) {
+        this.intervalDays = intervalDays;
+    }
+
+    public void setRepetitions(int repetitions) {
+        this.repetitions = repetitions;
+    }
+
+    public void setNextReviewDate(LocalDate nextReviewDate) {
+        this.nextReviewDate = nextReviewDate;
+    }
+
+    public void setLastReviewedAt(LocalDateTime lastReviewedAt) {
+        this.lastReviewedAt = lastReviewedAt;
+    }
+
+    // toString for debugging
+    @Override
+    public String toString() {
+        return "CardState{" +
+                "userId=" + userId +
+                ", questionId=" + questionId +
+                ", easeFactor=" + easeFactor +
+                ", intervalDays=" + intervalDays +
+                ", repetitions=" + repetitions +
+                ", nextReviewDate=" + nextReviewDate +
+                ", lastReviewedAt=" + lastReviewedAt +
+                '}';
+    }
+}
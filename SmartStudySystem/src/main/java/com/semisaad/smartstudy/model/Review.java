@@ -2,6 +2,7 @@ package com.semisaad.smartstudy.model;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.UUID;
 
 public class Review {
     private int id;
@@ -12,6 +13,7 @@ public class Review {
     private float easeFactor;
     private int intervalDays;
     private LocalDate nextReviewDate;
+    private UUID submissionId; // Set for answers sent through the write-behind queue
 
     // Constructor for existing reviews from database
     public Review(int id, int questionId, int userId, LocalDateTime reviewedAt,
@@ -71,6 +73,10 @@ public class Review {
         return nextReviewDate;
     }
 
+    public UUID getSubmissionId() {
+        return submissionId;
+    }
+
     // Setters
     public void setId(int id) {
         this.id = id;
@@ -104,6 +110,10 @@ public class Review {
         this.nextReviewDate = nextReviewDate;
     }
 
+    public void setSubmissionId(UUID submissionId) {
+        this.submissionId = submissionId;
+    }
+
     // toString for debugging
     @Override
     public String toString() {
@@ -116,6 +126,7 @@ public class Review {
                 ", easeFactor=" + easeFactor +
                 ", intervalDays=" + intervalDays +
                 ", nextReviewDate=" + nextReviewDate +
+                ", submissionId=" + submissionId +
                 '}';
     }
 }
\ No newline at end of file
@@ -0,0 +1,413 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports topics, questions and reviews for backups or moving to another
+ * instance.
+ *
+ * Rows are streamed from the DAOs' server-side cursors straight to the
+ * output, so memory use stays the same however many reviews there are.
+ * Each table goes to its own file in one of two formats:
+ *
+ * CSV - RFC 4180 with a header row. questions.csv has a "topic" column
+ * with the topic name, so it can be read back by QuestionImporter.
+ *
+ * BINARY - big-endian, via DataOutputStream:
+ *   header:  "SSEX" magic, version byte (1), table byte (1 topics, 2 questions, 3 reviews)
+ *   records: int payload length, then the payload
+ *   trailer: int -1, then long record count
+ * Strings are an int byte length plus UTF-8 bytes; timestamps are long
+ * microseconds since the epoch (UTC); dates are int epoch days. Record
+ * layouts:
+ *   topic:    id, name, description, created_at
+ *   question: id, topic_id, difficulty, question_text, answer, created_at
+ *   review:   id, question_id, user_id, reviewed_at, was_correct (byte),
+ *             ease_factor (float), interval_days, next_review_date
+ * Readers should skip any bytes left in a record after the fields they
+ * know, so fields can be appended later.
+ *
+ * Either format can be gzip-compressed.
+ *
+ * If a DAO cursor fails part-way (e.g. the connection drops), the export
+ * fails with an IOException instead of producing a truncated file.
+ */
+public class DataExporter {
+
+    public enum Format {
+        CSV(".csv"), BINARY(".bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+    }
+
+    private static final int BINARY_VERSION = 1;
+    private static final byte TABLE_TOPICS = 1;
+    private static final byte TABLE_QUESTIONS = 2;
+    private static final byte TABLE_REVIEWS = 3;
+
+    private static final byte[] BINARY_MAGIC = {'S', 'S', 'E', 'X'};
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final TopicDAO topicDAO;
+    private final QuestionDAO questionDAO;
+    private final ReviewDAO reviewDAO;
+
+    public DataExporter(TopicDAO topicDAO, QuestionDAO questionDAO, ReviewDAO reviewDAO) {
+        this.topicDAO = topicDAO;
+        this.questionDAO = questionDAO;
+        this.reviewDAO = reviewDAO;
+    }
+
+    /**
+     * Export all three tables into a directory as topics, questions and
+     * reviews files (e.g. reviews.csv.gz). Existing files are overwritten.
+     *
+     * Each file is written as "<name>.part" first; the three are renamed
+     * into place only once all of them are complete. On failure the .part
+     * files are deleted and any previous export is left as it was.
+     * @param directory Created if it doesn't exist
+     * @param gzip Whether to gzip each file
+     * @return Row counts per table
+     * @throws IOException if a file can't be written or a table can't be read in full
+     */
+    public ExportResult exportAll(Path directory, Format format, boolean gzip) throws IOException {
+        Files.createDirectories(directory);
+        String suffix = format.getExtension() + (gzip ? ".gz" : "");
+
+        Path topicsFile = directory.resolve("topics" + suffix);
+        Path questionsFile = directory.resolve("questions" + suffix);
+        Path reviewsFile = directory.resolve("reviews" + suffix);
+        Path[] files = {topicsFile, questionsFile, reviewsFile};
+
+        try {
+            int topics;
+            try (OutputStream out = open(partFile(topicsFile), gzip)) {
+                topics = exportTopics(out, format);
+            }
+
+            int questions;
+            try (OutputStream out = open(partFile(questionsFile), gzip)) {
+                questions = exportQuestions(out, format);
+            }
+
+            int reviews;
+            try (OutputStream out = open(partFile(reviewsFile), gzip)) {
+                reviews = exportReviews(out, format);
+            }
+
+            for (Path file : files) {
+                Files.move(partFile(file), file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new ExportResult(topics, questions, reviews);
+
+        } catch (IOException e) {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(partFile(file));
+                } catch (IOException cleanup) {
+                    e.addSuppressed(cleanup);
+                }
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Write every topic to the stream (which is flushed but not closed)
+     * @return Number of topics written
+     */
+    public int exportTopics(OutputStream out, Format format) throws IOException {
+        if (format == Format.CSV) {
+            Writer writer = csvWriter(out);
+            writeCsvRow(writer, "id", "name", "description", "created_at");
+            int count = stream("topics", topicDAO::forEach, topic -> writeCsvRow(writer,
+                    String.valueOf(topic.getId()), topic.getName(), topic.getDescription(),
+                    String.valueOf(topic.getCreatedAt())));
+            writer.flush();
+            return count;
+        }
+
+        BinaryWriter writer = new BinaryWriter(out, TABLE_TOPICS);
+        int count = stream("topics", topicDAO::forEach, topic -> {
+            DataOutputStream record = writer.startRecord();
+            record.writeInt(topic.getId());
+            writeString(record, topic.getName());
+            writeString(record, topic.getDescription());
+            record.writeLong(toEpochMicros(topic.getCreatedAt()));
+            writer.endRecord();
+        });
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Write every question to the stream (which is flushed but not closed)
+     * @return Number of questions written
+     */
+    public int exportQuestions(OutputStream out, Format format) throws IOException {
+        if (format == Format.CSV) {
+            // Topic names make the file importable; there are few enough topics to hold
+            Map<Integer, String> topicNames = new HashMap<>();
+            if (topicDAO.forEach(topic -> topicNames.put(topic.getId(), topic.getName())) < 0) {
+                throw new IOException("Could not read topics from the database");
+            }
+
+            Writer writer = csvWriter(out);
+            writeCsvRow(writer, "id", "question", "answer", "topic", "topic_id", "difficulty", "created_at");
+            int count = stream("questions", questionDAO::forEach, question -> writeCsvRow(writer,
+                    String.valueOf(question.getId()), question.getQuestionText(), question.getAnswer(),
+                    topicNames.get(question.getTopicId()), String.valueOf(question.getTopicId()),
+                    question.getDifficulty(), String.valueOf(question.getCreatedAt())));
+            writer.flush();
+            return count;
+        }
+
+        BinaryWriter writer = new BinaryWriter(out, TABLE_QUESTIONS);
+        int count = stream("questions", questionDAO::forEach, question -> {
+            DataOutputStream record = writer.startRecord();
+            record.writeInt(question.getId());
+            record.writeInt(question.getTopicId());
+            writeString(record, question.getDifficulty());
+            writeString(record, question.getQuestionText());
+            writeString(record, question.getAnswer());
+            record.writeLong(toEpochMicros(question.getCreatedAt()));
+            writer.endRecord();
+        });
+        writer.finish();
+        return count;
+    }
+
+    /**
+     * Write every review, newest first, to the stream (which is flushed but not closed)
+     * @return Number of reviews written
+     */
+    public int exportReviews(OutputStream out, Format format) throws IOException {
+        if (format == Format.CSV) {
+            Writer writer = csvWriter(out);
+            writeCsvRow(writer, "id", "question_id", "user_id", "reviewed_at", "was_correct",
+                    "ease_factor", "interval_days", "next_review_date");
+            int count = stream("reviews", reviewDAO::forEach, review -> writeCsvRow(writer,
+                    String.valueOf(review.getId()), String.valueOf(review.getQuestionId()),
+                    String.valueOf(review.getUserId()), String.valueOf(review.getReviewedAt()),
+                    String.valueOf(review.isWasCorrect()), String.valueOf(review.getEaseFactor()),
+                    String.valueOf(review.getIntervalDays()), String.valueOf(review.getNextReviewDate())));
+            writer.flush();
+            return count;
+        }
+
+        BinaryWriter writer = new BinaryWriter(out, TABLE_REVIEWS);
+        int count = stream("reviews", reviewDAO::forEach, review -> {
+            DataOutputStream record = writer.startRecord();
+            record.writeInt(review.getId());
+            record.writeInt(review.getQuestionId());
+            record.writeInt(review.getUserId());
+            record.writeLong(toEpochMicros(review.getReviewedAt()));
+            record.writeByte(review.isWasCorrect() ? 1 : 0);
+            record.writeFloat(review.getEaseFactor());
+            record.writeInt(review.getIntervalDays());
+            record.writeInt((int) review.getNextReviewDate().toEpochDay());
+            writer.endRecord();
+        });
+        writer.finish();
+        return count;
+    }
+
+    private static Path partFile(Path file) {
+        return file.resolveSibling(file.getFileName() + ".part");
+    }
+
+    private static OutputStream open(Path file, boolean gzip) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        return gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : new BufferedOutputStream(out, BUFFER_SIZE);
+    }
+
+    // ==================== STREAMING ====================
+
+    /**
+     * A DAO forEach method: calls the action for each row, returns the row
+     * count or -1 if the query failed
+     */
+    private interface RowSource<T> {
+        int forEach(Consumer<T> action);
+    }
+
+    /**
+     * Like Consumer, but may fail with an IOException
+     */
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+
+    /**
+     * Pipe a DAO cursor into a writer. DAO callbacks can't throw checked
+     * exceptions, so a write failure is tunneled out and rethrown here; a
+     * read failure (the DAO returns -1) becomes an IOException too, so a
+     * partial table is never reported as a finished export.
+     */
+    private static <T> int stream(String table, RowSource<T> source, RowWriter<T> writer) throws IOException {
+        int count;
+        try {
+            count = source.forEach(row -> {
+                try {
+                    writer.write(row);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        if (count < 0) {
+            throw new IOException("Could not read " + table + " from the database");
+        }
+        return count;
+    }
+
+    // ==================== CSV ====================
+
+    private static Writer csvWriter(OutputStream out) {
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+    }
+
+    private static void writeCsvRow(Writer writer, String... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writeCsvField(writer, fields[i]);
+        }
+        writer.write("\r\n");
+    }
+
+    /**
+     * Quote a field only if it needs it; null is written as an empty field
+     */
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        boolean needsQuotes = false;
+        for (int i = 0; i < value.length() && !needsQuotes; i++) {
+            char c = value.charAt(i);
+            needsQuotes = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+
+        if (!needsQuotes) {
+            writer.write(value);
+            return;
+        }
+
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // ==================== BINARY ====================
+
+    /**
+     * Writes the binary header, length-prefixed records and trailer.
+     * Each record is built in a reused buffer so its length is known
+     * before it is written.
+     */
+    private static class BinaryWriter {
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(256);
+        private final DataOutputStream record = new DataOutputStream(buffer);
+        private long count = 0;
+
+        BinaryWriter(OutputStream out, byte table) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.out.write(BINARY_MAGIC);
+            this.out.writeByte(BINARY_VERSION);
+            this.out.writeByte(table);
+        }
+
+        DataOutputStream startRecord() {
+            buffer.reset();
+            return record;
+        }
+
+        void endRecord() throws IOException {
+            out.writeInt(buffer.size());
+            buffer.writeTo(out);
+            count++;
+        }
+
+        void finish() throws IOException {
+            out.writeInt(-1);
+            out.writeLong(count);
+            out.flush();
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        // Not writeUTF: it caps strings at 64 KB
+        byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long toEpochMicros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    /**
+     * Row counts of a finished export
+     */
+    public static class ExportResult {
+        private final int topics;
+        private final int questions;
+        private final int reviews;
+
+        public ExportResult(int topics, int questions, int reviews) {
+            this.topics = topics;
+            this.questions = questions;
+            this.reviews = reviews;
+        }
+
+        public int getTopics() { return topics; }
+        public int getQuestions() { return questions; }
+        public int getReviews() { return reviews; }
+
+        @Override
+        public String toString() {
+            return "ExportResult{" +
+                    "topics=" + topics +
+                    ", questions=" + questions +
+                    ", reviews=" + reviews +
+                    '}';
+        }
+    }
+}
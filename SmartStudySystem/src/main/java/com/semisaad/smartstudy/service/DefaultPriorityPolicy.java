@@ -0,0 +1,34 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.model.Review;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Default ordering: cards missed last time first, then overdue and
+ * low-ease cards, with new cards in the middle.
+ */
+public class DefaultPriorityPolicy implements PriorityPolicy {
+
+    @Override
+    public int score(Review latest, LocalDate today) {
+        if (latest == null) {
+            return 50; // New question — medium priority
+        }
+
+        if (!latest.isWasCorrect()) {
+            return 10; // Got wrong last time — show first
+        }
+
+        int easePriority = (int) (latest.getEaseFactor() * 10);
+
+        long daysOverdue = ChronoUnit.DAYS.between(latest.getNextReviewDate(), today);
+
+        if (daysOverdue > 0) {
+            return Math.max(10, easePriority - (int) daysOverdue * 5);
+        }
+
+        return easePriority;
+    }
+}
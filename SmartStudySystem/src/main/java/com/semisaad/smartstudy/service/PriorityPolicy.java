@@ -0,0 +1,21 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.model.Review;
+
+import java.time.LocalDate;
+
+/**
+ * Decides the order questions are shown in a study session.
+ * Lower scores are shown first.
+ */
+public interface PriorityPolicy {
+
+    /**
+     * Score one question from its latest review
+     *
+     * @param latest Most recent review by this user, or null if never reviewed
+     * @param today The session date
+     * @return Priority score (lower = show sooner)
+     */
+    int score(Review latest, LocalDate today);
+}
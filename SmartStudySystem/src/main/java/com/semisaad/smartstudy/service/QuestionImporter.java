@@ -0,0 +1,650 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.util.Validator;
+import com.semisaad.smartstudy.util.Validator.ValidationResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Imports questions from CSV, TSV or JSON files.
+ *
+ * The file is parsed as a stream, so memory use depends on the batch size
+ * rather than the file size. Each row is validated with Validator. The
+ * topics a batch refers to are looked up (or created) with one query, and
+ * the batch is loaded with QuestionDAO.bulkInsert (COPY). Invalid rows are
+ * skipped and listed in the result instead of failing the whole import.
+ *
+ * CSV and TSV files need a header row; JSON files hold an array of objects.
+ * Either way the fields are "question", "answer", "topic" and (optionally)
+ * "difficulty" - EASY, MEDIUM or HARD, MEDIUM if left out.
+ */
+public class QuestionImporter {
+
+    public enum Format {
+        CSV, TSV, JSON;
+
+        /**
+         * Pick the format from a file extension (.csv, .tsv/.tab, .json)
+         * @return The format, or null if the extension isn't recognized
+         */
+        public static Format fromFileName(String fileName) {
+            String name = fileName.toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) return CSV;
+            if (name.endsWith(".tsv") || name.endsWith(".tab")) return TSV;
+            if (name.endsWith(".json")) return JSON;
+            return null;
+        }
+    }
+
+    /**
+     * Called on the importing thread after every batch
+     */
+    public interface ProgressListener {
+        void onProgress(long bytesRead, long totalBytes, int rowsImported, int rowsRejected);
+    }
+
+    private static final int DEFAULT_BATCH_SIZE = 20_000;
+
+    // Only this many row errors are kept for the report; the rest are just counted
+    private static final int MAX_REPORTED_ERRORS = 10_000;
+
+    private static final Set<String> DIFFICULTIES = Set.of("EASY", "MEDIUM", "HARD");
+
+    private final QuestionDAO questionDAO;
+    private final TopicDAO topicDAO;
+    private final int batchSize;
+
+    public QuestionImporter(QuestionDAO questionDAO, TopicDAO topicDAO) {
+        this(questionDAO, topicDAO, DEFAULT_BATCH_SIZE);
+    }
+
+    public QuestionImporter(QuestionDAO questionDAO, TopicDAO topicDAO, int batchSize) {
+        this.questionDAO = questionDAO;
+        this.topicDAO = topicDAO;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Import a file, picking the format from its extension
+     * @param file File to import
+     * @param listener Progress callback (may be null)
+     * @return What was imported and which rows were rejected
+     * @throws IOException if the file can't be read or isn't in the expected format
+     */
+    public ImportResult importFile(Path file, ProgressListener listener) throws IOException {
+        Format format = Format.fromFileName(file.getFileName().toString());
+        if (format == null) {
+            throw new IOException("Unsupported file type (use .csv, .tsv or .json): " + file.getFileName());
+        }
+        return importFile(file, format, listener);
+    }
+
+    public ImportResult importFile(Path file, Format format, ProgressListener listener) throws IOException {
+        long totalBytes = Files.size(file);
+
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             Reader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16)) {
+            return importFrom(reader, format, in, totalBytes, listener);
+        }
+    }
+
+    /**
+     * Import from an already open reader (progress is reported in rows only)
+     */
+    public ImportResult importFrom(Reader reader, Format format, ProgressListener listener) throws IOException {
+        return importFrom(reader, format, null, 0, listener);
+    }
+
+    private ImportResult importFrom(Reader reader, Format format, CountingInputStream counter,
+                                    long totalBytes, ProgressListener listener) throws IOException {
+        RowReader rows = format == Format.JSON ? new JsonRowReader(reader)
+                : new DelimitedRowReader(reader, format == Format.TSV ? '\t' : ',');
+        ImportResult result = new ImportResult();
+
+        List<PendingRow> batch = new ArrayList<>(batchSize);
+        Map<String, String> row;
+
+        while ((row = rows.next()) != null) {
+            PendingRow pending = validate(rows.getRowNumber(), row, result);
+            if (pending != null) {
+                batch.add(pending);
+            }
+
+            if (batch.size() >= batchSize) {
+                load(batch, result);
+                batch.clear();
+                report(listener, counter, totalBytes, result);
+            }
+        }
+
+        load(batch, result);
+        report(listener, counter, totalBytes, result);
+        return result;
+    }
+
+    private PendingRow validate(long rowNumber, Map<String, String> row, ImportResult result) {
+        String questionText = trim(row.get("question"));
+        String answer = trim(row.get("answer"));
+        String topic = trim(row.get("topic"));
+        String difficulty = trim(row.get("difficulty"));
+
+        ValidationResult check = Validator.validateQuestion(questionText);
+        if (check.isValid()) {
+            check = Validator.validateAnswer(answer);
+        }
+        if (check.isValid()) {
+            check = Validator.validateTopicName(topic);
+        }
+        if (!check.isValid()) {
+            result.reject(rowNumber, check.getMessage());
+            return null;
+        }
+
+        if (difficulty == null || difficulty.isEmpty()) {
+            difficulty = "MEDIUM";
+        } else {
+            difficulty = difficulty.toUpperCase(Locale.ROOT);
+            if (!DIFFICULTIES.contains(difficulty)) {
+                result.reject(rowNumber, "Difficulty must be EASY, MEDIUM or HARD");
+                return null;
+            }
+        }
+
+        return new PendingRow(rowNumber, questionText, answer, topic, difficulty);
+    }
+
+    /**
+     * Resolve the batch's topics in one query, then bulk insert it
+     */
+    private void load(List<PendingRow> batch, ImportResult result) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        Set<String> topicNames = new HashSet<>();
+        for (PendingRow row : batch) {
+            topicNames.add(row.topic);
+        }
+        Map<String, Integer> topicIds = topicDAO.resolveIds(topicNames);
+
+        List<Question> questions = new ArrayList<>(batch.size());
+        for (PendingRow row : batch) {
+            Integer topicId = topicIds.get(row.topic);
+            if (topicId == null) {
+                result.reject(row.rowNumber, "Could not create topic \"" + row.topic + "\"");
+                continue;
+            }
+            questions.add(new Question(row.questionText, row.answer, topicId, row.difficulty));
+        }
+
+        int inserted = questionDAO.bulkInsert(questions);
+        if (inserted == questions.size()) {
+            result.imported += inserted;
+        } else {
+            // The batch is one transaction, so nothing from it was saved
+            result.reject(batch.get(0).rowNumber, "Database error: rows " + batch.get(0).rowNumber +
+                    "-" + batch.get(batch.size() - 1).rowNumber + " were not imported");
+            result.rejected += questions.size() - 1;
+        }
+    }
+
+    private void report(ProgressListener listener, CountingInputStream counter, long totalBytes,
+                        ImportResult result) {
+        if (listener != null) {
+            long bytesRead = counter != null ? counter.count : 0;
+            listener.onProgress(bytesRead, totalBytes, result.imported, result.rejected);
+        }
+    }
+
+    private static String trim(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    /**
+     * A validated row waiting for its batch to be loaded
+     */
+    private static class PendingRow {
+        final long rowNumber;
+        final String questionText;
+        final String answer;
+        final String topic;
+        final String difficulty;
+
+        PendingRow(long rowNumber, String questionText, String answer, String topic, String difficulty) {
+            this.rowNumber = rowNumber;
+            this.questionText = questionText;
+            this.answer = answer;
+            this.topic = topic;
+            this.difficulty = difficulty;
+        }
+    }
+
+    /**
+     * Outcome of an import
+     */
+    public static class ImportResult {
+        private int imported = 0;
+        private int rejected = 0;
+        private final List<RowError> errors = new ArrayList<>();
+
+        void reject(long rowNumber, String message) {
+            rejected++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new RowError(rowNumber, message));
+            }
+        }
+
+        public int getImported() { return imported; }
+        public int getRejected() { return rejected; }
+
+        /**
+         * Rejected rows in file order (capped; getRejected() has the full count)
+         */
+        public List<RowError> getErrors() { return errors; }
+
+        /**
+         * Write the rejected rows as CSV: row,error
+         */
+        public void writeErrorReport(Path file) throws IOException {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+                writer.write("row,error");
+                writer.newLine();
+                for (RowError error : errors) {
+                    writer.write(error.getRowNumber() + ",\"" + error.getMessage().replace("\"", "\"\"") + "\"");
+                    writer.newLine();
+                }
+                if (rejected > errors.size()) {
+                    writer.write(",\"...and " + (rejected - errors.size()) + " more\"");
+                    writer.newLine();
+                }
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "ImportResult{" +
+                    "imported=" + imported +
+                    ", rejected=" + rejected +
+                    '}';
+        }
+    }
+
+    /**
+     * Why one row was rejected
+     */
+    public static class RowError {
+        private final long rowNumber;
+        private final String message;
+
+        public RowError(long rowNumber, String message) {
+            this.rowNumber = rowNumber;
+            this.message = message;
+        }
+
+        /**
+         * 1-based data row (the CSV/TSV header and the JSON array itself don't count)
+         */
+        public long getRowNumber() { return rowNumber; }
+        public String getMessage() { return message; }
+    }
+
+    /**
+     * Source of rows as field name -> value
+     */
+    private interface RowReader {
+        /**
+         * @return The next row, or null at end of input
+         */
+        Map<String, String> next() throws IOException;
+
+        long getRowNumber();
+    }
+
+    /**
+     * CSV (RFC 4180: quoted fields may contain delimiters, doubled quotes
+     * and line breaks) or TSV (tab-separated, no quoting). The first row
+     * names the columns.
+     */
+    private static class DelimitedRowReader implements RowReader {
+        private final Reader reader;
+        private final char delimiter;
+        private final boolean quoting;
+        private String[] header;
+        private long rowNumber = 0;
+        private int peeked = -2; // -2 = nothing peeked
+
+        DelimitedRowReader(Reader reader, char delimiter) {
+            this.reader = reader;
+            this.delimiter = delimiter;
+            this.quoting = delimiter == ',';
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (header == null) {
+                List<String> names = readRecord();
+                if (names == null) {
+                    return null;
+                }
+                header = new String[names.size()];
+                for (int i = 0; i < names.size(); i++) {
+                    // Strip a UTF-8 byte order mark from the first column name
+                    header[i] = names.get(i).replace("\uFEFF", "").trim().toLowerCase(Locale.ROOT);
+                }
+            }
+
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isEmpty()); // Skip blank lines
+
+            rowNumber++;
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.length && i < fields.size(); i++) {
+                row.put(header[i], fields.get(i));
+            }
+            return row;
+        }
+
+        @Override
+        public long getRowNumber() {
+            return rowNumber;
+        }
+
+        /**
+         * Read one record, or null at end of input
+         */
+        private List<String> readRecord() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean inQuotes = false;
+
+            while (true) {
+                if (inQuotes) {
+                    if (c == -1) {
+                        throw new IOException("Unterminated quoted field in row " + (rowNumber + 1));
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            inQuotes = false;
+                            c = next;
+                            continue;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == -1 || c == '\n' || c == '\r') {
+                    if (c == '\r') {
+                        int next = read();
+                        if (next != '\n') {
+                            peeked = next;
+                        }
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '"' && quoting && field.length() == 0) {
+                    inQuotes = true;
+                } else {
+                    field.append((char) c);
+                }
+                c = read();
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+    }
+
+    /**
+     * Streaming reader for a JSON array of flat objects:
+     * [{"question": "...", "answer": "...", "topic": "...", "difficulty": "EASY"}, ...]
+     * Values may be strings, numbers, booleans or null; nested values are rejected.
+     */
+    private static class JsonRowReader implements RowReader {
+        private final Reader reader;
+        private long rowNumber = 0;
+        private boolean started = false;
+        private boolean finished = false;
+        private int peeked = -2;
+
+        JsonRowReader(Reader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        public Map<String, String> next() throws IOException {
+            if (finished) {
+                return null;
+            }
+
+            if (!started) {
+                int c = skipWhitespace();
+                if (c == '\uFEFF') {
+                    c = skipWhitespace();
+                }
+                if (c != '[') {
+                    throw new IOException("Expected a JSON array of questions");
+                }
+                started = true;
+
+                c = skipWhitespace();
+                if (c == ']') {
+                    finished = true;
+                    return null;
+                }
+                peeked = c;
+            } else {
+                int c = skipWhitespace();
+                if (c == ']') {
+                    finished = true;
+                    return null;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or ']'");
+                }
+            }
+
+            rowNumber++;
+            return readObject();
+        }
+
+        @Override
+        public long getRowNumber() {
+            return rowNumber;
+        }
+
+        private Map<String, String> readObject() throws IOException {
+            Map<String, String> row = new HashMap<>();
+            if (skipWhitespace() != '{') {
+                throw error("Expected '{'");
+            }
+
+            int c = skipWhitespace();
+            if (c == '}') {
+                return row;
+            }
+
+            while (true) {
+                if (c != '"') {
+                    throw error("Expected a field name");
+                }
+                String name = readString().toLowerCase(Locale.ROOT);
+                if (skipWhitespace() != ':') {
+                    throw error("Expected ':'");
+                }
+                row.put(name, readValue());
+
+                c = skipWhitespace();
+                if (c == '}') {
+                    return row;
+                }
+                if (c != ',') {
+                    throw error("Expected ',' or '}'");
+                }
+                c = skipWhitespace();
+            }
+        }
+
+        private String readValue() throws IOException {
+            int c = skipWhitespace();
+            if (c == '"') {
+                return readString();
+            }
+            if (c == '{' || c == '[') {
+                throw error("Nested values are not supported");
+            }
+
+            StringBuilder literal = new StringBuilder();
+            while (c != -1 && c != ',' && c != '}' && !Character.isWhitespace(c)) {
+                literal.append((char) c);
+                c = read();
+            }
+            peeked = c;
+
+            String value = literal.toString();
+            if (value.isEmpty()) {
+                throw error("Expected a value");
+            }
+            return value.equals("null") ? null : value;
+        }
+
+        /**
+         * Read a string body (the opening quote is already consumed)
+         */
+        private String readString() throws IOException {
+            StringBuilder value = new StringBuilder();
+
+            while (true) {
+                int c = read();
+                if (c == -1) {
+                    throw error("Unterminated string");
+                }
+                if (c == '"') {
+                    return value.toString();
+                }
+                if (c != '\\') {
+                    value.append((char) c);
+                    continue;
+                }
+
+                int escaped = read();
+                switch (escaped) {
+                    case '"': value.append('"'); break;
+                    case '\\': value.append('\\'); break;
+                    case '/': value.append('/'); break;
+                    case 'b': value.append('\b'); break;
+                    case 'f': value.append('\f'); break;
+                    case 'n': value.append('\n'); break;
+                    case 'r': value.append('\r'); break;
+                    case 't': value.append('\t'); break;
+                    case 'u':
+                        char[] hex = new char[4];
+                        for (int i = 0; i < 4; i++) {
+                            int h = read();
+                            if (h == -1) {
+                                throw error("Unterminated escape");
+                            }
+                            hex[i] = (char) h;
+                        }
+                        try {
+                            value.append((char) Integer.parseInt(new String(hex), 16));
+                        } catch (NumberFormatException e) {
+                            throw error("Invalid \\u escape");
+                        }
+                        break;
+                    default:
+                        throw error("Invalid escape");
+                }
+            }
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c = read();
+            while (c != -1 && Character.isWhitespace(c)) {
+                c = read();
+            }
+            return c;
+        }
+
+        private int read() throws IOException {
+            if (peeked != -2) {
+                int c = peeked;
+                peeked = -2;
+                return c;
+            }
+            return reader.read();
+        }
+
+        private IOException error(String message) {
+            return new IOException(message + " in JSON object " + Math.max(rowNumber, 1));
+        }
+    }
+
+    /**
+     * Counts bytes read so progress can be reported against the file size
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private volatile long count = 0;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.ReviewRollupDAO;
+import com.semisaad.smartstudy.dao.UserDAO;
+import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.database.SchemaMigrator;
+import com.semisaad.smartstudy.model.User;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recomputes review_daily_rollup from the reviews table.
+ *
+ * Migration V7 fills the rollup once for the existing history, and the DAOs
+ * keep it current after that. This job is for everything else: reviews
+ * loaded or edited with plain SQL, or reviews inserted out of order. Each
+ * user is rebuilt in a separate transaction, so it can run next to the app
+ * and a failure only affects that user.
+ */
+public class ReviewRollupBackfill {
+
+    /**
+     * Called on the backfill thread after each user
+     */
+    public interface ProgressListener {
+        void onProgress(int done, int total);
+    }
+
+    private final UserDAO userDAO;
+    private final ReviewRollupDAO rollupDAO;
+
+    public ReviewRollupBackfill() {
+        this(new UserDAO(), new ReviewRollupDAO());
+    }
+
+    public ReviewRollupBackfill(UserDAO userDAO, ReviewRollupDAO rollupDAO) {
+        this.userDAO = userDAO;
+        this.rollupDAO = rollupDAO;
+    }
+
+    /**
+     * Rebuild the rollup of every user
+     * @return IDs of users whose rebuild failed (empty if all succeeded)
+     */
+    public List<Integer> run(ProgressListener listener) {
+        List<Integer> userIds = new ArrayList<>();
+        for (User user : userDAO.getAll()) {
+            userIds.add(user.getId());
+        }
+        return run(userIds, listener);
+    }
+
+    /**
+     * Rebuild the rollup of the given users
+     * @return IDs of users whose rebuild failed (empty if all succeeded)
+     */
+    public List<Integer> run(List<Integer> userIds, ProgressListener listener) {
+        List<Integer> failed = new ArrayList<>();
+
+        for (int i = 0; i < userIds.size(); i++) {
+            int userId = userIds.get(i);
+            if (rollupDAO.rebuild(userId) < 0) {
+                failed.add(userId);
+            }
+            listener.onProgress(i + 1, userIds.size());
+        }
+
+        return failed;
+    }
+
+    /**
+     * Command-line entry point. With no arguments every user is rebuilt,
+     * otherwise only the given user IDs:
+     *   java ... ReviewRollupBackfill 12 40
+     * Point it at another database with -Dsmartstudy.db.url=...
+     */
+    public static void main(String[] args) throws SQLException {
+        SchemaMigrator.migrate();
+        long start = System.currentTimeMillis();
+
+        ReviewRollupBackfill backfill = new ReviewRollupBackfill();
+        ProgressListener listener = (done, total) -> {
+            if (done == total || done % Math.max(1, total / 20) == 0) {
+                System.out.println("Users: " + done + "/" + total);
+            }
+        };
+
+        List<Integer> failed;
+        if (args.length == 0) {
+            failed = backfill.run(listener);
+        } else {
+            List<Integer> userIds = new ArrayList<>();
+            for (String arg : args) {
+                userIds.add(Integer.parseInt(arg));
+            }
+            failed = backfill.run(userIds, listener);
+        }
+
+        System.out.println("Rollup rebuilt in " + (System.currentTimeMillis() - start) / 1000 + "s" +
+                (failed.isEmpty() ? "" : ", failed for users " + failed));
+        DatabaseConnection.shutdown();
+    }
+}
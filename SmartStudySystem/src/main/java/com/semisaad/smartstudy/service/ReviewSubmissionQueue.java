@@ -0,0 +1,534 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.model.CardState;
+import com.semisaad.smartstudy.model.Review;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Write-behind queue for answered reviews.
+ *
+ * submit() appends the review to a local journal (fsynced) and returns;
+ * a background thread writes queued reviews to the database in batches and
+ * removes them from the journal once committed. If the app crashes or the
+ * database is down, the journal is replayed on the next start. Every review
+ * carries a submission ID, so a batch that committed just before a crash is
+ * not inserted twice when it is replayed.
+ *
+ * A batch that fails because the database is unreachable is retried. One
+ * that breaks a constraint (e.g. the question was deleted while the answer
+ * was queued) is retried a row at a time, and the rows the database rejects
+ * are moved to a dead-letter file next to the journal instead of blocking
+ * every later answer.
+ *
+ * The latest card state of recently answered (or prefetched) cards is kept
+ * in memory, so the next answer can be scheduled without reading the database.
+ */
+public final class ReviewSubmissionQueue {
+
+    /**
+     * Called on the writer thread once a user's queued reviews are in the database
+     */
+    public interface CommitListener {
+        void onCommitted(int userId);
+    }
+
+    private static final int MAX_BATCH_SIZE = 200;
+    private static final long RETRY_DELAY_MILLIS = 5_000;
+
+    // Card states kept beyond this are dropped, except those of pending reviews
+    private static final int MAX_CACHED_STATES = 10_000;
+
+    private final ReviewDAO reviewDAO;
+    private final CommitListener commitListener;
+    private final Path journalPath;
+    private final Path deadLetterPath;
+    private FileChannel journal; // Reopened after each compaction (guarded by "this")
+
+    // Journaled but not yet committed, oldest first (guarded by "this")
+    private final Deque<Submission> pending = new ArrayDeque<>();
+
+    // Latest known state per (user, question); empty = never reviewed
+    private final Map<Long, Optional<CardState>> cardStates = new ConcurrentHashMap<>();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    /**
+     * Open (or create) the journal, queue anything left over from the last
+     * run, and start the background writer
+     * @param journalPath Local file used as the journal
+     * @throws IOException if the journal can't be read or opened
+     */
+    public ReviewSubmissionQueue(ReviewDAO reviewDAO, Path journalPath) throws IOException {
+        this(reviewDAO, journalPath, userId -> { });
+    }
+
+    /**
+     * Same as above, telling the listener whenever a user's reviews are committed
+     * (replayed ones included)
+     */
+    public ReviewSubmissionQueue(ReviewDAO reviewDAO, Path journalPath, CommitListener commitListener)
+            throws IOException {
+        this.reviewDAO = reviewDAO;
+        this.commitListener = commitListener;
+        this.journalPath = journalPath;
+        this.deadLetterPath = journalPath.resolveSibling(journalPath.getFileName() + ".rejected");
+
+        // Length of the journal up to its last complete line
+        long completeLength = 0;
+
+        if (Files.exists(journalPath)) {
+            byte[] content = Files.readAllBytes(journalPath);
+            for (int i = content.length - 1; i >= 0; i--) {
+                if (content[i] == '\n') {
+                    completeLength = i + 1;
+                    break;
+                }
+            }
+
+            for (String line : new String(content, 0, (int) completeLength, StandardCharsets.UTF_8).split("\n")) {
+                Submission submission = Submission.parse(line);
+                if (submission != null) {
+                    pending.add(submission);
+                    cardStates.put(key(submission.state), Optional.of(submission.state));
+                }
+            }
+            if (!pending.isEmpty()) {
+                System.out.println("Replaying " + pending.size() + " unsaved review(s) from " + journalPath);
+            }
+        }
+
+        this.journal = openJournal();
+        if (journal.size() > completeLength) {
+            // A crash mid-write left a torn last line; cut it off so the next
+            // entry doesn't get appended to it and become unreadable as well
+            System.err.println("Dropping torn last entry of " + journalPath);
+            journal.truncate(completeLength);
+        }
+
+        this.writer = new Thread(this::writeLoop, "review-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    /**
+     * Journal a review and queue it for the database
+     * @param review The new review (a submission ID is assigned if missing)
+     * @param state Card state after the review
+     * @return true once the review is durable in the journal, false if the journal write failed
+     */
+    public boolean submit(Review review, CardState state) {
+        if (review.getSubmissionId() == null) {
+            review.setSubmissionId(UUID.randomUUID());
+        }
+        Submission submission = new Submission(review, state);
+
+        synchronized (this) {
+            try {
+                journal.write(ByteBuffer.wrap((submission.format() + "\n").getBytes(StandardCharsets.UTF_8)));
+                journal.force(false);
+            } catch (IOException e) {
+                System.err.println("Error writing review journal: " + e.getMessage());
+                return false;
+            }
+            pending.add(submission);
+            notifyAll();
+        }
+
+        cardStates.put(key(state), Optional.of(state));
+        trimCardStatesIfFull();
+        return true;
+    }
+
+    /**
+     * Get the latest known card state, loading it on first use
+     * @param loader Reads the state from the database (may return null for a new card)
+     * @return The state, or null if the user has never reviewed the question
+     */
+    public CardState getCardState(int userId, int questionId, Supplier<CardState> loader) {
+        CardState state = cardStates.computeIfAbsent(key(userId, questionId),
+                k -> Optional.ofNullable(loader.get())).orElse(null);
+        trimCardStatesIfFull();
+        return state;
+    }
+
+    /**
+     * Seed the in-memory state of a card without overriding a newer answer
+     * @param state Known state, or null if the card has never been reviewed
+     */
+    public void preloadCardState(int userId, int questionId, CardState state) {
+        cardStates.putIfAbsent(key(userId, questionId), Optional.ofNullable(state));
+        trimCardStatesIfFull();
+    }
+
+    /**
+     * Record a state that was written to the database directly
+     */
+    public void rememberState(CardState state) {
+        cardStates.put(key(state), Optional.of(state));
+        trimCardStatesIfFull();
+    }
+
+    /**
+     * Forget cached card states for a user, e.g. after their reviews were deleted
+     */
+    public void forgetUser(int userId) {
+        cardStates.keySet().removeIf(key -> (int) (key >>> 32) == userId);
+    }
+
+    /**
+     * Number of reviews journaled but not yet in the database
+     */
+    public synchronized int getPendingCount() {
+        return pending.size();
+    }
+
+    /**
+     * Wait until every queued review has been written
+     * @param timeoutMillis Maximum time to wait
+     * @return true if the queue drained, false on timeout
+     */
+    public synchronized boolean flush(long timeoutMillis) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+
+        while (!pending.isEmpty()) {
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            wait(remaining);
+        }
+        return true;
+    }
+
+    /**
+     * Try to write what's left, then stop the writer. Anything still unsaved
+     * stays in the journal for the next start.
+     */
+    public void shutdown(long timeoutMillis) {
+        try {
+            flush(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        running = false;
+        synchronized (this) {
+            notifyAll();
+        }
+
+        try {
+            writer.join(timeoutMillis);
+            synchronized (this) {
+                journal.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            System.err.println("Error closing review journal: " + e.getMessage());
+        }
+    }
+
+    private void writeLoop() {
+        while (running) {
+            List<Submission> batch = new ArrayList<>();
+
+            synchronized (this) {
+                while (running && pending.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                for (Submission submission : pending) {
+                    if (batch.size() == MAX_BATCH_SIZE) {
+                        break;
+                    }
+                    batch.add(submission);
+                }
+            }
+
+            if (batch.isEmpty()) {
+                continue;
+            }
+
+            int handled;
+            try {
+                handled = writeBatch(batch);
+            } catch (RuntimeException e) {
+                // Not an outage but a bug; back off and retry rather than let the writer die
+                System.err.println("Unexpected error writing review batch: " + e);
+                handled = 0;
+            }
+
+            if (handled > 0) {
+                // Before the batch leaves "pending", so flush() returns only after listeners ran
+                Set<Integer> userIds = new HashSet<>();
+                for (int i = 0; i < handled; i++) {
+                    userIds.add(batch.get(i).review.getUserId());
+                }
+                for (int userId : userIds) {
+                    try {
+                        commitListener.onCommitted(userId);
+                    } catch (RuntimeException e) {
+                        // The reviews are committed either way; don't write them again
+                        System.err.println("Error in review commit listener: " + e);
+                    }
+                }
+
+                synchronized (this) {
+                    for (int i = 0; i < handled; i++) {
+                        pending.removeFirst();
+                    }
+                    compactJournal();
+                    trimCardStates();
+                    notifyAll();
+                }
+            }
+            if (handled < batch.size()) {
+                // Database unavailable (or the write failed) - keep the rest (it's still journaled) and retry
+                try {
+                    Thread.sleep(RETRY_DELAY_MILLIS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Write a batch in one transaction. If a row breaks a constraint the
+     * batch is written again a row at a time, so only the bad rows are
+     * dead-lettered.
+     * @return Number of submissions from the front of the batch that were
+     *         written or dead-lettered; fewer than the batch size means the
+     *         database became unavailable
+     */
+    private int writeBatch(List<Submission> batch) {
+        List<Review> reviews = new ArrayList<>(batch.size());
+        List<CardState> states = new ArrayList<>(batch.size());
+        for (Submission submission : batch) {
+            reviews.add(submission.review);
+            states.add(submission.state);
+        }
+
+        try {
+            reviewDAO.insertBatchOrThrow(reviews, states);
+            return batch.size();
+        } catch (SQLException e) {
+            System.err.println("Error writing review batch: " + e.getMessage());
+            if (!isPermanent(e)) {
+                return 0;
+            }
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            Submission submission = batch.get(i);
+            try {
+                reviewDAO.insertBatchOrThrow(List.of(submission.review), List.of(submission.state));
+            } catch (SQLException e) {
+                if (!isPermanent(e) || !deadLetter(submission, e)) {
+                    return i;
+                }
+            }
+        }
+        return batch.size();
+    }
+
+    /**
+     * A constraint violation (class 23) or bad value (class 22) fails the
+     * same way on every retry. Connection errors (class 08) and anything
+     * else are treated as transient.
+     */
+    private static boolean isPermanent(SQLException e) {
+        for (SQLException next = e; next != null; next = next.getNextException()) {
+            String sqlState = next.getSQLState();
+            if (sqlState != null) {
+                return sqlState.startsWith("23") || sqlState.startsWith("22");
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Append a rejected submission to the dead-letter file, in journal
+     * format so it can be inspected or replayed by hand, and forget the card
+     * state it produced (the database never got it)
+     * @return false if the dead-letter file can't be written, so the
+     *         submission stays queued
+     */
+    private boolean deadLetter(Submission submission, SQLException e) {
+        try (FileChannel out = FileChannel.open(deadLetterPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            out.write(ByteBuffer.wrap((submission.format() + "\n").getBytes(StandardCharsets.UTF_8)));
+            out.force(false);
+        } catch (IOException ioe) {
+            System.err.println("Error writing rejected review to " + deadLetterPath + ": " + ioe.getMessage());
+            return false;
+        }
+
+        System.err.println("Review " + submission.review.getSubmissionId() + " rejected by the database " +
+                "(SQLState " + e.getSQLState() + "), moved to " + deadLetterPath);
+        cardStates.remove(key(submission.state), Optional.of(submission.state));
+        return true;
+    }
+
+    private void trimCardStatesIfFull() {
+        if (cardStates.size() > MAX_CACHED_STATES) {
+            synchronized (this) {
+                trimCardStates();
+            }
+        }
+    }
+
+    /**
+     * Once over MAX_CACHED_STATES, drop every cached state that isn't backed
+     * by a pending review; those are in the database and are reloaded on
+     * demand. Must hold "this".
+     */
+    private void trimCardStates() {
+        if (cardStates.size() <= MAX_CACHED_STATES) {
+            return;
+        }
+
+        Set<Long> pendingKeys = new HashSet<>();
+        for (Submission submission : pending) {
+            pendingKeys.add(key(submission.state));
+        }
+        cardStates.keySet().retainAll(pendingKeys);
+    }
+
+    /**
+     * Rewrite the journal with only the still-pending reviews.
+     * Written to a temp file and moved into place, so a crash mid-write
+     * leaves either the old or the new journal. Must hold "this".
+     */
+    private void compactJournal() {
+        Path temp = journalPath.resolveSibling(journalPath.getFileName() + ".tmp");
+
+        StringBuilder content = new StringBuilder();
+        for (Submission submission : pending) {
+            content.append(submission.format()).append('\n');
+        }
+
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                out.write(ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8)));
+                out.force(false);
+            }
+
+            journal.close();
+            Files.move(temp, journalPath, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // The old journal is still valid; replaying it is harmless thanks to submission IDs
+            System.err.println("Error compacting review journal: " + e.getMessage());
+        } finally {
+            try {
+                journal = openJournal();
+            } catch (IOException e) {
+                System.err.println("Error reopening review journal: " + e.getMessage());
+            }
+        }
+    }
+
+    private FileChannel openJournal() throws IOException {
+        return FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private static long key(CardState state) {
+        return key(state.getUserId(), state.getQuestionId());
+    }
+
+    private static long key(int userId, int questionId) {
+        return ((long) userId << 32) | (questionId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * One journaled answer: the review row plus the card state it produced
+     */
+    private static class Submission {
+        private final Review review;
+        private final CardState state;
+
+        Submission(Review review, CardState state) {
+            this.review = review;
+            this.state = state;
+        }
+
+        /**
+         * submissionId,questionId,userId,reviewedAt,wasCorrect,ease,interval,nextReviewDate,repetitions
+         */
+        String format() {
+            return review.getSubmissionId() + "," +
+                    review.getQuestionId() + "," +
+                    review.getUserId() + "," +
+                    review.getReviewedAt() + "," +
+                    review.isWasCorrect() + "," +
+                    review.getEaseFactor() + "," +
+                    review.getIntervalDays() + "," +
+                    review.getNextReviewDate() + "," +
+                    state.getRepetitions();
+        }
+
+        /**
+         * @return The submission, or null for a blank or torn (partly written) line
+         */
+        static Submission parse(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 9) {
+                return null;
+            }
+
+            try {
+                UUID submissionId = UUID.fromString(parts[0]);
+                int questionId = Integer.parseInt(parts[1]);
+                int userId = Integer.parseInt(parts[2]);
+                LocalDateTime reviewedAt = LocalDateTime.parse(parts[3]);
+                boolean wasCorrect = Boolean.parseBoolean(parts[4]);
+                float easeFactor = Float.parseFloat(parts[5]);
+                int intervalDays = Integer.parseInt(parts[6]);
+                LocalDate nextReviewDate = LocalDate.parse(parts[7]);
+                int repetitions = Integer.parseInt(parts[8]);
+
+                Review review = new Review(0, questionId, userId, reviewedAt, wasCorrect,
+                        easeFactor, intervalDays, nextReviewDate);
+                review.setSubmissionId(submissionId);
+
+                CardState state = new CardState(userId, questionId, easeFactor, intervalDays,
+                        repetitions, nextReviewDate, reviewedAt);
+                return new Submission(review, state);
+
+            } catch (RuntimeException e) {
+                System.err.println("Skipping unreadable journal entry: " + line);
+                return null;
+            }
+        }
+    }
+}
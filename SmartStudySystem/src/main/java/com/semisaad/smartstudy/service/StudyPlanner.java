@@ -0,0 +1,151 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.TopicDAO;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Due / new / total question counts for the study screen's topic picker.
+ *
+ * The counts of every topic are loaded for a user with one grouped query
+ * (TopicDAO.getAllWithCounts) and kept until the user's next answer is
+ * committed, so any selection of topic chips is answered from memory.
+ * Entries also expire at midnight, when more cards become due.
+ */
+public class StudyPlanner {
+
+    private final TopicDAO topicDAO;
+    private final Map<Integer, Plan> plans = new HashMap<>(); // Guarded by "this"
+
+    // Bumped by every invalidation, so a load that raced with one isn't
+    // cached (guarded by "this")
+    private final Map<Integer, Long> userInvalidations = new HashMap<>();
+    private long allInvalidations = 0;
+
+    public StudyPlanner() {
+        this(new TopicDAO());
+    }
+
+    public StudyPlanner(TopicDAO topicDAO) {
+        this.topicDAO = topicDAO;
+    }
+
+    /**
+     * Get counts for a set of topics
+     * @param userId The user ID
+     * @param topicIds Topics to include (empty = all topics)
+     * @return Summed counts (unknown topic IDs count as empty; all zero if
+     *         the counts couldn't be loaded)
+     */
+    public StudyCounts getCounts(int userId, Collection<Integer> topicIds) {
+        LocalDate today = LocalDate.now();
+        Plan plan;
+        long seenUserInvalidations;
+        long seenAllInvalidations;
+
+        synchronized (this) {
+            plan = plans.get(userId);
+            seenUserInvalidations = userInvalidations.getOrDefault(userId, 0L);
+            seenAllInvalidations = allInvalidations;
+        }
+
+        if (plan == null || !plan.day.equals(today)) {
+            // Loaded outside the lock; runs on ScreenLoader threads
+            List<TopicDAO.TopicCounts> topics = topicDAO.getAllWithCounts(userId);
+            if (topics == null) {
+                return new StudyCounts(0, 0, 0); // Not cached, so the next call retries
+            }
+            plan = new Plan(today, topics);
+
+            synchronized (this) {
+                if (seenUserInvalidations == userInvalidations.getOrDefault(userId, 0L)
+                        && seenAllInvalidations == allInvalidations) {
+                    plans.put(userId, plan);
+                }
+            }
+        }
+
+        if (topicIds.isEmpty()) {
+            return plan.all;
+        }
+
+        int due = 0;
+        int unreviewed = 0;
+        int total = 0;
+        for (int topicId : topicIds) {
+            TopicDAO.TopicCounts counts = plan.byTopic.get(topicId);
+            if (counts != null) {
+                due += counts.getDueCount();
+                unreviewed += counts.getNewCount();
+                total += counts.getQuestionCount();
+            }
+        }
+        return new StudyCounts(due, unreviewed, total);
+    }
+
+    /**
+     * Drop a user's cached counts, e.g. after one of their answers was committed
+     */
+    public synchronized void invalidate(int userId) {
+        plans.remove(userId);
+        userInvalidations.merge(userId, 1L, Long::sum);
+    }
+
+    /**
+     * Drop every user's cached counts, e.g. after questions were added,
+     * moved or deleted
+     */
+    public synchronized void invalidateAll() {
+        plans.clear();
+        allInvalidations++;
+    }
+
+    /**
+     * Immutable per-topic counts for one user on one day
+     */
+    private static class Plan {
+        private final LocalDate day;
+        private final Map<Integer, TopicDAO.TopicCounts> byTopic = new HashMap<>();
+        private final StudyCounts all;
+
+        Plan(LocalDate day, List<TopicDAO.TopicCounts> topics) {
+            this.day = day;
+
+            int due = 0;
+            int unreviewed = 0;
+            int total = 0;
+            for (TopicDAO.TopicCounts counts : topics) {
+                byTopic.put(counts.getTopic().getId(), counts);
+                due += counts.getDueCount();
+                unreviewed += counts.getNewCount();
+                total += counts.getQuestionCount();
+            }
+            this.all = new StudyCounts(due, unreviewed, total);
+        }
+    }
+
+    public static class StudyCounts {
+        private final int dueCount;
+        private final int newCount;
+        private final int totalCount;
+
+        public StudyCounts(int dueCount, int newCount, int totalCount) {
+            this.dueCount = dueCount;
+            this.newCount = newCount;
+            this.totalCount = totalCount;
+        }
+
+        public int getDueCount() { return dueCount; }
+        public int getNewCount() { return newCount; }
+        public int getTotalCount() { return totalCount; }
+
+        @Override
+        public String toString() {
+            return "StudyCounts{due=" + dueCount + ", new=" + newCount + ", total=" + totalCount + "}";
+        }
+    }
+}
@@ -1,43 +1,73 @@
 package com.semisaad.smartstudy.service;
 
+import com.semisaad.smartstudy.dao.CardStateDAO;
 import com.semisaad.smartstudy.dao.QuestionDAO;
 import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.model.CardState;
 import com.semisaad.smartstudy.model.Question;
 import com.semisaad.smartstudy.model.Review;
 import com.semisaad.smartstudy.service.SpacedRepetitionService.ReviewResult;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 public class StudySessionService {
 
     private final QuestionDAO questionDAO;
     private final ReviewDAO reviewDAO;
+    private final CardStateDAO cardStateDAO;
     private final SpacedRepetitionService spacedRepetitionService;
+    private PriorityPolicy priorityPolicy;
+    private final Map<Integer, StatsCounter> statsCache = new HashMap<>(); // Guarded by itself
+
+    // Bumped whenever a user's stats are dropped or an answer is counted, so
+    // a load that raced with either isn't cached (guarded by statsCache)
+    private final Map<Integer, Long> statsInvalidations = new HashMap<>();
+    private final StudyPlanner studyPlanner = new StudyPlanner();
+    private ReviewSubmissionQueue submissionQueue; // null until enableWriteBehind()
+
+    // How long shutdown() waits for queued answers before leaving them in the journal
+    private static final long SHUTDOWN_FLUSH_MILLIS = 3_000;
 
     public StudySessionService() {
         this.questionDAO = new QuestionDAO();
         this.reviewDAO = new ReviewDAO();
+        this.cardStateDAO = new CardStateDAO();
         this.spacedRepetitionService = new SpacedRepetitionService();
+        this.priorityPolicy = new DefaultPriorityPolicy();
     }
 
     /**
-     * Get questions due for review today, capped by the daily goal limit.
+     * Get all questions due for review today.
      */
     public List<Question> getDueQuestions(int userId) {
-        List<Integer> dueQuestionIds = reviewDAO.getDueQuestionIds(userId);
+        return getDueQuestions(userId, Collections.emptyList(), 0);
+    }
 
-        List<Question> dueQuestions = new ArrayList<>();
-        for (int questionId : dueQuestionIds) {
-            Question question = questionDAO.getById(questionId);
-            if (question != null) {
-                dueQuestions.add(question);
-            }
-        }
+    /**
+     * Get questions due for review today in the given topics (empty = all),
+     * most overdue first, capped at limit (0 = no cap, e.g. the daily goal).
+     */
+    public List<Question> getDueQuestions(int userId, Collection<Integer> topicIds, int limit) {
+        return getDueQuestions(userId, topicIds, Collections.emptyList(), limit);
+    }
 
-        return dueQuestions;
+    /**
+     * Same as above, leaving out question IDs already handled this session.
+     * They are excluded in the query, so they don't use up the limit.
+     */
+    public List<Question> getDueQuestions(int userId, Collection<Integer> topicIds,
+                                          Collection<Integer> excludeIds, int limit) {
+        return reviewDAO.getDueQuestions(userId, topicIds, excludeIds, limit);
     }
 
     /**
@@ -45,25 +75,16 @@ public class StudySessionService {
      * excluding any question IDs already handled this session.
      */
     public List<Question> getNewQuestions(int userId, int limit, List<Integer> excludeIds) {
-        List<Question> allQuestions = questionDAO.getAll();
-        List<Question> newQuestions = new ArrayList<>();
-
-        for (Question question : allQuestions) {
-            // Skip if already done this session
-            if (excludeIds.contains(question.getId())) {
-                continue;
-            }
-
-            Review latestReview = reviewDAO.getLatestReview(question.getId(), userId);
-            if (latestReview == null) {
-                newQuestions.add(question);
-                if (newQuestions.size() >= limit) {
-                    break;
-                }
-            }
-        }
+        return questionDAO.getUnreviewed(userId, Collections.emptyList(), excludeIds, limit, false);
+    }
 
-        return newQuestions;
+    /**
+     * Get a random sample of never-reviewed questions in the given topics
+     * (empty = all), excluding IDs already handled this session.
+     */
+    public List<Question> getNewQuestions(int userId, Collection<Integer> topicIds,
+                                          Collection<Integer> excludeIds, int limit) {
+        return questionDAO.getUnreviewed(userId, topicIds, excludeIds, limit, true);
     }
 
     /**
@@ -75,24 +96,150 @@ public class StudySessionService {
 
     /**
      * Submit answer, save review with correct SM-2 calculation.
+     * Scheduling state comes from card_state (one row), and the new review
+     * plus updated card state are written in a single transaction.
      */
     public boolean submitAnswer(int questionId, int userId, boolean wasCorrect) {
-        Review latestReview = reviewDAO.getLatestReview(questionId, userId);
+        CardState state = submissionQueue == null
+                ? loadCardState(questionId, userId)
+                // Pending queued answers are newer than what the database has
+                : submissionQueue.getCardState(userId, questionId, () -> loadCardState(questionId, userId));
+
+        ReviewResult result = calculate(wasCorrect, state);
+        Review newReview = buildReview(questionId, userId, wasCorrect, result);
+        CardState newState = buildCardState(newReview, result);
+
+        boolean saved = reviewDAO.insert(newReview, newState);
+        if (saved) {
+            if (submissionQueue != null) {
+                submissionQueue.rememberState(newState);
+            }
+            recordInStats(userId, wasCorrect, state);
+            studyPlanner.invalidate(userId);
+        }
+        return saved;
+    }
 
-        ReviewResult result;
+    /**
+     * Submit an answer without waiting for the database.
+     * The answer is scheduled from the in-memory card state, written to the
+     * local journal and saved in the background by the write-behind queue.
+     * Falls back to submitAnswer if write-behind isn't enabled.
+     * @return true once the answer is safely journaled (or saved)
+     */
+    public boolean queueAnswer(int questionId, int userId, boolean wasCorrect) {
+        if (submissionQueue == null) {
+            return submitAnswer(questionId, userId, wasCorrect);
+        }
 
-        if (latestReview == null) {
-            result = spacedRepetitionService.calculateFirstReview(wasCorrect);
-        } else {
-            result = spacedRepetitionService.calculateNextReview(
-                    wasCorrect,
-                    latestReview.getEaseFactor(),
-                    latestReview.getIntervalDays(),
-                    getRepetitionCount(questionId, userId)
-            );
+        CardState state = submissionQueue.getCardState(userId, questionId,
+                () -> loadCardState(questionId, userId));
+
+        ReviewResult result = calculate(wasCorrect, state);
+        Review newReview = buildReview(questionId, userId, wasCorrect, result);
+        CardState newState = buildCardState(newReview, result);
+
+        boolean queued = submissionQueue.submit(newReview, newState);
+        if (queued) {
+            // The study counts are dropped once the queue commits it (see enableWriteBehind)
+            recordInStats(userId, wasCorrect, state);
         }
+        return queued;
+    }
 
-        Review newReview = new Review(
+    /**
+     * Turn on write-behind for queueAnswer, replaying any answers left in the
+     * journal by a previous run
+     * @param journalPath Local journal file
+     * @throws IOException if the journal can't be opened
+     */
+    public void enableWriteBehind(Path journalPath) throws IOException {
+        if (submissionQueue == null) {
+            // Counts are dropped on commit, not on submit, so a reload in
+            // between can't cache numbers that miss the answer
+            submissionQueue = new ReviewSubmissionQueue(reviewDAO, journalPath, userId -> {
+                studyPlanner.invalidate(userId);
+                dropStats(userId);
+            });
+        }
+    }
+
+    /**
+     * Load the card states of upcoming questions in bulk, so answering them
+     * through queueAnswer doesn't touch the database. No-op without write-behind.
+     */
+    public void prefetchCardStates(int userId, Collection<Integer> questionIds) {
+        if (submissionQueue == null || questionIds.isEmpty()) {
+            return;
+        }
+
+        Map<Integer, CardState> states = cardStateDAO.getByQuestionIds(userId, questionIds);
+        List<Integer> missing = new ArrayList<>();
+        for (Integer questionId : questionIds) {
+            if (!states.containsKey(questionId)) {
+                missing.add(questionId);
+            }
+        }
+
+        // Questions without card_state are new, unless reviewed before card_state existed
+        Set<Integer> legacy = reviewDAO.getReviewedQuestionIds(userId, missing);
+        for (Integer questionId : missing) {
+            CardState state = legacy.contains(questionId) ? rebuildCardState(questionId, userId) : null;
+            submissionQueue.preloadCardState(userId, questionId, state);
+        }
+        for (CardState state : states.values()) {
+            submissionQueue.preloadCardState(userId, state.getQuestionId(), state);
+        }
+    }
+
+    /**
+     * Wait for queued answers to reach the database, e.g. before reading or
+     * deleting reviews directly
+     * @return true if everything was written within the timeout
+     */
+    public boolean flushPendingAnswers(long timeoutMillis) {
+        if (submissionQueue == null) {
+            return true;
+        }
+        try {
+            return submissionQueue.flush(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * Write (or leave journaled) any queued answers and stop the background writer
+     */
+    public void shutdown() {
+        if (submissionQueue != null) {
+            submissionQueue.shutdown(SHUTDOWN_FLUSH_MILLIS);
+        }
+    }
+
+    private CardState loadCardState(int questionId, int userId) {
+        CardState state = cardStateDAO.get(userId, questionId);
+        if (state == null) {
+            state = rebuildCardState(questionId, userId);
+        }
+        return state;
+    }
+
+    private ReviewResult calculate(boolean wasCorrect, CardState state) {
+        if (state == null) {
+            return spacedRepetitionService.calculateFirstReview(wasCorrect);
+        }
+        return spacedRepetitionService.calculateNextReview(
+                wasCorrect,
+                state.getEaseFactor(),
+                state.getIntervalDays(),
+                state.getRepetitions()
+        );
+    }
+
+    private Review buildReview(int questionId, int userId, boolean wasCorrect, ReviewResult result) {
+        return new Review(
                 questionId,
                 userId,
                 wasCorrect,
@@ -100,67 +247,160 @@ public class StudySessionService {
                 result.getIntervalDays(),
                 result.getNextReviewDate()
         );
+    }
+
+    private CardState buildCardState(Review review, ReviewResult result) {
+        return new CardState(
+                review.getUserId(),
+                review.getQuestionId(),
+                result.getEaseFactor(),
+                result.getIntervalDays(),
+                result.getRepetitions(),
+                result.getNextReviewDate(),
+                review.getReviewedAt()
+        );
+    }
+
+    /**
+     * Derive card state from review history for cards answered before
+     * card_state existed (or whose state was invalidated).
+     * Returns null if the user has never reviewed this question.
+     */
+    private CardState rebuildCardState(int questionId, int userId) {
+        Review latestReview = reviewDAO.getLatestReview(questionId, userId);
+        if (latestReview == null) {
+            return null;
+        }
 
-        return reviewDAO.insert(newReview);
+        return new CardState(
+                userId,
+                questionId,
+                latestReview.getEaseFactor(),
+                latestReview.getIntervalDays(),
+                reviewDAO.getConsecutiveCorrectCount(questionId, userId),
+                latestReview.getNextReviewDate(),
+                latestReview.getReviewedAt()
+        );
     }
 
     /**
-     * FIXED: Sort reviews by date descending before counting
-     * consecutive correct answers, so old wrong answers don't
-     * incorrectly reset the streak count.
+     * Get review totals and today's due count for a user.
+     * Computed with one aggregate query on first use (or on a new day),
+     * then kept up to date by submitAnswer without going back to the database.
+     * With write-behind, the cache is dropped whenever queued answers are
+     * committed. A failed load is returned as all zero but not cached.
      */
-    private int getRepetitionCount(int questionId, int userId) {
-        List<Review> reviews = reviewDAO.getByQuestionId(questionId);
+    public SessionStats getSessionStats(int userId) {
+        LocalDate today = LocalDate.now();
+        StatsCounter counter;
+        long seenInvalidations;
+
+        synchronized (statsCache) {
+            counter = statsCache.get(userId);
+            seenInvalidations = statsInvalidations.getOrDefault(userId, 0L);
+        }
 
-        // Sort most-recent first so we count the current streak correctly
-        reviews.sort(Comparator.comparing(
-                r -> r.getReviewedAt().toLocalDate(),
-                Comparator.reverseOrder()
-        ));
+        if (counter == null || !counter.day.equals(today)) {
+            ReviewDAO.ReviewTotals totals = reviewDAO.getReviewTotals(userId);
+            if (totals == null) {
+                return new SessionStats(0, 0, 0, 0.0);
+            }
+            counter = new StatsCounter(today, totals.getTotalReviews(),
+                    totals.getCorrectReviews(), totals.getDueQuestions());
 
-        int count = 0;
-        for (Review review : reviews) {
-            if (review.getUserId() == userId) {
-                if (review.isWasCorrect()) {
-                    count++;
-                } else {
-                    break; // Now correctly stops at most recent wrong answer
+            synchronized (statsCache) {
+                if (seenInvalidations == statsInvalidations.getOrDefault(userId, 0L)) {
+                    statsCache.put(userId, counter);
                 }
             }
         }
 
-        return count;
+        return counter.snapshot();
     }
 
-    public SessionStats getSessionStats(int userId) {
-        List<Review> userReviews = reviewDAO.getByUserId(userId);
-
-        int totalReviews = userReviews.size();
-        int correctCount = 0;
-        int dueToday = getDueQuestions(userId).size();
+    /**
+     * Drop cached stats and card states for a user, e.g. after reviews were
+     * deleted outside of submitAnswer
+     */
+    public void invalidateStats(int userId) {
+        dropStats(userId);
+        studyPlanner.invalidate(userId);
+        if (submissionQueue != null) {
+            submissionQueue.forgetUser(userId);
+        }
+    }
 
-        for (Review review : userReviews) {
-            if (review.isWasCorrect()) {
-                correctCount++;
-            }
+    private void dropStats(int userId) {
+        synchronized (statsCache) {
+            statsCache.remove(userId);
+            statsInvalidations.merge(userId, 1L, Long::sum);
         }
+    }
 
-        double successRate = totalReviews > 0 ? (correctCount * 100.0 / totalReviews) : 0.0;
+    /**
+     * Get due / new / total question counts for a topic selection (empty =
+     * all topics). Served from StudyPlanner's cache until the user's next answer
+     * reaches the database.
+     */
+    public StudyPlanner.StudyCounts getStudyCounts(int userId, Collection<Integer> topicIds) {
+        return studyPlanner.getCounts(userId, topicIds);
+    }
 
-        return new SessionStats(totalReviews, correctCount, dueToday, successRate);
+    /**
+     * Drop cached study counts for everyone, after questions or topics were
+     * added, moved or deleted
+     */
+    public void invalidateStudyCounts() {
+        studyPlanner.invalidateAll();
+    }
+
+    /**
+     * Apply one saved answer to the cached stats, if any
+     */
+    private void recordInStats(int userId, boolean wasCorrect, CardState previousState) {
+        LocalDate today = LocalDate.now();
+        boolean wasDue = previousState != null && !previousState.getNextReviewDate().isAfter(today);
+
+        synchronized (statsCache) {
+            // A load already running may have missed this answer
+            statsInvalidations.merge(userId, 1L, Long::sum);
+            statsCache.computeIfPresent(userId, (id, counter) -> {
+                if (!counter.day.equals(today)) {
+                    return null; // Stale - recompute on next read
+                }
+                // The new review date is always in the future, so a due card stops being due
+                return new StatsCounter(today,
+                        counter.total + 1,
+                        counter.correct + (wasCorrect ? 1 : 0),
+                        wasDue ? Math.max(0, counter.due - 1) : counter.due);
+            });
+        }
     }
 
     public List<Question> getDueQuestionsByTopic(int userId, int topicId) {
-        List<Question> allDueQuestions = getDueQuestions(userId);
-        List<Question> topicDueQuestions = new ArrayList<>();
+        return getDueQuestions(userId, Collections.singletonList(topicId), 0);
+    }
 
-        for (Question question : allDueQuestions) {
-            if (question.getTopicId() == topicId) {
-                topicDueQuestions.add(question);
-            }
+    /**
+     * Immutable cached counters for one user on one day
+     */
+    private static class StatsCounter {
+        private final LocalDate day;
+        private final int total;
+        private final int correct;
+        private final int due;
+
+        StatsCounter(LocalDate day, int total, int correct, int due) {
+            this.day = day;
+            this.total = total;
+            this.correct = correct;
+            this.due = due;
         }
 
-        return topicDueQuestions;
+        SessionStats snapshot() {
+            double successRate = total > 0 ? (correct * 100.0 / total) : 0.0;
+            return new SessionStats(total, correct, due, successRate);
+        }
     }
 
     public static class SessionStats {
@@ -192,36 +432,48 @@ public class StudySessionService {
         }
     }
 
+    /**
+     * Order questions by the current PriorityPolicy (lowest score first).
+     * Latest reviews are fetched in one query and each question is scored
+     * once, then sorted on the precomputed keys. Sorts the given list in place.
+     */
     public List<Question> getPrioritizedQuestions(int userId, List<Question> questions) {
-        questions.sort((q1, q2) -> {
-            int score1 = getQuestionPriority(q1.getId(), userId);
-            int score2 = getQuestionPriority(q2.getId(), userId);
-            return Integer.compare(score1, score2);
-        });
-        return questions;
-    }
-
-    private int getQuestionPriority(int questionId, int userId) {
-        Review latest = reviewDAO.getLatestReview(questionId, userId);
-
-        if (latest == null) {
-            return 50; // New question — medium priority
+        int n = questions.size();
+        if (n < 2) {
+            return questions;
         }
 
-        if (!latest.isWasCorrect()) {
-            return 10; // Got wrong last time — show first
+        List<Integer> questionIds = new ArrayList<>(n);
+        for (Question question : questions) {
+            questionIds.add(question.getId());
         }
+        Map<Integer, Review> latestReviews = reviewDAO.getLatestReviews(userId, questionIds);
+
+        // Pack (score, original index) into one long so a primitive sort is
+        // both fast and stable
+        LocalDate today = LocalDate.now();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            int score = priorityPolicy.score(latestReviews.get(questions.get(i).getId()), today);
+            keys[i] = ((long) score << 32) | i;
+        }
+        Arrays.sort(keys);
 
-        int easePriority = (int)(latest.getEaseFactor() * 10);
+        List<Question> sorted = new ArrayList<>(n);
+        for (long key : keys) {
+            sorted.add(questions.get((int) key));
+        }
 
-        long daysOverdue = java.time.temporal.ChronoUnit.DAYS.between(
-                latest.getNextReviewDate(), LocalDate.now()
-        );
+        questions.clear();
+        questions.addAll(sorted);
+        return questions;
+    }
 
-        if (daysOverdue > 0) {
-            return Math.max(10, easePriority - (int) daysOverdue * 5);
-        }
+    public PriorityPolicy getPriorityPolicy() {
+        return priorityPolicy;
+    }
 
-        return easePriority;
+    public void setPriorityPolicy(PriorityPolicy priorityPolicy) {
+        this.priorityPolicy = priorityPolicy;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,571 @@
+package com.semisaad.smartstudy.service;
+
+import com.semisaad.smartstudy.dao.QuestionDAO;
+import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
+import com.semisaad.smartstudy.dao.UserDAO;
+import com.semisaad.smartstudy.dao.UserSettingsDAO;
+import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.database.SchemaMigrator;
+import com.semisaad.smartstudy.model.CardState;
+import com.semisaad.smartstudy.model.Question;
+import com.semisaad.smartstudy.model.Review;
+import com.semisaad.smartstudy.model.User;
+import com.semisaad.smartstudy.model.UserSettings;
+import com.semisaad.smartstudy.service.SpacedRepetitionService.ReviewResult;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Fills the database with realistic fake data for load testing:
+ * users with settings, topics, questions and years of review history.
+ *
+ * - Topic sizes follow a Zipf distribution (a few huge topics, a long tail
+ *   of small ones), and so does how often users pick each topic.
+ * - Users sign up over the whole history window (more of them recently),
+ *   study on a share of days, and some stop using the app.
+ * - On each study day a user answers due cards (most overdue first) and
+ *   then some new ones. Every answer goes through SpacedRepetitionService,
+ *   so ease factors, intervals and card_state match what the app would
+ *   have written. Harder and overdue cards are answered wrong more often.
+ *
+ * The output depends only on the Settings (including the seed and end
+ * date): each user is simulated with its own Random derived from the seed.
+ * Rows are written in batches (COPY for questions, JDBC batches otherwise).
+ * Names include the seed, so running the same seed twice fails on the
+ * unique usernames instead of duplicating data.
+ */
+public class SyntheticDataGenerator {
+
+    /**
+     * Called on the generating thread as work completes
+     */
+    public interface ProgressListener {
+        void onProgress(String stage, int done, int total);
+    }
+
+    private static final String[] SUBJECTS = {
+            "Biology", "Chemistry", "Physics", "Mathematics", "History", "Geography",
+            "Literature", "Economics", "Psychology", "Computer Science", "Spanish", "French",
+            "German", "Philosophy", "Statistics", "Anatomy", "Music Theory", "Art History"
+    };
+    private static final String[] DIFFICULTIES = {"EASY", "MEDIUM", "HARD"};
+    private static final double[] DIFFICULTY_CUMULATIVE = cumulative(new double[]{0.3, 0.5, 0.2});
+    private static final double[] DIFFICULTY_CORRECT_RATE = {0.93, 0.86, 0.76};
+    private static final int[] DAILY_GOALS = {5, 10, 10, 10, 15, 20, 20, 30, 50};
+    private static final String[] NOTIFICATION_TIMES = {"07:00", "08:00", "09:00", "12:30", "18:00", "20:00", "21:30"};
+
+    private static final double CHURN_RATE = 0.35;          // Share of users who stop at some point
+    private static final int MAX_REVIEWS_PER_GOAL = 3;      // Due cards answered per day, as a multiple of the goal
+    private static final int USER_BATCH_SIZE = 1_000;
+
+    private final UserDAO userDAO;
+    private final UserSettingsDAO userSettingsDAO;
+    private final TopicDAO topicDAO;
+    private final QuestionDAO questionDAO;
+    private final ReviewDAO reviewDAO;
+    private final SpacedRepetitionService sm2 = new SpacedRepetitionService();
+
+    public SyntheticDataGenerator() {
+        this(new UserDAO(), new UserSettingsDAO(), new TopicDAO(), new QuestionDAO(), new ReviewDAO());
+    }
+
+    public SyntheticDataGenerator(UserDAO userDAO, UserSettingsDAO userSettingsDAO, TopicDAO topicDAO,
+                                  QuestionDAO questionDAO, ReviewDAO reviewDAO) {
+        this.userDAO = userDAO;
+        this.userSettingsDAO = userSettingsDAO;
+        this.topicDAO = topicDAO;
+        this.questionDAO = questionDAO;
+        this.reviewDAO = reviewDAO;
+    }
+
+    /**
+     * Generate and load a full data set
+     * @param listener Progress callback, may be null
+     * @return Number of rows written per table
+     * @throws IllegalStateException if a batch fails to load
+     */
+    public GenerationResult generate(Settings settings, ProgressListener listener) {
+        if (userDAO.getByUsername("sim" + settings.seed + "_0") != null) {
+            throw new IllegalStateException("Seed " + settings.seed + " was already generated");
+        }
+
+        Random random = new Random(settings.seed);
+        ProgressListener progress = listener != null ? listener : (stage, done, total) -> { };
+
+        double[] topicWeights = zipfWeights(settings.topics, settings.zipfExponent);
+        Deck[] decks = generateQuestions(settings, random, topicWeights, progress);
+        List<UserSettings> userSettings = new ArrayList<>(settings.users);
+        List<User> users = generateUsers(settings, random, userSettings, progress);
+
+        // Topic popularity follows the same Zipf curve as topic size
+        double[] topicCumulative = cumulative(topicWeights);
+        ReviewWriter writer = new ReviewWriter(settings.batchSize);
+
+        for (int i = 0; i < users.size(); i++) {
+            Random userRandom = new Random(settings.seed ^ (0x9E3779B97F4A7C15L * (i + 1)));
+            simulateUser(users.get(i), userSettings.get(i), userRandom, settings, decks, topicCumulative, writer);
+            progress.onProgress("reviews", i + 1, users.size());
+        }
+        writer.flush();
+
+        int questionCount = 0;
+        for (Deck deck : decks) {
+            questionCount += deck.questionIds.length;
+        }
+        return new GenerationResult(users.size(), decks.length, questionCount, writer.written);
+    }
+
+    // ==================== TOPICS AND QUESTIONS ====================
+
+    /**
+     * Questions of one topic, loaded back with their database IDs
+     */
+    private static class Deck {
+        private final int[] questionIds;
+        private final byte[] difficulties; // Index into DIFFICULTIES
+
+        Deck(int[] questionIds, byte[] difficulties) {
+            this.questionIds = questionIds;
+            this.difficulties = difficulties;
+        }
+    }
+
+    private Deck[] generateQuestions(Settings settings, Random random, double[] topicWeights,
+                                     ProgressListener progress) {
+        List<String> names = new ArrayList<>(settings.topics);
+        for (int i = 0; i < settings.topics; i++) {
+            names.add("S" + settings.seed + " " + SUBJECTS[i % SUBJECTS.length] + " " + (i / SUBJECTS.length + 1));
+        }
+        Map<String, Integer> topicIds = topicDAO.resolveIds(names);
+        if (topicIds.size() != names.size()) {
+            throw new IllegalStateException("Could not create topics");
+        }
+
+        double totalWeight = 0;
+        for (double weight : topicWeights) {
+            totalWeight += weight;
+        }
+
+        Deck[] decks = new Deck[settings.topics];
+        List<Question> batch = new ArrayList<>(settings.batchSize);
+
+        for (int t = 0; t < settings.topics; t++) {
+            String name = names.get(t);
+            int topicId = topicIds.get(name);
+            int size = Math.max(1, (int) Math.round(settings.questions * topicWeights[t] / totalWeight));
+
+            for (int q = 0; q < size; q++) {
+                String difficulty = DIFFICULTIES[pick(random, DIFFICULTY_CUMULATIVE)];
+                batch.add(new Question("Question " + (q + 1) + " about " + name + ": what is fact " + random.nextInt(100_000) + "?",
+                        "Answer " + (q + 1) + " for " + name, topicId, difficulty));
+                if (batch.size() >= settings.batchSize) {
+                    insertQuestions(batch);
+                }
+            }
+            progress.onProgress("questions", t + 1, settings.topics);
+        }
+        insertQuestions(batch);
+
+        // bulkInsert doesn't return IDs, so read the decks back (in ID order)
+        for (int t = 0; t < settings.topics; t++) {
+            List<Question> questions = questionDAO.getByTopicId(topicIds.get(names.get(t)));
+            questions.sort((a, b) -> Integer.compare(a.getId(), b.getId()));
+
+            int[] ids = new int[questions.size()];
+            byte[] difficulties = new byte[questions.size()];
+            for (int i = 0; i < ids.length; i++) {
+                ids[i] = questions.get(i).getId();
+                difficulties[i] = (byte) Math.max(0, Arrays.asList(DIFFICULTIES).indexOf(questions.get(i).getDifficulty()));
+            }
+            decks[t] = new Deck(ids, difficulties);
+        }
+        return decks;
+    }
+
+    private void insertQuestions(List<Question> batch) {
+        if (!batch.isEmpty() && questionDAO.bulkInsert(batch) != batch.size()) {
+            throw new IllegalStateException("Could not insert a batch of " + batch.size() + " questions");
+        }
+        batch.clear();
+    }
+
+    // ==================== USERS ====================
+
+    /**
+     * Create and insert the users, adding each one's settings to userSettings (same order)
+     */
+    private List<User> generateUsers(Settings settings, Random random, List<UserSettings> userSettings,
+                                     ProgressListener progress) {
+        LocalDate firstDay = settings.endDate.minusDays(settings.historyDays);
+        List<User> users = new ArrayList<>(settings.users);
+
+        for (int i = 0; i < settings.users; i++) {
+            String name = "sim" + settings.seed + "_" + i;
+            User user = new User(name, name + "@example.com");
+
+            // sqrt skews signups towards the end of the window (a growing app)
+            long signupDay = (long) (settings.historyDays * Math.sqrt(random.nextDouble()));
+            user.setCreatedAt(firstDay.plusDays(signupDay).atTime(random.nextInt(24), random.nextInt(60)));
+            users.add(user);
+
+            UserSettings prefs = new UserSettings(0, DAILY_GOALS[random.nextInt(DAILY_GOALS.length)],
+                    random.nextDouble() < 0.7, random.nextDouble() < 0.3 ? "dark" : "light",
+                    NOTIFICATION_TIMES[random.nextInt(NOTIFICATION_TIMES.length)]);
+            prefs.setCreatedAt(user.getCreatedAt());
+            prefs.setUpdatedAt(user.getCreatedAt());
+            userSettings.add(prefs);
+        }
+
+        for (int from = 0; from < users.size(); from += USER_BATCH_SIZE) {
+            int to = Math.min(from + USER_BATCH_SIZE, users.size());
+            if (!userDAO.insertBatch(users.subList(from, to))) {
+                throw new IllegalStateException("Could not insert users (seed already generated?)");
+            }
+
+            for (int i = from; i < to; i++) {
+                userSettings.get(i).setUserId(users.get(i).getId());
+            }
+            if (!userSettingsDAO.insertBatch(userSettings.subList(from, to))) {
+                throw new IllegalStateException("Could not insert user settings");
+            }
+            progress.onProgress("users", to, users.size());
+        }
+        return users;
+    }
+
+    // ==================== REVIEW HISTORY ====================
+
+    /**
+     * One card a user has started learning
+     */
+    private static class Card {
+        private final int userId;
+        private final int questionId;
+        private final byte difficulty;
+        private float easeFactor;
+        private int intervalDays;
+        private int repetitions;
+        private long nextReviewDay; // Epoch day
+        private LocalDateTime lastReviewedAt;
+
+        Card(int userId, int questionId, byte difficulty) {
+            this.userId = userId;
+            this.questionId = questionId;
+            this.difficulty = difficulty;
+        }
+
+        CardState toState() {
+            return new CardState(userId, questionId, easeFactor, intervalDays, repetitions,
+                    LocalDate.ofEpochDay(nextReviewDay), lastReviewedAt);
+        }
+    }
+
+    private void simulateUser(User user, UserSettings prefs, Random random, Settings settings, Deck[] decks,
+                              double[] topicCumulative, ReviewWriter writer) {
+        int dailyGoal = prefs.getDailyGoal();
+        int studyHour = Integer.parseInt(prefs.getNotificationTime().substring(0, 2));
+
+        // Personal traits
+        double skill = (random.nextDouble() - 0.5) * 0.2;       // +-10% correct rate
+        double activity = 0.25 + random.nextDouble() * 0.7;      // Share of days studied
+        long startDay = user.getCreatedAt().toLocalDate().toEpochDay();
+        long endDay = settings.endDate.toEpochDay();
+        if (random.nextDouble() < CHURN_RATE) {
+            endDay = startDay + (long) ((endDay - startDay) * random.nextDouble());
+        }
+
+        // New cards come from 1-4 topics, picked by popularity, in random order
+        List<long[]> pool = new ArrayList<>(); // {deck index, question index}
+        Set<Integer> chosenTopics = new LinkedHashSet<>();
+        int topicCount = 1 + random.nextInt(4);
+        for (int attempt = 0; attempt < topicCount * 4 && chosenTopics.size() < topicCount; attempt++) {
+            chosenTopics.add(pick(random, topicCumulative));
+        }
+        for (int topic : chosenTopics) {
+            for (int q = 0; q < decks[topic].questionIds.length; q++) {
+                pool.add(new long[]{topic, q});
+            }
+        }
+        Collections.shuffle(pool, random);
+
+        PriorityQueue<Card> due = new PriorityQueue<>((a, b) -> Long.compare(a.nextReviewDay, b.nextReviewDay));
+        int nextNew = 0;
+
+        for (long day = startDay; day <= endDay; day++) {
+            if (random.nextDouble() >= activity) {
+                continue;
+            }
+
+            LocalDate date = LocalDate.ofEpochDay(day);
+            LocalDateTime time = date.atTime(Math.min(23, Math.max(0, studyHour + random.nextInt(3) - 1)),
+                    random.nextInt(60), random.nextInt(60));
+            List<Card> answered = new ArrayList<>();
+
+            // Due cards, most overdue first
+            int reviewLimit = dailyGoal * MAX_REVIEWS_PER_GOAL;
+            while (answered.size() < reviewLimit && !due.isEmpty() && due.peek().nextReviewDay <= day) {
+                Card card = due.poll();
+                time = answer(card, day, time, skill, random, writer);
+                answered.add(card);
+            }
+
+            // Then new cards, up to about half the goal
+            int newLimit = Math.max(1, dailyGoal / 2);
+            for (int n = 0; n < newLimit && nextNew < pool.size(); n++) {
+                long[] ref = pool.get(nextNew++);
+                Deck deck = decks[(int) ref[0]];
+                Card card = new Card(user.getId(), deck.questionIds[(int) ref[1]], deck.difficulties[(int) ref[1]]);
+                time = answer(card, day, time, skill, random, writer);
+                answered.add(card);
+            }
+
+            due.addAll(answered);
+        }
+    }
+
+    /**
+     * Answer one card on the given day and record the review
+     * @return The time of the next answer in this session
+     */
+    private LocalDateTime answer(Card card, long day, LocalDateTime time, double skill,
+                                 Random random, ReviewWriter writer) {
+        double correctRate = DIFFICULTY_CORRECT_RATE[card.difficulty] + skill;
+        if (card.lastReviewedAt != null) {
+            // Forgetting: the longer past due relative to the interval, the worse
+            long overdue = day - card.nextReviewDay;
+            correctRate -= Math.min(0.2, 0.1 * overdue / (card.intervalDays + 1.0));
+        }
+        boolean correct = random.nextDouble() < correctRate;
+
+        ReviewResult result = card.lastReviewedAt == null
+                ? sm2.calculateFirstReview(correct)
+                : sm2.calculateNextReview(correct, card.easeFactor, card.intervalDays, card.repetitions);
+
+        card.easeFactor = result.getEaseFactor();
+        card.intervalDays = result.getIntervalDays();
+        card.repetitions = result.getRepetitions();
+        card.nextReviewDay = day + result.getIntervalDays();
+        card.lastReviewedAt = time;
+
+        Review review = new Review(card.questionId, card.userId, correct, card.easeFactor, card.intervalDays,
+                LocalDate.ofEpochDay(card.nextReviewDay));
+        review.setReviewedAt(time);
+        writer.add(review, card);
+
+        // 5-40 seconds per answer, without spilling into the next day
+        LocalDateTime next = time.plusSeconds(5 + random.nextInt(36));
+        return next.toLocalDate().toEpochDay() == day ? next : time;
+    }
+
+    /**
+     * Buffers reviews and writes them with ReviewDAO.insertBatch, along
+     * with the current state of every card touched since the last write
+     */
+    private class ReviewWriter {
+        private final int batchSize;
+        private final List<Review> reviews;
+        private final Set<Card> touched = new LinkedHashSet<>(); // Cards compare by identity
+        private long written = 0;
+
+        ReviewWriter(int batchSize) {
+            this.batchSize = batchSize;
+            this.reviews = new ArrayList<>(batchSize);
+        }
+
+        void add(Review review, Card card) {
+            reviews.add(review);
+            touched.add(card);
+            if (reviews.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        void flush() {
+            if (reviews.isEmpty()) {
+                return;
+            }
+
+            List<CardState> states = new ArrayList<>(touched.size());
+            for (Card card : touched) {
+                states.add(card.toState());
+            }
+            if (!reviewDAO.insertBatch(reviews, states)) {
+                throw new IllegalStateException("Could not insert a batch of " + reviews.size() + " reviews");
+            }
+
+            written += reviews.size();
+            reviews.clear();
+            touched.clear();
+        }
+    }
+
+    // ==================== DISTRIBUTIONS ====================
+
+    /**
+     * Zipf weights 1/rank^exponent for ranks 1..n
+     */
+    private static double[] zipfWeights(int n, double exponent) {
+        double[] weights = new double[n];
+        for (int i = 0; i < n; i++) {
+            weights[i] = 1.0 / Math.pow(i + 1, exponent);
+        }
+        return weights;
+    }
+
+    private static double[] cumulative(double[] weights) {
+        double[] sums = new double[weights.length];
+        double total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += weights[i];
+            sums[i] = total;
+        }
+        return sums;
+    }
+
+    /**
+     * Pick an index with probability proportional to its weight, given the
+     * running totals of the weights
+     */
+    private static int pick(Random random, double[] cumulative) {
+        double target = random.nextDouble() * cumulative[cumulative.length - 1];
+        int index = Arrays.binarySearch(cumulative, target);
+        return index >= 0 ? index : Math.min(-index - 1, cumulative.length - 1);
+    }
+
+    /**
+     * What to generate. The defaults (2,000 users, three years) come to
+     * roughly 20 million reviews; review volume scales with users and days.
+     */
+    public static class Settings {
+        private long seed = 42;
+        private int users = 2_000;
+        private int topics = 200;
+        private int questions = 50_000;
+        private double zipfExponent = 1.0;
+        private int historyDays = 3 * 365;
+        private LocalDate endDate = LocalDate.now();
+        private int batchSize = 10_000;
+
+        public Settings seed(long seed) {
+            this.seed = seed;
+            return this;
+        }
+
+        public Settings users(int users) {
+            this.users = users;
+            return this;
+        }
+
+        public Settings topics(int topics) {
+            this.topics = topics;
+            return this;
+        }
+
+        public Settings questions(int questions) {
+            this.questions = questions;
+            return this;
+        }
+
+        public Settings zipfExponent(double zipfExponent) {
+            this.zipfExponent = zipfExponent;
+            return this;
+        }
+
+        public Settings historyDays(int historyDays) {
+            this.historyDays = historyDays;
+            return this;
+        }
+
+        /**
+         * Last day of generated history; fix it to make runs on different days identical
+         */
+        public Settings endDate(LocalDate endDate) {
+            this.endDate = endDate;
+            return this;
+        }
+
+        public Settings batchSize(int batchSize) {
+            this.batchSize = batchSize;
+            return this;
+        }
+    }
+
+    /**
+     * Rows written by a finished run
+     */
+    public static class GenerationResult {
+        private final int users;
+        private final int topics;
+        private final int questions;
+        private final long reviews;
+
+        public GenerationResult(int users, int topics, int questions, long reviews) {
+            this.users = users;
+            this.topics = topics;
+            this.questions = questions;
+            this.reviews = reviews;
+        }
+
+        public int getUsers() { return users; }
+        public int getTopics() { return topics; }
+        public int getQuestions() { return questions; }
+        public long getReviews() { return reviews; }
+
+        @Override
+        public String toString() {
+            return "GenerationResult{" +
+                    "users=" + users +
+                    ", topics=" + topics +
+                    ", questions=" + questions +
+                    ", reviews=" + reviews +
+                    '}';
+        }
+    }
+
+    /**
+     * Command line entry point. Arguments are optional name=value pairs:
+     * seed, users, topics, questions, days, end (yyyy-mm-dd), e.g.
+     *   java ... SyntheticDataGenerator seed=7 users=5000 days=730
+     * Point it at a scratch database with -Dsmartstudy.db.url=...
+     */
+    public static void main(String[] args) throws SQLException {
+        Settings settings = new Settings();
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            String value = pair.length > 1 ? pair[1] : "";
+            switch (pair[0]) {
+                case "seed" -> settings.seed(Long.parseLong(value));
+                case "users" -> settings.users(Integer.parseInt(value));
+                case "topics" -> settings.topics(Integer.parseInt(value));
+                case "questions" -> settings.questions(Integer.parseInt(value));
+                case "days" -> settings.historyDays(Integer.parseInt(value));
+                case "end" -> settings.endDate(LocalDate.parse(value));
+                default -> throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+
+        SchemaMigrator.migrate();
+        long start = System.currentTimeMillis();
+
+        GenerationResult result = new SyntheticDataGenerator().generate(settings, (stage, done, total) -> {
+            if (done == total || done % Math.max(1, total / 20) == 0) {
+                System.out.println(stage + ": " + done + "/" + total);
+            }
+        });
+
+        System.out.println(result + " in " + (System.currentTimeMillis() - start) / 1000 + "s");
+        DatabaseConnection.shutdown();
+    }
+}
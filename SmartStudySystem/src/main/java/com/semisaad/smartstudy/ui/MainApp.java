@@ -1,6 +1,9 @@
 package com.semisaad.smartstudy.ui;
 
+import javafx.animation.PauseTransition;
 import javafx.application.Application;
+import javafx.application.Platform;
+import javafx.event.Event;
 import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Scene;
@@ -8,35 +11,59 @@ import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import javafx.stage.Modality;
-
+import javafx.util.Duration;
+
+import com.semisaad.smartstudy.database.DaoMetrics;
+import com.semisaad.smartstudy.database.DatabaseConnection;
+import com.semisaad.smartstudy.database.SchemaMigrator;
+import com.semisaad.smartstudy.service.DataExporter;
+import com.semisaad.smartstudy.service.QuestionImporter;
+import com.semisaad.smartstudy.service.StudyPlanner;
 import com.semisaad.smartstudy.service.StudySessionService;
-import com.semisaad.smartstudy.dao.TopicDAO;
+import com.semisaad.smartstudy.dao.CachingTopicDAO;
+import com.semisaad.smartstudy.dao.CachingQuestionDAO;
 import com.semisaad.smartstudy.dao.QuestionDAO;
 import com.semisaad.smartstudy.dao.UserDAO;
 import com.semisaad.smartstudy.dao.ReviewDAO;
+import com.semisaad.smartstudy.dao.TopicDAO;
 import com.semisaad.smartstudy.model.Review;
 import com.semisaad.smartstudy.model.Topic;
 import com.semisaad.smartstudy.model.Question;
-
+import com.semisaad.smartstudy.model.User;
+import com.semisaad.smartstudy.util.ErrorHandler;
+import com.semisaad.smartstudy.util.QuestionSearchIndex;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Map;
 import java.util.Collections;
 import java.util.Set;
 
 public class MainApp extends Application {
 
     private VBox sidebar;
+    // Bumped by each refreshSidebar() so a slower, older refresh is dropped (FX thread only)
+    private long sidebarGeneration = 0;
     private Button activeNavButton;
     private BorderPane mainLayout;
     private StackPane contentArea;
+    private ScreenLoader screenLoader;
     private StudySessionService studyService;
-    private TopicDAO topicDAO;
-    private QuestionDAO questionDAO;
+    private CachingTopicDAO topicDAO;
+    private CachingQuestionDAO questionDAO;
     private ReviewDAO reviewDAO;
     private UserDAO userDAO;
     private int currentUserId = 1;
@@ -48,12 +75,50 @@ public class MainApp extends Application {
     private boolean dailyRemindersEnabled = true;
     private boolean sessionNeedsReload = true;
     private Set<Integer> selectedTopicIds = new HashSet<>(); // empty = all topics
+    private long sessionStatsRequest = 0;
+    private long questionSearchRequest = 0;
+
+    // Local journal for answers not yet written to the database
+    private static final String REVIEW_JOURNAL_FILE = "review_journal.txt";
+
+    // Per-DAO-method query metrics, rewritten every minute
+    private static final String DAO_METRICS_FILE = "dao_metrics.txt";
+    private static final long DAO_METRICS_DUMP_SECONDS = 60;
+
+    // Quiet period after the last keystroke before the question list is filtered
+    private static final long SEARCH_DEBOUNCE_MILLIS = 150;
+
+    // Above this many questions, search runs in the database instead of in memory
+    private static final int IN_MEMORY_SEARCH_MAX_QUESTIONS = 50_000;
+    private static final int QUESTION_SEARCH_PAGE_SIZE = 200;
+
+    // Questions listed under Recent Activity on the dashboard
+    private static final int RECENT_ACTIVITY_ROWS = 5;
+
+    // Fixed row heights let the virtualized lists skip measuring every cell
+    private static final double QUESTION_ROW_HEIGHT = 76;
+    private static final double ACTIVITY_ROW_HEIGHT = 58;
 
     @Override
     public void start(Stage primaryStage) {
+        try {
+            SchemaMigrator.migrate();
+        } catch (SQLException e) {
+            ErrorHandler.showError("Database Error", "Could not update the database schema", e);
+        }
+
         studyService = new StudySessionService();
-        topicDAO = new TopicDAO();
-        questionDAO = new QuestionDAO();
+        try {
+            studyService.enableWriteBehind(Paths.get(REVIEW_JOURNAL_FILE));
+        } catch (IOException e) {
+            // Answers are still saved, just synchronously
+            System.err.println("Review journal unavailable: " + e.getMessage());
+        }
+        if (DaoMetrics.isEnabled()) {
+            DaoMetrics.startPeriodicDump(Paths.get(DAO_METRICS_FILE), DAO_METRICS_DUMP_SECONDS);
+        }
+        topicDAO = new CachingTopicDAO();
+        questionDAO = new CachingQuestionDAO();
         reviewDAO = new ReviewDAO();
         userDAO = new UserDAO();
 
@@ -62,10 +127,12 @@ public class MainApp extends Application {
 
         sidebar = createSidebar();
         mainLayout.setLeft(sidebar);
+        refreshSidebar();
 
         contentArea = new StackPane();
         contentArea.getStyleClass().add("content-area");
         mainLayout.setCenter(contentArea);
+        screenLoader = new ScreenLoader(contentArea);
 
         showDashboard();
 
@@ -83,6 +150,18 @@ public class MainApp extends Application {
         primaryStage.show();
     }
 
+    @Override
+    public void stop() {
+        if (screenLoader != null) {
+            screenLoader.shutdown();
+        }
+        if (studyService != null) {
+            studyService.shutdown();
+        }
+        DaoMetrics.stopPeriodicDump();
+        DatabaseConnection.shutdown();
+    }
+
     private Font getEmojiFont(double size) {
         String[] emojiFonts = {
                 "Segoe UI Emoji",
@@ -100,13 +179,12 @@ public class MainApp extends Application {
         return Font.font(size);
     }
 
-    private int getUniqueReviewedCount() {
-        List<Review> allReviews = reviewDAO.getByUserId(currentUserId);
-        Set<Integer> uniqueQuestionIds = new HashSet<>();
-        for (Review review : allReviews) {
-            uniqueQuestionIds.add(review.getQuestionId());
-        }
-        return uniqueQuestionIds.size();
+    /**
+     * Replace the main content area, dropping any screen still loading
+     */
+    private void setContent(javafx.scene.Node content) {
+        screenLoader.cancel();
+        contentArea.getChildren().setAll(content);
     }
 
     private VBox createSidebar() {
@@ -133,7 +211,7 @@ public class MainApp extends Application {
 
         brandBox.getChildren().addAll(brandIcon, brandName);
 
-        VBox storageCard = createStorageCard();
+        VBox storageCard = createStorageCard(0, 0);
 
         VBox navMenu = new VBox(6);
         navMenu.setPadding(new Insets(20, 0, 0, 0));
@@ -191,7 +269,7 @@ public class MainApp extends Application {
         return sidebar;
     }
 
-    private VBox createStorageCard() {
+    private VBox createStorageCard(int reviewedQuestions, int totalQuestions) {
         VBox storageCard = new VBox(12);
         storageCard.setPadding(new Insets(20));
         storageCard.setStyle(
@@ -203,9 +281,6 @@ public class MainApp extends Application {
         Label storageLabel = new Label("Study Progress");
         storageLabel.setStyle("-fx-text-fill: rgba(255,255,255,0.9); -fx-font-size: 13px;");
 
-        int totalQuestions = questionDAO.getCount();
-        int reviewedQuestions = getUniqueReviewedCount();
-
         Label storageText = new Label(reviewedQuestions + " / " + totalQuestions);
         storageText.setFont(Font.font("System", FontWeight.BOLD, 24));
         storageText.setStyle("-fx-text-fill: white;");
@@ -228,11 +303,26 @@ public class MainApp extends Application {
         return storageCard;
     }
 
+    /**
+     * Reload the sidebar's progress card in the background
+     */
     private void refreshSidebar() {
-        VBox newStorageCard = createStorageCard();
-        if (sidebar.getChildren().size() > 1) {
-            sidebar.getChildren().set(1, newStorageCard);
-        }
+        int userId = currentUserId;
+        long myGeneration = ++sidebarGeneration;
+
+        // Not screenLoader.run: the sidebar stays put, so the counts are still
+        // wanted after the user navigates to another screen
+        Thread.ofVirtual().start(() -> {
+            int totalQuestions = questionDAO.getCount();
+            int reviewedQuestions = reviewDAO.getReviewedQuestionCount(userId);
+
+            Platform.runLater(() -> {
+                // Only the latest refresh wins if several overlap
+                if (myGeneration == sidebarGeneration && sidebar.getChildren().size() > 1) {
+                    sidebar.getChildren().set(1, createStorageCard(reviewedQuestions, totalQuestions));
+                }
+            });
+        });
     }
 
     private Button createNavButton(String text, boolean active) {
@@ -282,6 +372,29 @@ public class MainApp extends Application {
     }
 
     private void showDashboard() {
+        screenLoader.load(this::loadDashboardData, this::renderDashboard);
+    }
+
+    /**
+     * Everything the dashboard shows from the database (runs off the FX thread)
+     */
+    private DashboardData loadDashboardData() {
+        User user = userDAO.getById(currentUserId);
+        String username = user != null ? user.getUsername() : "User";
+
+        var stats = studyService.getSessionStats(currentUserId);
+        int streak = calculateStreak();
+
+        List<TopicDAO.TopicCounts> topics = topicDAO.getAllWithCounts(currentUserId);
+        if (topics == null) {
+            topics = Collections.emptyList(); // The rest of the dashboard still works
+        }
+        List<TopicDAO.TopicCounts> shownTopics = new ArrayList<>(topics.subList(0, Math.min(topics.size(), 4)));
+
+        return new DashboardData(username, stats, streak, shownTopics, loadRecentActivityRows());
+    }
+
+    private void renderDashboard(DashboardData data) {
         VBox dashboard = new VBox(30);
         dashboard.setPadding(new Insets(40, 50, 40, 50));
         dashboard.setStyle("-fx-background-color: #f8fafc;");
@@ -294,10 +407,7 @@ public class MainApp extends Application {
         title.setFont(Font.font("System", FontWeight.BOLD, 32));
         title.setStyle("-fx-text-fill: #0f172a;");
 
-        com.semisaad.smartstudy.model.User user = userDAO.getById(currentUserId);
-        String username = user != null ? user.getUsername() : "User";
-
-        Label welcome = new Label("👋 Welcome back, " + username + "!");
+        Label welcome = new Label("👋 Welcome back, " + data.username + "!");
         welcome.setFont(Font.font(16));
         welcome.setStyle("-fx-text-fill: #64748b;");
         headerText.getChildren().addAll(title, welcome);
@@ -320,7 +430,7 @@ public class MainApp extends Application {
 
         header.getChildren().addAll(headerText, spacer, quickStudyBtn);
 
-        var stats = studyService.getSessionStats(currentUserId);
+        var stats = data.stats;
         int dueToday = stats.getQuestionsDueToday();
 
         HBox statsRow = new HBox(20);
@@ -330,7 +440,7 @@ public class MainApp extends Application {
                 "Keep improving!", "#10b981");
         VBox totalCard = createStatCard("📚", "Total Reviews", String.valueOf(stats.getTotalReviews()),
                 "Questions studied", "#f59e0b");
-        VBox streakCard = createStatCard("\uD83D\uDDD3", "Study Streak", calculateStreak() + " days",
+        VBox streakCard = createStatCard("\uD83D\uDDD3", "Study Streak", data.streak + " days",
                 "Daily goal: " + dailyGoalQuestions + " questions", "#8b5cf6");
 
         statsRow.getChildren().addAll(dueCard, successCard, totalCard, streakCard);
@@ -358,7 +468,7 @@ public class MainApp extends Application {
 
         FlowPane topicsGrid = new FlowPane(20, 20);
 
-        List<Topic> topics = topicDAO.getAll();
+        List<TopicDAO.TopicCounts> topics = data.topics;
         String[] colors = {"#3b82f6", "#8b5cf6", "#ec4899", "#f59e0b", "#10b981", "#06b6d4"};
 
         if (topics.isEmpty()) {
@@ -374,10 +484,11 @@ public class MainApp extends Application {
             );
             topicsGrid.getChildren().add(emptyTopics);
         } else {
-            for (int i = 0; i < Math.min(topics.size(), 4); i++) {
-                Topic topic = topics.get(i);
-                int questionCount = questionDAO.getByTopicId(topic.getId()).size();
-                VBox topicCard = createTopicCard(topic.getName(), questionCount + " questions",
+            for (int i = 0; i < topics.size(); i++) {
+                TopicDAO.TopicCounts counts = topics.get(i);
+                String countText = counts.getQuestionCount() + " questions" +
+                        (counts.getDueCount() > 0 ? " · " + counts.getDueCount() + " due" : "");
+                VBox topicCard = createTopicCard(counts.getTopic().getName(), countText,
                         colors[i % colors.length]);
                 topicsGrid.getChildren().add(topicCard);
             }
@@ -390,7 +501,7 @@ public class MainApp extends Application {
         questionsTitle.setStyle("-fx-text-fill: #0f172a;");
         questionsHeader.getChildren().add(questionsTitle);
 
-        VBox questionsTable = createSimpleQuestionsTable();
+        VBox questionsTable = createSimpleQuestionsTable(data.recentActivity);
 
         dashboard.getChildren().addAll(header, statsRow, topicsHeader, topicsGrid, questionsHeader, questionsTable);
 
@@ -398,8 +509,7 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
     private VBox createStatCard(String icon, String label, String value, String change, String accentColor) {
@@ -503,7 +613,37 @@ public class MainApp extends Application {
         return card;
     }
 
-    private VBox createSimpleQuestionsTable() {
+    /**
+     * Rows for the dashboard's Recent Activity table (runs off the FX thread)
+     */
+    private List<ActivityRow> loadRecentActivityRows() {
+        List<ActivityRow> activity = new ArrayList<>();
+        List<Review> recentReviews = reviewDAO.getRecentlyReviewed(currentUserId, RECENT_ACTIVITY_ROWS);
+
+        if (recentReviews.isEmpty()) {
+            for (Question q : questionDAO.getPage(0, RECENT_ACTIVITY_ROWS)) {
+                Topic topic = topicDAO.getById(q.getTopicId());
+                activity.add(new ActivityRow(q, topic, "New", "#3b82f6"));
+            }
+        } else {
+            // Already one review per question, newest first
+            for (Review review : recentReviews) {
+                Question q = questionDAO.getById(review.getQuestionId());
+                if (q == null) continue;
+
+                Topic topic = topicDAO.getById(q.getTopicId());
+
+                String status = review.getNextReviewDate().isBefore(LocalDate.now()) ? "Due" : "Reviewed";
+                String statusColor = review.getNextReviewDate().isBefore(LocalDate.now()) ? "#f59e0b" : "#10b981";
+
+                activity.add(new ActivityRow(q, topic, status, statusColor));
+            }
+        }
+
+        return activity;
+    }
+
+    private VBox createSimpleQuestionsTable(List<ActivityRow> recentActivity) {
         VBox table = new VBox();
         table.setStyle(
                 "-fx-background-color: white; " +
@@ -537,99 +677,101 @@ public class MainApp extends Application {
 
         header.getChildren().addAll(iconHeader, nameHeader, topicHeader, statusHeader);
 
-        VBox rows = new VBox(0);
-
-        List<Review> recentReviews = reviewDAO.getByUserId(currentUserId);
-
-        if (recentReviews.isEmpty()) {
-            List<Question> questions = questionDAO.getAll();
-            for (int i = 0; i < Math.min(questions.size(), 5); i++) {
-                Question q = questions.get(i);
-                Topic topic = topicDAO.getById(q.getTopicId());
-                HBox row = createDashboardQuestionRow(q, topic, "New", "#3b82f6");
-                rows.getChildren().add(row);
-            }
-        } else {
-            Set<Integer> shown = new HashSet<>();
-            int count = 0;
-
-            for (int i = recentReviews.size() - 1; i >= 0 && count < 5; i--) {
-                Review review = recentReviews.get(i);
-
-                if (!shown.contains(review.getQuestionId())) {
-                    shown.add(review.getQuestionId());
-
-                    Question q = questionDAO.getById(review.getQuestionId());
-                    if (q == null) continue;
-
-                    Topic topic = topicDAO.getById(q.getTopicId());
-
-                    String status = review.getNextReviewDate().isBefore(LocalDate.now()) ? "Due" : "Reviewed";
-                    String statusColor = review.getNextReviewDate().isBefore(LocalDate.now()) ? "#f59e0b" : "#10b981";
-
-                    HBox row = createDashboardQuestionRow(q, topic, status, statusColor);
-                    rows.getChildren().add(row);
-                    count++;
-                }
-            }
-        }
+        ListView<ActivityRow> rows = new ListView<>(javafx.collections.FXCollections.observableList(recentActivity));
+        rows.setCellFactory(list -> new ActivityRowCell());
+        rows.setFixedCellSize(ACTIVITY_ROW_HEIGHT);
+        rows.setPrefHeight(Math.min(recentActivity.size(), 5) * ACTIVITY_ROW_HEIGHT + 2);
+        rows.setStyle("-fx-background-color: transparent; -fx-control-inner-background: white; -fx-padding: 0;");
+        rows.setPlaceholder(new Label("No activity yet"));
 
         table.getChildren().addAll(header, rows);
 
         return table;
     }
 
-    private HBox createDashboardQuestionRow(Question q, Topic topic, String status, String statusColor) {
-        HBox row = new HBox();
-        row.setPadding(new Insets(16, 24, 16, 24));
-        row.setSpacing(20);
-        row.setStyle("-fx-border-color: #f1f5f9; -fx-border-width: 1 0 0 0;");
-
-        Label icon = new Label("📝");
-        icon.setFont(getEmojiFont(20));
-        icon.setPrefWidth(40);
+    /**
+     * One row of the dashboard's Recent Activity list (nodes built once per
+     * cell, contents swapped as the cell is reused)
+     */
+    private class ActivityRowCell extends ListCell<ActivityRow> {
+        private final HBox row = new HBox();
+        private final Label name = new Label();
+        private final Label topicName = new Label();
+        private final Label statusLabel = new Label();
+
+        ActivityRowCell() {
+            row.setPadding(new Insets(16, 24, 16, 24));
+            row.setSpacing(20);
+            row.setStyle("-fx-border-color: #f1f5f9; -fx-border-width: 1 0 0 0;");
+
+            Label icon = new Label("📝");
+            icon.setFont(getEmojiFont(20));
+            icon.setPrefWidth(40);
+
+            name.setPrefWidth(400);
+            name.setFont(Font.font(14));
+            name.setStyle("-fx-text-fill: #0f172a;");
+
+            topicName.setPrefWidth(200);
+            topicName.setFont(Font.font(13));
+            topicName.setStyle("-fx-text-fill: #64748b;");
+
+            statusLabel.setPrefWidth(150);
+            statusLabel.setPadding(new Insets(4, 12, 4, 12));
+            statusLabel.setFont(Font.font("System", FontWeight.BOLD, 11));
+
+            row.getChildren().addAll(icon, name, topicName, statusLabel);
+
+            row.setOnMouseEntered(e -> row.setStyle(
+                    "-fx-background-color: #f8fafc; " +
+                            "-fx-border-color: #f1f5f9; " +
+                            "-fx-border-width: 1 0 0 0;"
+            ));
+            row.setOnMouseExited(e -> row.setStyle(
+                    "-fx-background-color: transparent; " +
+                            "-fx-border-color: #f1f5f9; " +
+                            "-fx-border-width: 1 0 0 0;"
+            ));
 
-        String questionText = q.getQuestionText();
-        if (questionText.length() > 50) {
-            questionText = questionText.substring(0, 50) + "...";
+            setStyle("-fx-padding: 0; -fx-background-color: white;");
         }
-        Label name = new Label(questionText);
-        name.setPrefWidth(400);
-        name.setFont(Font.font(14));
-        name.setStyle("-fx-text-fill: #0f172a;");
-
-        Label topicName = new Label(topic != null ? topic.getName() : "Unknown");
-        topicName.setPrefWidth(200);
-        topicName.setFont(Font.font(13));
-        topicName.setStyle("-fx-text-fill: #64748b;");
-
-        Label statusLabel = new Label(status);
-        statusLabel.setPrefWidth(150);
-        statusLabel.setPadding(new Insets(4, 12, 4, 12));
-        statusLabel.setFont(Font.font("System", FontWeight.BOLD, 11));
-        statusLabel.setStyle(
-                "-fx-background-color: " + statusColor + "1A; " +
-                        "-fx-text-fill: " + statusColor + "; " +
-                        "-fx-background-radius: 12;"
-        );
 
-        row.getChildren().addAll(icon, name, topicName, statusLabel);
+        @Override
+        protected void updateItem(ActivityRow activity, boolean empty) {
+            super.updateItem(activity, empty);
+            setText(null);
 
-        row.setOnMouseEntered(e -> row.setStyle(
-                "-fx-background-color: #f8fafc; " +
-                        "-fx-border-color: #f1f5f9; " +
-                        "-fx-border-width: 1 0 0 0;"
-        ));
-        row.setOnMouseExited(e -> row.setStyle(
-                "-fx-background-color: transparent; " +
-                        "-fx-border-color: #f1f5f9; " +
-                        "-fx-border-width: 1 0 0 0;"
-        ));
+            if (empty || activity == null) {
+                setGraphic(null);
+                return;
+            }
 
-        return row;
+            String questionText = activity.question.getQuestionText();
+            if (questionText.length() > 50) {
+                questionText = questionText.substring(0, 50) + "...";
+            }
+            name.setText(questionText);
+            topicName.setText(activity.topic != null ? activity.topic.getName() : "Unknown");
+
+            statusLabel.setText(activity.status);
+            statusLabel.setStyle(
+                    "-fx-background-color: " + activity.statusColor + "1A; " +
+                            "-fx-text-fill: " + activity.statusColor + "; " +
+                            "-fx-background-radius: 12;"
+            );
+
+            setGraphic(row);
+        }
     }
 
     private void showTopics() {
+        screenLoader.load(() -> topicDAO.getAllWithCounts(currentUserId), this::renderTopics);
+    }
+
+    /**
+     * @param topics The topics with their counts, or null if they couldn't be loaded
+     */
+    private void renderTopics(List<TopicDAO.TopicCounts> topics) {
         VBox topicsScreen = new VBox(25);
         topicsScreen.setPadding(new Insets(40, 50, 40, 50));
         topicsScreen.setStyle("-fx-background-color: #f8fafc;");
@@ -662,10 +804,18 @@ public class MainApp extends Application {
 
         FlowPane topicsGrid = new FlowPane(24, 24);
 
-        List<Topic> topics = topicDAO.getAll();
         String[] colors = {"#3b82f6", "#8b5cf6", "#ec4899", "#f59e0b", "#10b981", "#06b6d4", "#f97316", "#ef4444"};
 
-        if (topics.isEmpty()) {
+        if (topics == null) {
+            VBox errorState = createEmptyState(
+                    "!",
+                    "Couldn't load topics",
+                    "The database didn't respond. Check your connection and try again.",
+                    "Retry",
+                    () -> showTopics()
+            );
+            topicsGrid.getChildren().add(errorState);
+        } else if (topics.isEmpty()) {
             VBox emptyState = createEmptyState(
                     "📁",
                     "No topics yet",
@@ -676,11 +826,10 @@ public class MainApp extends Application {
             topicsGrid.getChildren().add(emptyState);
         } else {
             for (int i = 0; i < topics.size(); i++) {
-                Topic topic = topics.get(i);
-                int questionCount = questionDAO.getByTopicId(topic.getId()).size();
+                TopicDAO.TopicCounts counts = topics.get(i);
                 VBox topicCard = createManageableTopicCard(
-                        topic,
-                        questionCount,
+                        counts.getTopic(),
+                        counts.getQuestionCount(),
                         colors[i % colors.length]
                 );
                 topicsGrid.getChildren().add(topicCard);
@@ -693,8 +842,7 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
     private VBox createEmptyState(String icon, String title, String message, String buttonText, Runnable action) {
@@ -1080,6 +1228,9 @@ public class MainApp extends Application {
                 boolean deleted = topicDAO.delete(topic.getId());
 
                 if (deleted) {
+                    // The topic's questions were deleted by the cascade
+                    questionDAO.invalidateAll();
+                    studyService.invalidateStudyCounts();
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Topic Deleted",
                             "The topic has been deleted successfully.");
                     showTopics();
@@ -1093,6 +1244,34 @@ public class MainApp extends Application {
     }
 
     private void showQuestions() {
+        screenLoader.load(this::loadQuestionsData, this::renderQuestions);
+    }
+
+    /**
+     * Topics and questions for the Questions screen (runs off the FX thread)
+     */
+    private QuestionsData loadQuestionsData() {
+        List<Topic> topics = topicDAO.getAll();
+
+        Map<Integer, Topic> topicsById = new HashMap<>();
+        for (Topic topic : topics) {
+            topicsById.put(topic.getId(), topic);
+        }
+
+        int questionCount = questionDAO.getCount();
+        if (questionCount > IN_MEMORY_SEARCH_MAX_QUESTIONS) {
+            // Too many to index in memory - the list pages through the database instead
+            return new QuestionsData(topics, Collections.emptyList(), topicsById, null, questionCount);
+        }
+
+        // Built once, then kept current by the DAO on every question change
+        QuestionSearchIndex searchIndex = questionDAO.getSearchIndex();
+        List<Question> questions = searchIndex.search("", null);
+
+        return new QuestionsData(topics, questions, topicsById, searchIndex, questions.size());
+    }
+
+    private void renderQuestions(QuestionsData data) {
         VBox questionsScreen = new VBox(25);
         questionsScreen.setPadding(new Insets(40, 50, 40, 50));
         questionsScreen.setStyle("-fx-background-color: #f8fafc;");
@@ -1121,7 +1300,24 @@ public class MainApp extends Application {
         );
         addQuestionBtn.setOnAction(e -> showAddQuestionDialog());
 
-        header.getChildren().addAll(title, spacer, addQuestionBtn);
+        Button importBtn = new Button("Import");
+        importBtn.setPrefHeight(44);
+        importBtn.setPrefWidth(110);
+        importBtn.setFont(Font.font("System", FontWeight.BOLD, 14));
+        importBtn.setStyle(
+                "-fx-background-color: white; " +
+                        "-fx-text-fill: #34aeeb; " +
+                        "-fx-border-color: #34aeeb; " +
+                        "-fx-border-width: 2; " +
+                        "-fx-border-radius: 12; " +
+                        "-fx-background-radius: 12; " +
+                        "-fx-cursor: hand;"
+        );
+        importBtn.setOnAction(e -> showImportDialog());
+
+        HBox headerButtons = new HBox(12, importBtn, addQuestionBtn);
+
+        header.getChildren().addAll(title, spacer, headerButtons);
 
         HBox searchBox = new HBox(15);
         searchBox.setAlignment(Pos.CENTER_LEFT);
@@ -1142,8 +1338,7 @@ public class MainApp extends Application {
 
         ComboBox<String> topicFilter = new ComboBox<>();
         topicFilter.getItems().add("All Topics");
-        List<Topic> topics = topicDAO.getAll();
-        for (Topic topic : topics) {
+        for (Topic topic : data.topics) {
             topicFilter.getItems().add(topic.getName());
         }
         topicFilter.setValue("All Topics");
@@ -1193,29 +1388,34 @@ public class MainApp extends Application {
 
         tableHeader.getChildren().addAll(headerQuestion, headerTopic, headerDifficulty, headerActions);
 
-        VBox tableRows = new VBox(0);
-
-        List<Question> questions = questionDAO.getAll();
+        // Virtualized: only the visible rows get cells, reused while scrolling
+        ListView<QuestionDAO.SearchHit> tableRows = new ListView<>();
+        tableRows.setCellFactory(list -> new QuestionRowCell(data.topicsById));
+        tableRows.setFixedCellSize(QUESTION_ROW_HEIGHT);
+        tableRows.setPrefHeight(450);
+        tableRows.setStyle("-fx-background-color: white; -fx-control-inner-background: white; -fx-padding: 0;");
+        tableRows.setPlaceholder(new Label("No questions found"));
 
-        for (Question q : questions) {
-            Topic topic = topicDAO.getById(q.getTopicId());
-            HBox row = createQuestionRow(q, topic);
-            tableRows.getChildren().add(row);
+        if (data.searchIndex != null) {
+            tableRows.setItems(toSearchRows(data.questions));
+        } else {
+            tableRows.setItems(databaseSearchRows("", null, data.questionCount));
         }
 
-        ScrollPane tableScroll = new ScrollPane(tableRows);
-        tableScroll.setFitToWidth(true);
-        tableScroll.setPrefHeight(450);
-        tableScroll.setStyle("-fx-background-color: white; -fx-background: white;");
+        tableContainer.getChildren().addAll(tableHeader, tableRows);
 
-        tableContainer.getChildren().addAll(tableHeader, tableScroll);
+        // Filter once typing pauses rather than on every keystroke
+        PauseTransition searchDebounce = new PauseTransition(
+                Duration.millis(SEARCH_DEBOUNCE_MILLIS)
+        );
+        searchDebounce.setOnFinished(e ->
+                updateQuestionsList(tableRows, data, searchField.getText(), topicFilter.getValue()));
 
-        searchField.textProperty().addListener((obs, old, newVal) -> {
-            updateQuestionsList(tableRows, newVal, topicFilter.getValue());
-        });
+        searchField.textProperty().addListener((obs, old, newVal) -> searchDebounce.playFromStart());
 
         topicFilter.setOnAction(e -> {
-            updateQuestionsList(tableRows, searchField.getText(), topicFilter.getValue());
+            searchDebounce.stop();
+            updateQuestionsList(tableRows, data, searchField.getText(), topicFilter.getValue());
         });
 
         questionsScreen.getChildren().addAll(header, searchBox, tableContainer);
@@ -1224,105 +1424,266 @@ public class MainApp extends Application {
         mainScroll.setFitToWidth(true);
         mainScroll.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(mainScroll);
+        setContent(mainScroll);
     }
 
-    private HBox createQuestionRow(Question q, Topic topic) {
-        HBox row = new HBox();
-        row.setPadding(new Insets(16, 24, 16, 24));
-        row.setSpacing(20);
-        row.setStyle(
-                "-fx-border-color: #f1f5f9; " +
-                        "-fx-border-width: 1 0 0 0; " +
-                        "-fx-background-color: white;"
-        );
-
-        row.setOnMouseEntered(e -> row.setStyle(
-                "-fx-border-color: #f1f5f9; " +
-                        "-fx-border-width: 1 0 0 0; " +
-                        "-fx-background-color: #f8fafc;"
-        ));
-        row.setOnMouseExited(e -> row.setStyle(
-                "-fx-border-color: #f1f5f9; " +
-                        "-fx-border-width: 1 0 0 0; " +
-                        "-fx-background-color: white;"
-        ));
+    /**
+     * One row of the Questions list. Cells are recycled while scrolling, so
+     * the row's nodes are built once and only their contents change.
+     * A null item is a row whose page hasn't loaded yet.
+     */
+    private class QuestionRowCell extends ListCell<QuestionDAO.SearchHit> {
+        private final Map<Integer, Topic> topicsById;
+        private final HBox row = new HBox();
+        private final Label questionLabel = new Label();
+        private final Label topicLabel = new Label();
+        private final Label difficultyLabel = new Label();
+        private final HBox actions = new HBox(8);
+        private final Tooltip snippetTooltip = new Tooltip();
+
+        QuestionRowCell(Map<Integer, Topic> topicsById) {
+            this.topicsById = topicsById;
+
+            row.setPadding(new Insets(16, 24, 16, 24));
+            row.setSpacing(20);
+            row.setStyle(
+                    "-fx-border-color: #f1f5f9; " +
+                            "-fx-border-width: 1 0 0 0; " +
+                            "-fx-background-color: white;"
+            );
 
-        Label questionLabel = new Label(q.getQuestionText());
-        questionLabel.setPrefWidth(350);
-        questionLabel.setWrapText(true);
-        questionLabel.setMaxHeight(60);
-        questionLabel.setFont(Font.font(14));
-        questionLabel.setStyle("-fx-text-fill: #0f172a;");
+            row.setOnMouseEntered(e -> row.setStyle(
+                    "-fx-border-color: #f1f5f9; " +
+                            "-fx-border-width: 1 0 0 0; " +
+                            "-fx-background-color: #f8fafc;"
+            ));
+            row.setOnMouseExited(e -> row.setStyle(
+                    "-fx-border-color: #f1f5f9; " +
+                            "-fx-border-width: 1 0 0 0; " +
+                            "-fx-background-color: white;"
+            ));
+
+            questionLabel.setPrefWidth(350);
+            questionLabel.setWrapText(true);
+            questionLabel.setMaxHeight(60);
+            questionLabel.setFont(Font.font(14));
+            questionLabel.setStyle("-fx-text-fill: #0f172a;");
+
+            topicLabel.setPrefWidth(150);
+            topicLabel.setFont(Font.font(13));
+            topicLabel.setStyle("-fx-text-fill: #64748b;");
+
+            difficultyLabel.setPrefWidth(120);
+            difficultyLabel.setPadding(new Insets(6, 12, 6, 12));
+            difficultyLabel.setFont(Font.font("System", FontWeight.BOLD, 11));
+
+            actions.setPrefWidth(150);
+
+            Button editBtn = new Button("Edit");
+            editBtn.setPrefHeight(32);
+            editBtn.setPrefWidth(60);
+            editBtn.setFont(Font.font("System", FontWeight.BOLD, 12));
+            editBtn.setStyle(
+                    "-fx-background-color: #eff6ff; " +
+                            "-fx-text-fill: #3b82f6; " +
+                            "-fx-background-radius: 8; " +
+                            "-fx-cursor: hand;"
+            );
+            editBtn.setOnAction(e -> showEditQuestionDialog(getItem().getQuestion()));
 
-        Label topicLabel = new Label(topic != null ? topic.getName() : "Unknown");
-        topicLabel.setPrefWidth(150);
-        topicLabel.setFont(Font.font(13));
-        topicLabel.setStyle("-fx-text-fill: #64748b;");
+            Button deleteBtn = new Button("🗑️");
+            deleteBtn.setPrefHeight(32);
+            deleteBtn.setPrefWidth(32);
+            deleteBtn.setStyle(
+                    "-fx-background-color: #fef2f2; " +
+                            "-fx-text-fill: #ef4444; " +
+                            "-fx-background-radius: 8; " +
+                            "-fx-cursor: hand;"
+            );
+            deleteBtn.setOnAction(e -> deleteQuestion(getItem().getQuestion()));
 
-        Label difficultyLabel = new Label(q.getDifficulty());
-        difficultyLabel.setPrefWidth(120);
-        difficultyLabel.setPadding(new Insets(6, 12, 6, 12));
-        difficultyLabel.setFont(Font.font("System", FontWeight.BOLD, 11));
-        difficultyLabel.setStyle(
-                "-fx-background-radius: 12; " +
-                        getDifficultyColor(q.getDifficulty())
-        );
+            actions.getChildren().addAll(editBtn, deleteBtn);
 
-        HBox actions = new HBox(8);
-        actions.setPrefWidth(150);
+            row.getChildren().addAll(questionLabel, topicLabel, difficultyLabel, actions);
 
-        Button editBtn = new Button("Edit");
-        editBtn.setPrefHeight(32);
-        editBtn.setPrefWidth(60);
-        editBtn.setFont(Font.font("System", FontWeight.BOLD, 12));
-        editBtn.setStyle(
-                "-fx-background-color: #eff6ff; " +
-                        "-fx-text-fill: #3b82f6; " +
-                        "-fx-background-radius: 8; " +
-                        "-fx-cursor: hand;"
-        );
-        editBtn.setOnAction(e -> showEditQuestionDialog(q));
+            setStyle("-fx-padding: 0; -fx-background-color: white;");
+        }
 
-        Button deleteBtn = new Button("🗑️");
-        deleteBtn.setPrefHeight(32);
-        deleteBtn.setPrefWidth(32);
-        deleteBtn.setStyle(
-                "-fx-background-color: #fef2f2; " +
-                        "-fx-text-fill: #ef4444; " +
-                        "-fx-background-radius: 8; " +
-                        "-fx-cursor: hand;"
-        );
-        deleteBtn.setOnAction(e -> deleteQuestion(q));
+        @Override
+        protected void updateItem(QuestionDAO.SearchHit hit, boolean empty) {
+            super.updateItem(hit, empty);
+            setText(null);
 
-        actions.getChildren().addAll(editBtn, deleteBtn);
+            if (empty) {
+                setGraphic(null);
+                setTooltip(null);
+                return;
+            }
 
-        row.getChildren().addAll(questionLabel, topicLabel, difficultyLabel, actions);
+            if (hit == null) {
+                questionLabel.setText("Loading...");
+                topicLabel.setText("");
+                difficultyLabel.setVisible(false);
+                actions.setVisible(false);
+                setTooltip(null);
+            } else {
+                Question q = hit.getQuestion();
+                Topic topic = topicsById.get(q.getTopicId());
 
-        return row;
+                questionLabel.setText(q.getQuestionText());
+                topicLabel.setText(topic != null ? topic.getName() : "Unknown");
+                difficultyLabel.setText(q.getDifficulty());
+                difficultyLabel.setStyle(
+                        "-fx-background-radius: 12; " +
+                                getDifficultyColor(q.getDifficulty())
+                );
+                difficultyLabel.setVisible(true);
+                actions.setVisible(true);
+
+                if (hit.getSnippet() != null) {
+                    snippetTooltip.setText(hit.getSnippet());
+                    setTooltip(snippetTooltip);
+                } else {
+                    setTooltip(null);
+                }
+            }
+
+            setGraphic(row);
+        }
     }
 
-    private void updateQuestionsList(VBox tableRows, String searchText, String topicFilter) {
-        tableRows.getChildren().clear();
+    private void updateQuestionsList(ListView<QuestionDAO.SearchHit> tableRows, QuestionsData data,
+                                     String searchText, String topicFilter) {
+        Integer topicId = null;
+        if (!topicFilter.equals("All Topics")) {
+            for (Topic topic : data.topics) {
+                if (topic.getName().equals(topicFilter)) {
+                    topicId = topic.getId();
+                    break;
+                }
+            }
+        }
+
+        if (data.searchIndex != null) {
+            tableRows.setItems(toSearchRows(data.searchIndex.search(searchText, topicId)));
+            return;
+        }
 
-        List<Question> questions = questionDAO.getAll();
+        // Large bank: count the matches in the background, then page them in as the list scrolls
+        long request = ++questionSearchRequest;
+        Integer filterTopicId = topicId;
+        screenLoader.run(() -> questionDAO.countSearch(searchText, filterTopicId, null), count -> {
+            if (request == questionSearchRequest) { // Otherwise a newer search has started
+                tableRows.setItems(databaseSearchRows(searchText, filterTopicId, count));
+            }
+        });
+    }
 
+    private javafx.collections.ObservableList<QuestionDAO.SearchHit> toSearchRows(List<Question> questions) {
+        List<QuestionDAO.SearchHit> rows = new ArrayList<>(questions.size());
         for (Question q : questions) {
-            Topic topic = topicDAO.getById(q.getTopicId());
+            rows.add(new QuestionDAO.SearchHit(q, 0, null));
+        }
+        return javafx.collections.FXCollections.observableList(rows);
+    }
+
+    /**
+     * Full-text search results for large question banks, fetched from the
+     * database one page at a time as the list scrolls (best matches first,
+     * with the matching snippet as a tooltip)
+     */
+    private PagedList<QuestionDAO.SearchHit> databaseSearchRows(String searchText, Integer topicId, int count) {
+        return new PagedList<>(count, QUESTION_SEARCH_PAGE_SIZE,
+                (offset, limit) -> questionDAO.search(searchText, topicId, null, offset, limit));
+    }
+
+    /**
+     * Pick a CSV/TSV/JSON file and bulk import it, with a progress dialog
+     */
+    private void showImportDialog() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Import Questions");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter(
+                "Question files (*.csv, *.tsv, *.json)", "*.csv", "*.tsv", "*.tab", "*.json"));
+
+        File file = chooser.showOpenDialog(mainLayout.getScene().getWindow());
+        if (file == null) {
+            return;
+        }
+
+        Stage dialog = new Stage();
+        dialog.setTitle("Importing Questions");
+        dialog.initModality(Modality.APPLICATION_MODAL);
+        dialog.setOnCloseRequest(Event::consume); // Can't be cancelled midway
 
-            boolean matchesSearch = searchText == null || searchText.isEmpty() ||
-                    q.getQuestionText().toLowerCase().contains(searchText.toLowerCase()) ||
-                    q.getAnswer().toLowerCase().contains(searchText.toLowerCase());
+        VBox content = new VBox(16);
+        content.setPadding(new Insets(30));
+        content.setPrefWidth(420);
+        content.setStyle("-fx-background-color: white;");
 
-            boolean matchesTopic = topicFilter.equals("All Topics") ||
-                    (topic != null && topic.getName().equals(topicFilter));
+        Label fileLabel = new Label(file.getName());
+        fileLabel.setFont(Font.font("System", FontWeight.BOLD, 16));
+        fileLabel.setStyle("-fx-text-fill: #0f172a;");
 
-            if (matchesSearch && matchesTopic) {
-                HBox row = createQuestionRow(q, topic);
-                tableRows.getChildren().add(row);
+        ProgressBar progressBar = new ProgressBar(0);
+        progressBar.setPrefWidth(360);
+
+        Label statusLabel = new Label("Reading file...");
+        statusLabel.setFont(Font.font(13));
+        statusLabel.setStyle("-fx-text-fill: #64748b;");
+
+        content.getChildren().addAll(fileLabel, progressBar, statusLabel);
+        dialog.setScene(new Scene(content));
+        dialog.show();
+
+        QuestionImporter importer = new QuestionImporter(questionDAO, topicDAO);
+
+        Thread.ofVirtual().start(() -> {
+            try {
+                QuestionImporter.ImportResult result = importer.importFile(file.toPath(),
+                        (bytesRead, totalBytes, imported, rejected) -> Platform.runLater(() -> {
+                            progressBar.setProgress(totalBytes > 0 ? (double) bytesRead / totalBytes : -1);
+                            statusLabel.setText(imported + " imported, " + rejected + " rejected");
+                        }));
+
+                studyService.invalidateStudyCounts();
+
+                // The rows are already committed, so a report that can't be
+                // written (e.g. read-only folder) is mentioned, not treated as
+                // a failed import
+                String details = "Every row was imported.";
+                if (result.getRejected() > 0) {
+                    Path report = file.toPath().resolveSibling(file.getName() + ".errors.csv");
+                    try {
+                        result.writeErrorReport(report);
+                        details = result.getRejected() + " rows were rejected. Details: " + report;
+                    } catch (IOException ex) {
+                        System.err.println("Error writing import error report: " + ex.getMessage());
+                        details = result.getRejected() + " rows were rejected. The error report could not be " +
+                                "written to " + report + ": " + ex.getMessage();
+                    }
+                }
+
+                String message = details;
+                Platform.runLater(() -> {
+                    dialog.close();
+                    showAlert(Alert.AlertType.INFORMATION, "Import Complete",
+                            result.getImported() + " questions imported", message);
+                    refreshSidebar();
+                    showQuestions();
+                });
+
+            } catch (IOException ex) {
+                // Rows before the failure may already be committed
+                studyService.invalidateStudyCounts();
+                Platform.runLater(() -> {
+                    dialog.close();
+                    ErrorHandler.showError("Import Error", "Could not import " + file.getName(), ex);
+                    refreshSidebar();
+                    showQuestions();
+                });
             }
-        }
+        });
     }
 
     private void showAddQuestionDialog() {
@@ -1487,6 +1848,7 @@ public class MainApp extends Application {
             boolean saved = questionDAO.insert(newQuestion);
 
             if (saved) {
+                studyService.invalidateStudyCounts();
                 questionField.clear();
                 answerField.clear();
                 successMsg.setText("✅ Question saved! Add another or close when done.");
@@ -1659,6 +2021,7 @@ public class MainApp extends Application {
             boolean updated = questionDAO.update(question);
 
             if (updated) {
+                studyService.invalidateStudyCounts(); // The topic may have changed
                 showAlert(Alert.AlertType.INFORMATION, "Success", "Question Updated!",
                         "The question has been updated successfully.");
                 dialog.close();
@@ -1684,32 +2047,25 @@ public class MainApp extends Application {
     }
 
     private void updateSessionStats(HBox statsPreview) {
-        statsPreview.getChildren().clear();
+        Set<Integer> topicIds = new HashSet<>(selectedTopicIds);
+        long request = ++sessionStatsRequest;
 
-        List<Question> allQuestions;
-        if (selectedTopicIds.isEmpty()) {
-            allQuestions = questionDAO.getAll();
-        } else {
-            allQuestions = new ArrayList<>();
-            for (int topicId : selectedTopicIds) {
-                allQuestions.addAll(questionDAO.getByTopicId(topicId));
+        screenLoader.run(() -> studyService.getStudyCounts(currentUserId, topicIds), counts -> {
+            // Ignore answers to older chip clicks that finish late
+            if (request == sessionStatsRequest) {
+                renderSessionStats(statsPreview, counts);
             }
-        }
-
-        int totalCount = allQuestions.size();
-
-        int dueCount = (int) allQuestions.stream().filter(q -> {
-            Review r = reviewDAO.getLatestReview(q.getId(), currentUserId);
-            return r != null && !r.getNextReviewDate().isAfter(LocalDate.now());
-        }).count();
+        });
+    }
 
-        int newCount = (int) allQuestions.stream().filter(q ->
-                reviewDAO.getLatestReview(q.getId(), currentUserId) == null
-        ).count();
+    private void renderSessionStats(HBox statsPreview, StudyPlanner.StudyCounts counts) {
+        int dueCount = counts.getDueCount();
+        int newCount = counts.getNewCount();
+        int totalCount = counts.getTotalCount();
 
         int sessionSize = Math.min(dailyGoalQuestions, Math.min(totalCount, dueCount + newCount));
 
-        statsPreview.getChildren().addAll(
+        statsPreview.getChildren().setAll(
                 createStatPill("Due", String.valueOf(dueCount), "#f59e0b"),
                 createStatPill("New", String.valueOf(newCount), "#3b82f6"),
                 createStatPill("Total", String.valueOf(totalCount), "#64748b"),
@@ -1751,6 +2107,7 @@ public class MainApp extends Application {
                 boolean deleted = questionDAO.delete(question.getId());
 
                 if (deleted) {
+                    studyService.invalidateStudyCounts();
                     showAlert(Alert.AlertType.INFORMATION, "Success", "Question Deleted",
                             "The question has been deleted successfully.");
                     showQuestions();
@@ -1760,41 +2117,15 @@ public class MainApp extends Application {
         });
     }
 
-    private HBox[] buildTopicStats(int topicId, List<Topic> topics) {
-        int dueCount;
-        int totalCount;
-        int newCount;
-
-        if (topicId == -1) {
-            dueCount = studyService.getDueQuestions(currentUserId).size();
-            totalCount = questionDAO.getCount();
-            List<Integer> dueIds = studyService.getDueQuestions(currentUserId)
-                    .stream().map(Question::getId).collect(java.util.stream.Collectors.toList());
-            newCount = (int) questionDAO.getAll().stream()
-                    .filter(q -> reviewDAO.getLatestReview(q.getId(), currentUserId) == null)
-                    .count();
-        } else {
-            List<Question> topicQuestions = questionDAO.getByTopicId(topicId);
-            totalCount = topicQuestions.size();
-            dueCount = (int) topicQuestions.stream()
-                    .filter(q -> {
-                        Review r = reviewDAO.getLatestReview(q.getId(), currentUserId);
-                        return r != null && !r.getNextReviewDate().isAfter(LocalDate.now());
-                    }).count();
-            newCount = (int) topicQuestions.stream()
-                    .filter(q -> reviewDAO.getLatestReview(q.getId(), currentUserId) == null)
-                    .count();
-        }
-
-        HBox dueBox = createStatPill("Due", String.valueOf(dueCount), "#f59e0b");
-        HBox newBox = createStatPill("New", String.valueOf(newCount), "#3b82f6");
-        HBox totalBox = createStatPill("Total", String.valueOf(totalCount), "#64748b");
-
-        return new HBox[]{dueBox, newBox, totalBox};
+    private void showStudySession() {
+        Set<Integer> topicIds = new HashSet<>(selectedTopicIds);
+        screenLoader.load(
+                () -> new StudySetupData(topicDAO.getAll(), studyService.getStudyCounts(currentUserId, topicIds)),
+                this::renderStudySession
+        );
     }
 
-
-    private void showStudySession() {
+    private void renderStudySession(StudySetupData data) {
         VBox sessionScreen = new VBox(30);
         sessionScreen.setPadding(new Insets(40, 50, 40, 50));
         sessionScreen.setAlignment(Pos.TOP_CENTER);
@@ -1825,15 +2156,13 @@ public class MainApp extends Application {
         // Stats preview — declared BEFORE chips so lambdas can reference it
         HBox statsPreview = new HBox(16);
         statsPreview.setAlignment(Pos.CENTER_LEFT);
-        updateSessionStats(statsPreview);
+        renderSessionStats(statsPreview, data.sessionCounts);
 
         // Topic chips
         FlowPane chipsPane = new FlowPane(10, 10);
         chipsPane.setPrefWrapLength(700);
 
-        List<Topic> topics = topicDAO.getAll();
-
-        for (Topic t : topics) {
+        for (Topic t : data.topics) {
             boolean isSelected = selectedTopicIds.contains(t.getId());
 
             Button chip = new Button(t.getName());
@@ -1882,8 +2211,7 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
     private void styleChip(Button chip, boolean selected) {
@@ -1911,67 +2239,66 @@ public class MainApp extends Application {
     }
 
     private void loadStudyQuestions() {
-        // Step 1 — get due questions filtered by selected topics
-        List<Question> dueQuestions = new ArrayList<>(studyService.getDueQuestions(currentUserId));
+        // Snapshot FX-thread state before going to the background
+        Set<Integer> topicIds = new HashSet<>(selectedTopicIds);
+        Set<Integer> answered = new HashSet<>(answeredThisSession);
+        int dailyGoal = dailyGoalQuestions;
 
-        if (!selectedTopicIds.isEmpty()) {
-            dueQuestions.removeIf(q -> !selectedTopicIds.contains(q.getTopicId()));
-        }
+        screenLoader.load(() -> buildStudyQueue(topicIds, answered, dailyGoal), queue -> {
+            currentStudyQuestions = queue;
+            currentQuestionIndex = 0;
 
-        dueQuestions.removeIf(q -> answeredThisSession.contains(q.getId()));
-        Collections.shuffle(dueQuestions);
-
-        // Step 2 — cap to daily goal
-        if (dueQuestions.size() > dailyGoalQuestions) {
-            dueQuestions = new ArrayList<>(dueQuestions.subList(0, dailyGoalQuestions));
-        }
-
-        currentStudyQuestions = new ArrayList<>(dueQuestions);
+            if (currentStudyQuestions.isEmpty()) {
+                showNoQuestionsScreen();
+                return;
+            }
 
-        // Step 3 — top up with new questions if under daily goal
-        if (currentStudyQuestions.size() < dailyGoalQuestions) {
-            List<Integer> excludeIds = new ArrayList<>(answeredThisSession);
-            currentStudyQuestions.stream().map(Question::getId).forEach(excludeIds::add);
+            showQuestionCard();
+        });
+    }
 
-            // Fetch ALL new questions (no limit), then filter by topic, then take what we need
-            List<Question> allNewQuestions = new ArrayList<>(
-                    studyService.getNewQuestions(currentUserId, Integer.MAX_VALUE, excludeIds)
-            );
+    /**
+     * Pick and order this session's questions (runs off the FX thread)
+     */
+    private List<Question> buildStudyQueue(Set<Integer> topicIds, Set<Integer> answered, int dailyGoal) {
+        // Step 1 — most overdue questions in the selected topics, capped to the daily goal.
+        // Anything already answered this session is excluded in the query, so answers
+        // still in the write-behind queue (and so still due) don't use up the cap
+        List<Question> dueQuestions = new ArrayList<>(
+                studyService.getDueQuestions(currentUserId, topicIds, answered, dailyGoal)
+        );
 
-            if (!selectedTopicIds.isEmpty()) {
-                allNewQuestions.removeIf(q -> !selectedTopicIds.contains(q.getTopicId()));
-            }
+        // Step 2 — shuffle
+        Collections.shuffle(dueQuestions);
 
-            Collections.shuffle(allNewQuestions);
+        List<Question> queue = new ArrayList<>(dueQuestions);
 
-            int remaining = dailyGoalQuestions - currentStudyQuestions.size();
-            if (allNewQuestions.size() > remaining) {
-                allNewQuestions = new ArrayList<>(allNewQuestions.subList(0, remaining));
-            }
+        // Step 3 — top up with new questions if under daily goal
+        if (queue.size() < dailyGoal) {
+            List<Integer> excludeIds = new ArrayList<>(answered);
+            queue.stream().map(Question::getId).forEach(excludeIds::add);
+
+            // Random sample of just as many new questions as we still need
+            int remaining = dailyGoal - queue.size();
+            List<Question> newQuestions = studyService.getNewQuestions(
+                    currentUserId, topicIds, excludeIds, remaining
+            );
 
-            currentStudyQuestions.addAll(allNewQuestions);
+            queue.addAll(newQuestions);
         }
 
         // Step 4 — hard cap to daily goal
-        if (currentStudyQuestions.size() > dailyGoalQuestions) {
-            currentStudyQuestions = new ArrayList<>(
-                    currentStudyQuestions.subList(0, dailyGoalQuestions)
-            );
+        if (queue.size() > dailyGoal) {
+            queue = new ArrayList<>(queue.subList(0, dailyGoal));
         }
 
-        // Step 5 — prioritize
-        currentStudyQuestions = studyService.getPrioritizedQuestions(
-                currentUserId, currentStudyQuestions
-        );
-
-        currentQuestionIndex = 0;
-
-        if (currentStudyQuestions.isEmpty()) {
-            showNoQuestionsScreen();
-            return;
-        }
+        // Step 5 — load card states up front so answering never waits on the database
+        List<Integer> queueIds = new ArrayList<>(queue.size());
+        queue.stream().map(Question::getId).forEach(queueIds::add);
+        studyService.prefetchCardStates(currentUserId, queueIds);
 
-        showQuestionCard();
+        // Step 6 — prioritize
+        return studyService.getPrioritizedQuestions(currentUserId, queue);
     }
 
     private void showNoQuestionsScreen() {
@@ -2012,8 +2339,7 @@ public class MainApp extends Application {
 
         content.getChildren().addAll(icon, title, message, statsInfo, backBtn);
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(content);
+        setContent(content);
     }
 
     private void showQuestionCard() {
@@ -2164,8 +2490,7 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
     private String getDifficultyColor(String difficulty) {
@@ -2180,14 +2505,15 @@ public class MainApp extends Application {
     }
 
     private void handleAnswer(Question question, boolean wasCorrect) {
-        boolean saved = studyService.submitAnswer(question.getId(), currentUserId, wasCorrect);
+        // Journaled locally and written to the database in the background
+        boolean saved = studyService.queueAnswer(question.getId(), currentUserId, wasCorrect);
 
         if (saved) {
             answeredThisSession.add(question.getId());
             showAnswerFeedback(wasCorrect);
 
-            javafx.animation.PauseTransition pause = new javafx.animation.PauseTransition(
-                    javafx.util.Duration.seconds(1)
+            PauseTransition pause = new PauseTransition(
+                    Duration.seconds(1)
             );
             pause.setOnFinished(e -> nextQuestion());
             pause.play();
@@ -2224,8 +2550,7 @@ public class MainApp extends Application {
         wrapper.prefWidthProperty().bind(contentArea.widthProperty());
         wrapper.prefHeightProperty().bind(contentArea.heightProperty());
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(wrapper);
+        setContent(wrapper);
     }
 
     private void nextQuestion() {
@@ -2239,6 +2564,11 @@ public class MainApp extends Application {
     }
 
     private void showSessionComplete() {
+        screenLoader.load(() -> new SessionCompleteData(studyService.getSessionStats(currentUserId),
+                getTodayReviewCount()), this::renderSessionComplete);
+    }
+
+    private void renderSessionComplete(SessionCompleteData data) {
         VBox complete = new VBox(25);
         complete.setAlignment(Pos.CENTER);
         complete.setStyle("-fx-background-color: #f8fafc;");
@@ -2255,15 +2585,14 @@ public class MainApp extends Application {
         message.setFont(Font.font(18));
         message.setStyle("-fx-text-fill: #64748b;");
 
-        var stats = studyService.getSessionStats(currentUserId);
+        var stats = data.stats;
         Label statsText = new Label(String.format("Success Rate: %.0f%%", stats.getSuccessRate()));
         statsText.setFont(Font.font("System", FontWeight.BOLD, 24));
         statsText.setStyle("-fx-text-fill: #10b981;");
 
         complete.getChildren().addAll(icon, title, message, statsText);
 
-        int todayReviews = getTodayReviewCount();
-        if (todayReviews >= dailyGoalQuestions) {
+        if (data.todayReviews >= dailyGoalQuestions) {
             Label goalReached = new Label("★ Daily Goal Reached!");
             goalReached.setFont(Font.font("System", FontWeight.BOLD, 18));
             goalReached.setStyle("-fx-text-fill: #f59e0b;");
@@ -2296,25 +2625,47 @@ public class MainApp extends Application {
         wrapper.prefWidthProperty().bind(contentArea.widthProperty());
         wrapper.prefHeightProperty().bind(contentArea.heightProperty());
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(wrapper);
+        setContent(wrapper);
     }
 
     private int getTodayReviewCount() {
-        List<Review> allReviews = reviewDAO.getByUserId(currentUserId);
         LocalDate today = LocalDate.now();
-        int count = 0;
+        List<ReviewDAO.DailyActivity> activity = reviewDAO.getDailyActivity(currentUserId, today, today);
+        return activity.isEmpty() ? 0 : activity.get(0).getReviewCount();
+    }
 
-        for (Review review : allReviews) {
-            if (review.getReviewedAt().toLocalDate().equals(today)) {
-                count++;
+    private void showStatistics() {
+        screenLoader.load(this::loadStatisticsData, this::renderStatistics);
+    }
+
+    /**
+     * Everything the statistics screen shows (runs off the FX thread)
+     */
+    private StatisticsData loadStatisticsData() {
+        var stats = studyService.getSessionStats(currentUserId);
+        int streak = calculateStreak();
+
+        List<ReviewDAO.TopicPerformance> topics = reviewDAO.getTopicPerformance(currentUserId);
+        List<ReviewDAO.TopicPerformance> performance = new ArrayList<>();
+        for (ReviewDAO.TopicPerformance topic : topics) {
+            if (topic.getTotalQuestions() > 0) {
+                performance.add(topic);
             }
         }
 
-        return count;
+        List<Review> latestReviews = reviewDAO.getByUserIdPage(currentUserId, null, 10);
+        List<RecentReview> recent = new ArrayList<>();
+        for (Review review : latestReviews) {
+            Question question = questionDAO.getById(review.getQuestionId());
+            if (question != null) {
+                recent.add(new RecentReview(question, topicDAO.getById(question.getTopicId()), review));
+            }
+        }
+
+        return new StatisticsData(stats, streak, !topics.isEmpty(), performance, !latestReviews.isEmpty(), recent);
     }
 
-    private void showStatistics() {
+    private void renderStatistics(StatisticsData data) {
         VBox statsScreen = new VBox(30);
         statsScreen.setPadding(new Insets(40, 50, 40, 50));
         statsScreen.setStyle("-fx-background-color: #f8fafc;");
@@ -2323,8 +2674,7 @@ public class MainApp extends Application {
         title.setFont(Font.font("System", FontWeight.BOLD, 32));
         title.setStyle("-fx-text-fill: #0f172a;");
 
-        var stats = studyService.getSessionStats(currentUserId);
-        List<Review> allReviews = reviewDAO.getByUserId(currentUserId);
+        var stats = data.stats;
 
         HBox overallStats = new HBox(20);
 
@@ -2334,7 +2684,7 @@ public class MainApp extends Application {
                 stats.getCorrectAnswers() + " correct answers", "#10b981");
         VBox dueCard = createStatCard("\uD83D\uDD5B", "Due Today", String.valueOf(stats.getQuestionsDueToday()),
                 "questions need review", "#f59e0b");
-        VBox streakCard = createStatCard("\uD83D\uDDD3", "Study Streak", calculateStreak() + " days",
+        VBox streakCard = createStatCard("\uD83D\uDDD3", "Study Streak", data.streak + " days",
                 "Keep it up!", "#ef4444");
 
         overallStats.getChildren().addAll(totalCard, successCard, dueCard, streakCard);
@@ -2351,19 +2701,14 @@ public class MainApp extends Application {
                         "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.06), 12, 0, 0, 4);"
         );
 
-        List<Topic> topics = topicDAO.getAll();
-
-        if (topics.isEmpty()) {
+        if (!data.hasTopics) {
             Label noData = new Label("No topics yet. Add some questions to see statistics!");
             noData.setFont(Font.font(14));
             noData.setStyle("-fx-text-fill: #64748b;");
             topicPerformance.getChildren().add(noData);
         } else {
-            for (Topic topic : topics) {
-                VBox topicCard = createTopicPerformanceCard(topic);
-                if (topicCard.getChildren().size() > 0) {
-                    topicPerformance.getChildren().add(topicCard);
-                }
+            for (ReviewDAO.TopicPerformance row : data.topicPerformance) {
+                topicPerformance.getChildren().add(createTopicPerformanceCard(row));
             }
         }
 
@@ -2379,20 +2724,15 @@ public class MainApp extends Application {
                         "-fx-effect: dropshadow(gaussian, rgba(0,0,0,0.06), 12, 0, 0, 4);"
         );
 
-        if (allReviews.isEmpty()) {
+        if (!data.hasReviews) {
             Label noActivity = new Label("No activity yet. Start a study session to see your progress!");
             noActivity.setFont(Font.font(14));
             noActivity.setStyle("-fx-text-fill: #64748b;");
             activityBox.getChildren().add(noActivity);
         } else {
-            List<Review> recentReviews = allReviews.subList(0, Math.min(10, allReviews.size()));
-
-            for (Review review : recentReviews) {
-                Question question = questionDAO.getById(review.getQuestionId());
-                if (question != null) {
-                    HBox activityItem = createActivityItem(question, review);
-                    activityBox.getChildren().add(activityItem);
-                }
+            for (RecentReview recent : data.recentReviews) {
+                HBox activityItem = createActivityItem(recent.question, recent.topic, recent.review);
+                activityBox.getChildren().add(activityItem);
             }
         }
 
@@ -2402,34 +2742,17 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
-    private VBox createTopicPerformanceCard(Topic topic) {
+    private VBox createTopicPerformanceCard(ReviewDAO.TopicPerformance row) {
         VBox card = new VBox(12);
 
-        List<Question> topicQuestions = questionDAO.getByTopicId(topic.getId());
+        Topic topic = row.getTopic();
+        int totalQuestions = row.getTotalQuestions();
+        int reviewedCount = row.getReviewedCount();
 
-        if (topicQuestions.isEmpty()) {
-            return card;
-        }
-
-        int totalQuestions = topicQuestions.size();
-        int reviewedCount = 0;
-        int correctCount = 0;
-
-        for (Question q : topicQuestions) {
-            Review latestReview = reviewDAO.getLatestReview(q.getId(), currentUserId);
-            if (latestReview != null) {
-                reviewedCount++;
-                if (latestReview.isWasCorrect()) {
-                    correctCount++;
-                }
-            }
-        }
-
-        double successRate = reviewedCount > 0 ? (correctCount * 100.0 / reviewedCount) : 0;
+        double successRate = row.getAccuracy();
         boolean isWeak = successRate < 70 && reviewedCount > 0;
 
         HBox header = new HBox();
@@ -2470,7 +2793,8 @@ public class MainApp extends Application {
                         "-fx-accent: #10b981; -fx-background-color: #dcfce7; -fx-background-radius: 5;"
         );
 
-        Label percentage = new Label(String.format("%.0f%% success rate", successRate));
+        Label percentage = new Label(String.format("%.0f%% success rate  ·  %d mastered, %d learning, %d new",
+                successRate, row.getMasteredCount(), row.getLearningCount(), row.getNewCount()));
         percentage.setFont(Font.font(13));
         percentage.setStyle("-fx-text-fill: #64748b;");
 
@@ -2480,7 +2804,7 @@ public class MainApp extends Application {
         return card;
     }
 
-    private HBox createActivityItem(Question question, Review review) {
+    private HBox createActivityItem(Question question, Topic topic, Review review) {
         HBox item = new HBox(15);
         item.setAlignment(Pos.CENTER_LEFT);
         item.setPadding(new Insets(12, 0, 12, 0));
@@ -2502,7 +2826,6 @@ public class MainApp extends Application {
         questionLabel.setStyle("-fx-text-fill: #0f172a;");
         questionLabel.setWrapText(true);
 
-        Topic topic = topicDAO.getById(question.getTopicId());
         Label topicLabel = new Label("📁 " + (topic != null ? topic.getName() : "Unknown"));
         topicLabel.setFont(Font.font(12));
         topicLabel.setStyle("-fx-text-fill: #64748b;");
@@ -2520,31 +2843,27 @@ public class MainApp extends Application {
     }
 
     private int calculateStreak() {
-        List<Review> reviews = reviewDAO.getByUserId(currentUserId);
-
-        if (reviews.isEmpty()) return 0;
-
-        LocalDate today = LocalDate.now();
-        int streak = 0;
-
-        Set<LocalDate> reviewDays = new HashSet<>();
-        for (Review review : reviews) {
-            LocalDate reviewDate = review.getReviewedAt().toLocalDate();
-            if (reviewDate.isAfter(today.minusDays(365))) {
-                reviewDays.add(reviewDate);
-            }
-        }
+        return reviewDAO.getCurrentStreak(currentUserId, LocalDate.now());
+    }
 
-        LocalDate checkDate = today;
-        while (reviewDays.contains(checkDate)) {
-            streak++;
-            checkDate = checkDate.minusDays(1);
-        }
+    private void showSettings() {
+        screenLoader.load(this::loadSettingsData, this::renderSettings);
+    }
 
-        return streak;
+    /**
+     * Profile and progress figures for the Settings screen (runs off the FX thread)
+     */
+    private SettingsData loadSettingsData() {
+        return new SettingsData(
+                userDAO.getById(currentUserId),
+                studyService.getSessionStats(currentUserId),
+                questionDAO.getCount(),
+                topicDAO.getAll().size(),
+                getTodayReviewCount(),
+                calculateStreak());
     }
 
-    private void showSettings() {
+    private void renderSettings(SettingsData data) {
         VBox settingsScreen = new VBox(30);
         settingsScreen.setPadding(new Insets(40, 50, 40, 50));
         settingsScreen.setStyle("-fx-background-color: #f8fafc;");
@@ -2565,7 +2884,7 @@ public class MainApp extends Application {
         profileTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
         profileTitle.setStyle("-fx-text-fill: #0f172a;");
 
-        com.semisaad.smartstudy.model.User user = userDAO.getById(currentUserId);
+        User user = data.user;
 
         HBox userInfo = new HBox(20);
         userInfo.setAlignment(Pos.CENTER_LEFT);
@@ -2614,20 +2933,18 @@ public class MainApp extends Application {
         statsTitle.setFont(Font.font("System", FontWeight.BOLD, 20));
         statsTitle.setStyle("-fx-text-fill: #0f172a;");
 
-        var stats = studyService.getSessionStats(currentUserId);
-        int totalQuestions = questionDAO.getCount();
-        int totalTopics = topicDAO.getAll().size();
-        int todayReviews = getTodayReviewCount();
+        var stats = data.stats;
+        int todayReviews = data.todayReviews;
 
         VBox statsGrid = new VBox(12);
         statsGrid.getChildren().addAll(
-                createSettingRow("Total Questions in Library", String.valueOf(totalQuestions)),
-                createSettingRow("Total Topics", String.valueOf(totalTopics)),
+                createSettingRow("Total Questions in Library", String.valueOf(data.totalQuestions)),
+                createSettingRow("Total Topics", String.valueOf(data.totalTopics)),
                 createSettingRow("Questions Reviewed", String.valueOf(stats.getTotalReviews())),
                 createSettingRow("Success Rate", String.format("%.1f%%", stats.getSuccessRate())),
                 createSettingRow("Questions Due Today", String.valueOf(stats.getQuestionsDueToday())),
                 createSettingRow("Today's Reviews", String.valueOf(todayReviews)),
-                createSettingRow("Study Streak", calculateStreak() + " days")
+                createSettingRow("Study Streak", data.streak + " days")
         );
 
         statsSection.getChildren().addAll(statsTitle, statsGrid);
@@ -2764,7 +3081,35 @@ public class MainApp extends Application {
         );
         resetBtn.setOnAction(e -> showResetConfirmation());
 
-        actionButtons.getChildren().addAll(resetBtn);
+        Button exportBtn = new Button("⇩ Export Data");
+        exportBtn.setPrefHeight(44);
+        exportBtn.setPrefWidth(200);
+        exportBtn.setFont(Font.font("System", FontWeight.BOLD, 14));
+        exportBtn.setStyle(
+                "-fx-background-color: white; " +
+                        "-fx-text-fill: #34aeeb; " +
+                        "-fx-border-color: #34aeeb; " +
+                        "-fx-border-width: 2; " +
+                        "-fx-background-radius: 12; " +
+                        "-fx-cursor: hand;"
+        );
+        exportBtn.setOnAction(e -> showExportDialog());
+
+        Button diagnosticsBtn = new Button("Diagnostics");
+        diagnosticsBtn.setPrefHeight(44);
+        diagnosticsBtn.setPrefWidth(160);
+        diagnosticsBtn.setFont(Font.font("System", FontWeight.BOLD, 14));
+        diagnosticsBtn.setStyle(
+                "-fx-background-color: white; " +
+                        "-fx-text-fill: #64748b; " +
+                        "-fx-border-color: #cbd5e1; " +
+                        "-fx-border-width: 2; " +
+                        "-fx-background-radius: 12; " +
+                        "-fx-cursor: hand;"
+        );
+        diagnosticsBtn.setOnAction(e -> showDiagnosticsWindow());
+
+        actionButtons.getChildren().addAll(exportBtn, diagnosticsBtn, resetBtn);
 
         settingsScreen.getChildren().addAll(title, profileSection, statsSection, prefsSection, aboutSection, actionButtons);
 
@@ -2772,8 +3117,7 @@ public class MainApp extends Application {
         scrollPane.setFitToWidth(true);
         scrollPane.setStyle("-fx-background: #f8fafc; -fx-background-color: #f8fafc;");
 
-        contentArea.getChildren().clear();
-        contentArea.getChildren().add(scrollPane);
+        setContent(scrollPane);
     }
 
     private HBox createSettingRow(String label, String value) {
@@ -2799,6 +3143,135 @@ public class MainApp extends Application {
         return row;
     }
 
+    /**
+     * Live table of DAO query metrics plus pool and cache counters.
+     * Refreshes every two seconds while open.
+     */
+    private void showDiagnosticsWindow() {
+        Stage window = new Stage();
+        window.setTitle("Diagnostics");
+
+        TableView<DaoMetrics.Snapshot> table = new TableView<>();
+        table.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY_FLEX_LAST_COLUMN);
+        table.setPlaceholder(new Label(DaoMetrics.isEnabled() ? "No queries yet" : "Metrics are disabled"));
+
+        TableColumn<DaoMetrics.Snapshot, String> methodColumn = new TableColumn<>("Method");
+        methodColumn.setCellValueFactory(c -> new javafx.beans.property.ReadOnlyStringWrapper(c.getValue().getMethod()));
+        methodColumn.setPrefWidth(260);
+        table.getColumns().add(methodColumn);
+
+        table.getColumns().add(metricColumn("Calls", DaoMetrics.Snapshot::getCalls));
+        table.getColumns().add(metricColumn("Errors", DaoMetrics.Snapshot::getErrors));
+        table.getColumns().add(metricColumn("Stmts/call", DaoMetrics.Snapshot::getStatementsPerCall));
+        table.getColumns().add(metricColumn("Rows/call", DaoMetrics.Snapshot::getRowsPerCall));
+        table.getColumns().add(metricColumn("p50 ms", DaoMetrics.Snapshot::getP50Millis));
+        table.getColumns().add(metricColumn("p95 ms", DaoMetrics.Snapshot::getP95Millis));
+        table.getColumns().add(metricColumn("p99 ms", DaoMetrics.Snapshot::getP99Millis));
+        table.getColumns().add(metricColumn("Max ms", DaoMetrics.Snapshot::getMaxMillis));
+        table.getColumns().add(metricColumn("Total ms", DaoMetrics.Snapshot::getTotalMillis));
+        table.getColumns().add(metricColumn("Pool wait p99 ms", DaoMetrics.Snapshot::getAcquireP99Millis));
+
+        Label poolLabel = new Label();
+        poolLabel.setFont(Font.font(12));
+        poolLabel.setStyle("-fx-text-fill: #64748b;");
+        poolLabel.setWrapText(true);
+
+        Runnable refresh = () -> {
+            table.getItems().setAll(DaoMetrics.getSnapshots());
+            poolLabel.setText("Pool: " + DatabaseConnection.getPoolStats() +
+                    "\nTopic cache: " + topicDAO.getCacheStats() +
+                    "\nQuestion cache: " + questionDAO.getCacheStats());
+        };
+
+        Button resetBtn = new Button("Reset");
+        resetBtn.setOnAction(e -> {
+            DaoMetrics.reset();
+            refresh.run();
+        });
+
+        Label hint = new Label("Slowest in total first. Many calls with few rows each usually means a query in a loop. " +
+                "Also written to " + DAO_METRICS_FILE + " every " + DAO_METRICS_DUMP_SECONDS + "s.");
+        hint.setFont(Font.font(12));
+        hint.setStyle("-fx-text-fill: #64748b;");
+        hint.setWrapText(true);
+
+        VBox content = new VBox(12, hint, table, poolLabel, resetBtn);
+        content.setPadding(new Insets(20));
+        VBox.setVgrow(table, Priority.ALWAYS);
+
+        javafx.animation.Timeline timeline = new javafx.animation.Timeline(
+                new javafx.animation.KeyFrame(javafx.util.Duration.seconds(2), e -> refresh.run()));
+        timeline.setCycleCount(javafx.animation.Animation.INDEFINITE);
+        window.setOnHidden(e -> timeline.stop());
+
+        refresh.run();
+        timeline.play();
+
+        window.setScene(new Scene(content, 1100, 600));
+        window.show();
+    }
+
+    private TableColumn<DaoMetrics.Snapshot, Number> metricColumn(String title,
+                                                                 java.util.function.Function<DaoMetrics.Snapshot, Number> value) {
+        TableColumn<DaoMetrics.Snapshot, Number> column = new TableColumn<>(title);
+        column.setCellValueFactory(c -> {
+            Number number = value.apply(c.getValue());
+            if (number instanceof Double d) {
+                number = Math.round(d * 100) / 100.0; // Two decimals is plenty for milliseconds
+            }
+            return new javafx.beans.property.ReadOnlyObjectWrapper<>(number);
+        });
+        column.setStyle("-fx-alignment: CENTER-RIGHT;");
+        return column;
+    }
+
+    /**
+     * Export topics, questions and reviews to a folder the user picks
+     */
+    private void showExportDialog() {
+        List<String> options = List.of("CSV", "CSV (gzip)", "Binary", "Binary (gzip)");
+        ChoiceDialog<String> formatDialog = new ChoiceDialog<>(options.get(1), options);
+        formatDialog.setTitle("Export Data");
+        formatDialog.setHeaderText("Export topics, questions and review history");
+        formatDialog.setContentText("Format:");
+
+        String choice = formatDialog.showAndWait().orElse(null);
+        if (choice == null) {
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Export To Folder");
+        File directory = chooser.showDialog(mainLayout.getScene().getWindow());
+        if (directory == null) {
+            return;
+        }
+
+        DataExporter.Format format = choice.startsWith("CSV") ? DataExporter.Format.CSV : DataExporter.Format.BINARY;
+        boolean gzip = choice.endsWith("(gzip)");
+        DataExporter exporter = new DataExporter(topicDAO, questionDAO, reviewDAO);
+
+        // Not screenLoader.run: the result must be reported even if the user navigates away
+        Thread.ofVirtual().start(() -> {
+            // Let queued answers land first so the export includes them
+            boolean flushed = studyService.flushPendingAnswers(5_000);
+
+            try {
+                DataExporter.ExportResult result = exporter.exportAll(directory.toPath(), format, gzip);
+                Platform.runLater(() ->
+                        showAlert(Alert.AlertType.INFORMATION, "Export Complete", "Data Exported",
+                                result.getTopics() + " topics, " + result.getQuestions() + " questions and " +
+                                        result.getReviews() + " reviews written to " + directory +
+                                        (flushed ? "" : "\n\nSome recent answers were still being saved " +
+                                                "and are not included.")));
+
+            } catch (IOException ex) {
+                Platform.runLater(() ->
+                        ErrorHandler.showError("Export Error", "Could not export to " + directory, ex));
+            }
+        });
+    }
+
     private void showResetConfirmation() {
         Alert confirmation = new Alert(Alert.AlertType.WARNING);
         confirmation.setTitle("Reset Progress");
@@ -2815,21 +3288,38 @@ public class MainApp extends Application {
 
         confirmation.showAndWait().ifPresent(response -> {
             if (response == yesButton) {
-                List<Review> userReviews = reviewDAO.getByUserId(currentUserId);
+                int userId = currentUserId;
+
+                // Off the FX thread: the flush can wait up to 5s on a slow database
+                Thread.ofVirtual().start(() -> {
+                    // Queued answers must land first, or they'd be written after the reset
+                    if (!studyService.flushPendingAnswers(5_000)) {
+                        Platform.runLater(() ->
+                                showAlert(Alert.AlertType.WARNING, "Reset Progress", "Reset Cancelled",
+                                        "Some answers are still being saved. Nothing was deleted - " +
+                                                "please try again once the database is reachable."));
+                        return;
+                    }
 
-                int deletedCount = 0;
-                for (Review review : userReviews) {
-                    if (reviewDAO.delete(review.getId())) {
-                        deletedCount++;
+                    int deletedCount = reviewDAO.deleteByUserId(userId);
+                    if (deletedCount < 0) {
+                        // Rolled back, so the progress is untouched
+                        Platform.runLater(() ->
+                                showAlert(Alert.AlertType.ERROR, "Error", "Reset Failed",
+                                        "Could not reset your progress. Nothing was deleted - please try again."));
+                        return;
                     }
-                }
+                    studyService.invalidateStats(userId);
 
-                showAlert(Alert.AlertType.INFORMATION, "Reset Complete", "Progress Reset!",
-                        "Deleted " + deletedCount + " review records. Your learning journey starts fresh!");
+                    Platform.runLater(() -> {
+                        showAlert(Alert.AlertType.INFORMATION, "Reset Complete", "Progress Reset!",
+                                "Deleted " + deletedCount + " review records. Your learning journey starts fresh!");
 
-                sessionNeedsReload = true;
-                refreshSidebar();
-                showSettings();
+                        sessionNeedsReload = true;
+                        refreshSidebar();
+                        showSettings();
+                    });
+                });
             }
         });
     }
@@ -2867,6 +3357,127 @@ public class MainApp extends Application {
         alert.showAndWait();
     }
 
+    // ── Screen data loaded in the background by ScreenLoader ─────────────────
+
+    private static class DashboardData {
+        final String username;
+        final StudySessionService.SessionStats stats;
+        final int streak;
+        final List<TopicDAO.TopicCounts> topics;
+        final List<ActivityRow> recentActivity;
+
+        DashboardData(String username, StudySessionService.SessionStats stats, int streak,
+                      List<TopicDAO.TopicCounts> topics, List<ActivityRow> recentActivity) {
+            this.username = username;
+            this.stats = stats;
+            this.streak = streak;
+            this.topics = topics;
+            this.recentActivity = recentActivity;
+        }
+    }
+
+    private static class ActivityRow {
+        final Question question;
+        final Topic topic;
+        final String status;
+        final String statusColor;
+
+        ActivityRow(Question question, Topic topic, String status, String statusColor) {
+            this.question = question;
+            this.topic = topic;
+            this.status = status;
+            this.statusColor = statusColor;
+        }
+    }
+
+    private static class QuestionsData {
+        final List<Topic> topics;
+        final List<Question> questions;
+        final Map<Integer, Topic> topicsById;
+        final QuestionSearchIndex searchIndex; // null when searching in the database
+        final int questionCount;
+
+        QuestionsData(List<Topic> topics, List<Question> questions, Map<Integer, Topic> topicsById,
+                      QuestionSearchIndex searchIndex, int questionCount) {
+            this.topics = topics;
+            this.questions = questions;
+            this.topicsById = topicsById;
+            this.searchIndex = searchIndex;
+            this.questionCount = questionCount;
+        }
+    }
+
+    private static class StudySetupData {
+        final List<Topic> topics;
+        final StudyPlanner.StudyCounts sessionCounts;
+
+        StudySetupData(List<Topic> topics, StudyPlanner.StudyCounts sessionCounts) {
+            this.topics = topics;
+            this.sessionCounts = sessionCounts;
+        }
+    }
+
+    private static class SessionCompleteData {
+        final StudySessionService.SessionStats stats;
+        final int todayReviews;
+
+        SessionCompleteData(StudySessionService.SessionStats stats, int todayReviews) {
+            this.stats = stats;
+            this.todayReviews = todayReviews;
+        }
+    }
+
+    private static class StatisticsData {
+        final StudySessionService.SessionStats stats;
+        final int streak;
+        final boolean hasTopics;
+        final List<ReviewDAO.TopicPerformance> topicPerformance;
+        final boolean hasReviews;
+        final List<RecentReview> recentReviews;
+
+        StatisticsData(StudySessionService.SessionStats stats, int streak, boolean hasTopics,
+                       List<ReviewDAO.TopicPerformance> topicPerformance, boolean hasReviews,
+                       List<RecentReview> recentReviews) {
+            this.stats = stats;
+            this.streak = streak;
+            this.hasTopics = hasTopics;
+            this.topicPerformance = topicPerformance;
+            this.hasReviews = hasReviews;
+            this.recentReviews = recentReviews;
+        }
+    }
+
+    private static class SettingsData {
+        final User user; // null if it couldn't be loaded
+        final StudySessionService.SessionStats stats;
+        final int totalQuestions;
+        final int totalTopics;
+        final int todayReviews;
+        final int streak;
+
+        SettingsData(User user, StudySessionService.SessionStats stats,
+                     int totalQuestions, int totalTopics, int todayReviews, int streak) {
+            this.user = user;
+            this.stats = stats;
+            this.totalQuestions = totalQuestions;
+            this.totalTopics = totalTopics;
+            this.todayReviews = todayReviews;
+            this.streak = streak;
+        }
+    }
+
+    private static class RecentReview {
+        final Question question;
+        final Topic topic;
+        final Review review;
+
+        RecentReview(Question question, Topic topic, Review review) {
+            this.question = question;
+            this.topic = topic;
+            this.review = review;
+        }
+    }
+
     public static void main(String[] args) {
         launch(args);
     }
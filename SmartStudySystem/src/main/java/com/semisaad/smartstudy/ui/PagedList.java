@@ -0,0 +1,109 @@
+package com.semisaad.smartstudy.ui;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-only list of a known size whose rows are fetched a page at a time.
+ *
+ * Meant as the items of a ListView: the view only asks for the rows it
+ * shows, so only those pages are loaded. A row that isn't loaded yet reads
+ * as null (render it as a placeholder). Its page is fetched on a virtual
+ * thread, and the view refreshes when the page arrives. Only the most
+ * recently used pages are kept in memory.
+ *
+ * Like any JavaFX list, use it on the FX application thread only.
+ */
+public class PagedList<T> extends ObservableListBase<T> {
+
+    /**
+     * Fetches rows [offset, offset + limit). Runs in the background.
+     */
+    public interface PageLoader<T> {
+        List<T> load(int offset, int limit) throws Exception;
+    }
+
+    private static final int MAX_CACHED_PAGES = 20;
+
+    private final int size;
+    private final int pageSize;
+    private final PageLoader<T> loader;
+
+    private final Map<Integer, List<T>> pages = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<T>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loading = new HashSet<>();
+
+    /**
+     * @param size Total number of rows
+     * @param pageSize Rows fetched per load
+     * @param loader Fetches one page
+     */
+    public PagedList(int size, int pageSize, PageLoader<T> loader) {
+        this.size = size;
+        this.pageSize = pageSize;
+        this.loader = loader;
+    }
+
+    @Override
+    public T get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+        }
+
+        int page = index / pageSize;
+        List<T> rows = pages.get(page);
+        if (rows == null) {
+            requestPage(page);
+            return null;
+        }
+
+        int offset = index - page * pageSize;
+        return offset < rows.size() ? rows.get(offset) : null;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    private void requestPage(int page) {
+        if (!loading.add(page)) {
+            return; // Already on its way
+        }
+
+        Thread.ofVirtual().start(() -> {
+            List<T> rows;
+            try {
+                rows = loader.load(page * pageSize, pageSize);
+            } catch (Exception e) {
+                System.err.println("Error loading page " + page + ": " + e.getMessage());
+                Platform.runLater(() -> loading.remove(page));
+                return;
+            }
+
+            Platform.runLater(() -> {
+                loading.remove(page);
+                pages.put(page, rows);
+
+                // Tell the view the placeholder rows of this page were replaced
+                int from = page * pageSize;
+                int to = Math.min(from + pageSize, size);
+                beginChange();
+                for (int i = from; i < to; i++) {
+                    nextSet(i, null);
+                }
+                endChange();
+            });
+        });
+    }
+}
@@ -0,0 +1,157 @@
+package com.semisaad.smartstudy.ui;
+
+import com.semisaad.smartstudy.util.ErrorHandler;
+import javafx.application.Platform;
+import javafx.geometry.Insets;
+import javafx.scene.Node;
+import javafx.scene.layout.HBox;
+import javafx.scene.layout.Region;
+import javafx.scene.layout.StackPane;
+import javafx.scene.layout.VBox;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+/**
+ * Loads screen data on a background (virtual) thread and renders it on the
+ * JavaFX thread when ready. A skeleton placeholder is shown meanwhile.
+ *
+ * Only the most recent load is ever rendered: starting a new load, or
+ * calling cancel() when navigating elsewhere, makes older loads stale and
+ * their results are dropped.
+ *
+ * All methods must be called on the JavaFX application thread.
+ */
+public class ScreenLoader {
+
+    private final StackPane target;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Bumped on every load/cancel; a result is only rendered if its
+    // generation is still current (only touched on the FX thread)
+    private long generation = 0;
+    private Future<?> inFlight;
+
+    public ScreenLoader(StackPane target) {
+        this.target = target;
+    }
+
+    /**
+     * Show a skeleton, run loader off the FX thread, then hand its result
+     * to render on the FX thread (unless a newer load has started since)
+     *
+     * @param loader Fetches the screen's data (runs in the background)
+     * @param render Builds and shows the screen from the data (runs on the FX thread)
+     */
+    public <T> void load(Callable<T> loader, Consumer<T> render) {
+        cancel();
+        long myGeneration = generation;
+
+        target.getChildren().setAll(createSkeleton());
+
+        inFlight = executor.submit(() -> {
+            try {
+                T data = loader.call();
+                Platform.runLater(() -> {
+                    if (myGeneration == generation) {
+                        render.accept(data);
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (myGeneration == generation) {
+                        ErrorHandler.showError("Loading Error", "Could not load this screen", e);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Run a background task and pass its result to onDone on the FX thread,
+     * without replacing the current screen. Dropped if the screen changes
+     * before it finishes.
+     */
+    public <T> void run(Callable<T> task, Consumer<T> onDone) {
+        long myGeneration = generation;
+
+        executor.submit(() -> {
+            try {
+                T result = task.call();
+                Platform.runLater(() -> {
+                    if (myGeneration == generation) {
+                        onDone.accept(result);
+                    }
+                });
+            } catch (Exception e) {
+                Platform.runLater(() -> {
+                    if (myGeneration == generation) {
+                        ErrorHandler.showError("Loading Error", "Could not load data", e);
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Make any in-flight load stale so its result is never rendered.
+     * The thread isn't interrupted: interrupting a virtual thread blocked on
+     * a socket closes it, which would break the pooled JDBC connection.
+     */
+    public void cancel() {
+        generation++;
+        if (inFlight != null) {
+            inFlight.cancel(false);
+            inFlight = null;
+        }
+    }
+
+    /**
+     * Stop accepting work (call on application shutdown)
+     */
+    public void shutdown() {
+        cancel();
+        executor.shutdownNow();
+    }
+
+    /**
+     * Grey placeholder blocks shaped like a typical screen:
+     * title, a row of stat cards, then a content panel
+     */
+    private Node createSkeleton() {
+        VBox skeleton = new VBox(30);
+        skeleton.setPadding(new Insets(40, 50, 40, 50));
+        skeleton.setStyle("-fx-background-color: #f8fafc;");
+
+        Region title = createBlock(280, 36, 8, "#e2e8f0");
+
+        HBox cards = new HBox(20);
+        for (int i = 0; i < 4; i++) {
+            cards.getChildren().add(createBlock(260, 140, 20, "white"));
+        }
+
+        VBox panel = new VBox(16);
+        panel.setPadding(new Insets(24));
+        panel.setStyle("-fx-background-color: white; -fx-background-radius: 20;");
+        for (int i = 0; i < 5; i++) {
+            panel.getChildren().add(createBlock(i % 2 == 0 ? 640 : 520, 18, 6, "#f1f5f9"));
+        }
+
+        skeleton.getChildren().addAll(title, cards, panel);
+        return skeleton;
+    }
+
+    private Region createBlock(double width, double height, double radius, String color) {
+        Region block = new Region();
+        block.setPrefSize(width, height);
+        block.setMinHeight(height);
+        block.setStyle(
+                "-fx-background-color: " + color + "; " +
+                        "-fx-background-radius: " + radius + ";"
+        );
+        return block;
+    }
+}
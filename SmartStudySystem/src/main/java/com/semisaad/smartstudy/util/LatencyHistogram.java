@@ -0,0 +1,108 @@
+package com.semisaad.smartstudy.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram in microseconds, in the style of HdrHistogram.
+ *
+ * Values below 32 get a bucket each. Above that every power of two is split
+ * into 32 buckets, so a percentile is off by at most ~3% however large the
+ * value, with a fixed ~9 KB of buckets. Percentiles report the upper edge
+ * of their bucket (never under-reports). Values above ~12 days are clamped.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;      // 32 buckets per power of two
+    private static final int MAX_BITS = 40;                  // 2^40 us, about 12.7 days
+    private static final long MAX_VALUE = (1L << MAX_BITS) - 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray((MAX_BITS - SUB_BITS + 1) * SUB_COUNT);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong sum = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Record one value
+     * @param nanos Duration in nanoseconds
+     */
+    public void recordNanos(long nanos) {
+        record(nanos / 1_000);
+    }
+
+    /**
+     * Record one value
+     * @param micros Duration in microseconds
+     */
+    public void record(long micros) {
+        long value = Math.min(Math.max(micros, 0), MAX_VALUE);
+        buckets.incrementAndGet(indexOf(value));
+        count.incrementAndGet();
+        sum.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long getCount() {
+        return count.get();
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.get();
+        return n > 0 ? (double) sum.get() / n : 0.0;
+    }
+
+    /**
+     * @param percentile 0-100, e.g. 99.9
+     * @return Smallest bucket edge at or below which that share of values fall, in microseconds
+     */
+    public long getValueAtPercentile(double percentile) {
+        long n = count.get();
+        if (n == 0) {
+            return 0;
+        }
+
+        long target = Math.max(1, (long) Math.ceil(percentile / 100.0 * n));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.min(upperEdge(i), max.get());
+            }
+        }
+        return max.get(); // Counts moved under us; good enough
+    }
+
+    public void reset() {
+        for (int i = 0; i < buckets.length(); i++) {
+            buckets.set(i, 0);
+        }
+        count.set(0);
+        sum.set(0);
+        max.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        // Keep the top SUB_BITS + 1 bits: the leading 1 picks the power of
+        // two, the rest pick the sub-bucket
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        int sub = (int) (value >>> shift);                  // 32..63
+        return (shift + 1) * SUB_COUNT + (sub - SUB_COUNT);
+    }
+
+    private static long upperEdge(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = index / SUB_COUNT - 1;
+        long sub = index % SUB_COUNT + SUB_COUNT;
+        return ((sub + 1) << shift) - 1;
+    }
+}
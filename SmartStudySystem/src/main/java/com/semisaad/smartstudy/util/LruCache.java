@@ -0,0 +1,137 @@
+package com.semisaad.smartstudy.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Small thread-safe LRU cache with hit/miss counters.
+ * Once full, the least recently used entry is evicted.
+ */
+public class LruCache<K, V> {
+
+    private final int maxSize;
+    private final LinkedHashMap<K, V> entries;
+
+    // Bumped by every invalidation, so a load that raced with one isn't cached
+    private long invalidations = 0;
+
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    public LruCache(int maxSize) {
+        this.maxSize = maxSize;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() > LruCache.this.maxSize) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Get a cached value, or load and cache it on a miss.
+     * The loader runs outside the lock; null results are not cached.
+     */
+    public V get(K key, Function<K, V> loader) {
+        long seenInvalidations;
+
+        synchronized (this) {
+            V value = entries.get(key);
+            if (value != null) {
+                hits++;
+                return value;
+            }
+            misses++;
+            seenInvalidations = invalidations;
+        }
+
+        V loaded = loader.apply(key);
+
+        synchronized (this) {
+            if (loaded != null && seenInvalidations == invalidations) {
+                entries.put(key, loaded);
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Invalidation count to pass to put() by a caller that loads values
+     * itself (e.g. from a list query)
+     */
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    /**
+     * Cache a value that was just read from the database, unless an
+     * invalidation happened since the caller read getInvalidations()
+     * before loading it
+     */
+    public synchronized void put(K key, V value, long seenInvalidations) {
+        if (seenInvalidations == invalidations) {
+            entries.put(key, value);
+        }
+    }
+
+    public synchronized void invalidate(K key) {
+        entries.remove(key);
+        invalidations++;
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+        invalidations++;
+    }
+
+    public synchronized Stats getStats() {
+        return new Stats(entries.size(), maxSize, hits, misses, evictions);
+    }
+
+    /**
+     * Snapshot of cache counters
+     */
+    public static class Stats {
+        private final int size;
+        private final int maxSize;
+        private final long hits;
+        private final long misses;
+        private final long evictions;
+
+        public Stats(int size, int maxSize, long hits, long misses, long evictions) {
+            this.size = size;
+            this.maxSize = maxSize;
+            this.hits = hits;
+            this.misses = misses;
+            this.evictions = evictions;
+        }
+
+        public int getSize() { return size; }
+        public int getMaxSize() { return maxSize; }
+        public long getHits() { return hits; }
+        public long getMisses() { return misses; }
+        public long getEvictions() { return evictions; }
+
+        public double getHitRate() {
+            long lookups = hits + misses;
+            return lookups > 0 ? (hits * 100.0 / lookups) : 0.0;
+        }
+
+        @Override
+        public String toString() {
+            return "Stats{" +
+                    "size=" + size + "/" + maxSize +
+                    ", hits=" + hits +
+                    ", misses=" + misses +
+                    ", evictions=" + evictions +
+                    ", hitRate=" + String.format("%.1f", getHitRate()) + "%" +
+                    '}';
+        }
+    }
+}
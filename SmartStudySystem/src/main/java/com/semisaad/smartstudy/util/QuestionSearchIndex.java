@@ -0,0 +1,166 @@
+package com.semisaad.smartstudy.util;
+
+import com.semisaad.smartstudy.model.Question;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * In-memory inverted index over question and answer text.
+ *
+ * Text is split into lowercase words; a query matches a question when every
+ * query word is a prefix of some word in its question or answer
+ * ("photo syn" matches "Photosynthesis happens in..."). Words live in a
+ * sorted map, so a prefix lookup is a range scan instead of a pass over
+ * every question.
+ *
+ * Keep it in sync with add/update/remove when questions change.
+ * Methods are synchronized so it can be built off the FX thread.
+ */
+public final class QuestionSearchIndex {
+
+    // All indexed questions by ID, in ID order (same order as QuestionDAO.getAll)
+    private final TreeMap<Integer, Question> questions = new TreeMap<>();
+
+    // word -> IDs of questions containing it
+    private final TreeMap<String, Set<Integer>> postings = new TreeMap<>();
+
+    // ID -> words indexed for it, so a question can be removed without re-tokenizing
+    private final Map<Integer, Set<String>> wordsById = new HashMap<>();
+
+    public QuestionSearchIndex() {
+    }
+
+    public QuestionSearchIndex(Collection<Question> initial) {
+        for (Question question : initial) {
+            add(question);
+        }
+    }
+
+    /**
+     * Index a question (replaces any existing entry with the same ID)
+     */
+    public synchronized void add(Question question) {
+        remove(question.getId());
+
+        Set<String> words = tokenize(question.getQuestionText() + " " + question.getAnswer());
+        for (String word : words) {
+            postings.computeIfAbsent(word, w -> new HashSet<>()).add(question.getId());
+        }
+        wordsById.put(question.getId(), words);
+        questions.put(question.getId(), question);
+    }
+
+    /**
+     * Re-index a question after its text or topic changed
+     */
+    public synchronized void update(Question question) {
+        add(question);
+    }
+
+    public synchronized void remove(int questionId) {
+        Set<String> words = wordsById.remove(questionId);
+        if (words == null) {
+            return;
+        }
+
+        for (String word : words) {
+            Set<Integer> ids = postings.get(word);
+            ids.remove(questionId);
+            if (ids.isEmpty()) {
+                postings.remove(word);
+            }
+        }
+        questions.remove(questionId);
+    }
+
+    /**
+     * Find questions matching every word of the query
+     * @param query Search text (blank = everything)
+     * @param topicId Only return questions in this topic, or null for all topics
+     * @return Matching questions in ID order
+     */
+    public synchronized List<Question> search(String query, Integer topicId) {
+        List<Question> results = new ArrayList<>();
+        Set<String> queryWords = tokenize(query == null ? "" : query);
+
+        if (queryWords.isEmpty()) {
+            for (Question question : questions.values()) {
+                if (topicId == null || question.getTopicId() == topicId) {
+                    results.add(question);
+                }
+            }
+            return results;
+        }
+
+        Set<Integer> matches = null;
+        for (String word : queryWords) {
+            Set<Integer> wordMatches = matchPrefix(word);
+            if (matches == null) {
+                matches = wordMatches;
+            } else {
+                matches.retainAll(wordMatches);
+            }
+            if (matches.isEmpty()) {
+                return results;
+            }
+        }
+
+        List<Integer> ids = new ArrayList<>(matches);
+        ids.sort(null);
+        for (Integer id : ids) {
+            Question question = questions.get(id);
+            if (topicId == null || question.getTopicId() == topicId) {
+                results.add(question);
+            }
+        }
+        return results;
+    }
+
+    public synchronized int size() {
+        return questions.size();
+    }
+
+    /**
+     * IDs of questions containing a word that starts with the prefix
+     */
+    private Set<Integer> matchPrefix(String prefix) {
+        Set<Integer> ids = new HashSet<>();
+        // Every word >= prefix and < prefix + max char starts with prefix
+        NavigableMap<String, Set<Integer>> range = postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false);
+        for (Set<Integer> wordIds : range.values()) {
+            ids.addAll(wordIds);
+        }
+        return ids;
+    }
+
+    /**
+     * Split text into distinct lowercase words (letters and digits)
+     */
+    static Set<String> tokenize(String text) {
+        Set<String> words = new HashSet<>();
+        StringBuilder word = new StringBuilder();
+
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (word.length() > 0) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (word.length() > 0) {
+            words.add(word.toString());
+        }
+
+        return words;
+    }
+}
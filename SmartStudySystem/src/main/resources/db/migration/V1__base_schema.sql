@@ -0,0 +1,46 @@
+-- Base tables used by the DAOs. IF NOT EXISTS so databases created by hand
+-- before migrations existed are adopted as-is.
+
+CREATE TABLE IF NOT EXISTS users (
+    id          SERIAL PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL UNIQUE,
+    email       VARCHAR(100) NOT NULL UNIQUE,
+    created_at  TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS topics (
+    id          SERIAL PRIMARY KEY,
+    name        VARCHAR(50) NOT NULL,
+    description TEXT,
+    created_at  TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS questions (
+    id            SERIAL PRIMARY KEY,
+    question_text TEXT        NOT NULL,
+    answer        TEXT        NOT NULL,
+    topic_id      INTEGER     NOT NULL REFERENCES topics(id) ON DELETE CASCADE,
+    difficulty    VARCHAR(10) NOT NULL DEFAULT 'MEDIUM',
+    created_at    TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE TABLE IF NOT EXISTS reviews (
+    id               SERIAL PRIMARY KEY,
+    question_id      INTEGER   NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    user_id          INTEGER   NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    reviewed_at      TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    was_correct      BOOLEAN   NOT NULL,
+    ease_factor      REAL      NOT NULL DEFAULT 2.5,
+    interval_days    INTEGER   NOT NULL DEFAULT 0,
+    next_review_date DATE      NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS user_settings (
+    user_id           INTEGER PRIMARY KEY REFERENCES users(id) ON DELETE CASCADE,
+    daily_goal        INTEGER     NOT NULL DEFAULT 10,
+    reminders_enabled BOOLEAN     NOT NULL DEFAULT TRUE,
+    theme             VARCHAR(20) NOT NULL DEFAULT 'light',
+    notification_time VARCHAR(5)  NOT NULL DEFAULT '09:00',
+    created_at        TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at        TIMESTAMP   NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
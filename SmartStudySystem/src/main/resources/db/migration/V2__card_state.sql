@@ -0,0 +1,12 @@
+-- Current SM-2 state per (user, question); see CardStateDAO
+
+CREATE TABLE IF NOT EXISTS card_state (
+    user_id          INTEGER   NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    question_id      INTEGER   NOT NULL REFERENCES questions(id) ON DELETE CASCADE,
+    ease_factor      REAL      NOT NULL,
+    interval_days    INTEGER   NOT NULL,
+    repetitions      INTEGER   NOT NULL,
+    next_review_date DATE      NOT NULL,
+    last_reviewed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (user_id, question_id)
+);
@@ -0,0 +1,34 @@
+-- Indexes for the DAO access patterns
+
+-- getLatestReview, getLatestReviews, getDueQuestions, getUnreviewed (NOT EXISTS)
+-- and every DISTINCT ON (question_id) ... ORDER BY reviewed_at DESC lookup
+CREATE INDEX IF NOT EXISTS idx_reviews_user_question_reviewed
+    ON reviews (user_id, question_id, reviewed_at DESC);
+
+-- getByUserId (ORDER BY reviewed_at DESC), streak / today counts
+CREATE INDEX IF NOT EXISTS idx_reviews_user_reviewed
+    ON reviews (user_id, reviewed_at DESC);
+
+-- Due-date range scans per user
+CREATE INDEX IF NOT EXISTS idx_reviews_user_next_review
+    ON reviews (user_id, next_review_date);
+
+-- getConsecutiveCorrectCount: latest wrong answer per card
+CREATE INDEX IF NOT EXISTS idx_reviews_user_question_wrong
+    ON reviews (user_id, question_id, reviewed_at DESC)
+    WHERE NOT was_correct;
+
+-- getByQuestionId and ON DELETE CASCADE from questions
+CREATE INDEX IF NOT EXISTS idx_reviews_question
+    ON reviews (question_id);
+
+-- QuestionDAO.getByTopicId / getByDifficulty and ON DELETE CASCADE from topics
+CREATE INDEX IF NOT EXISTS idx_questions_topic
+    ON questions (topic_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_questions_difficulty
+    ON questions (difficulty, id);
+
+-- Due cards from card_state
+CREATE INDEX IF NOT EXISTS idx_card_state_user_next_review
+    ON card_state (user_id, next_review_date);
@@ -0,0 +1,7 @@
+-- Client-generated id for each answer, so replaying the write-behind
+-- journal after a crash can't insert the same review twice
+
+ALTER TABLE reviews ADD COLUMN IF NOT EXISTS submission_id UUID;
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_reviews_submission_id
+    ON reviews (submission_id);
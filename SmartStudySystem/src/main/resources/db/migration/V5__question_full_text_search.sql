@@ -0,0 +1,10 @@
+-- Full-text search over questions (QuestionDAO.search)
+-- An expression index rather than a stored tsvector column, so SELECT *
+-- doesn't drag the vector along. The expression must match
+-- QuestionDAO.SEARCH_VECTOR exactly for the index to be used.
+
+CREATE INDEX IF NOT EXISTS idx_questions_search
+    ON questions USING GIN (
+        (setweight(to_tsvector('english', question_text), 'A') ||
+         setweight(to_tsvector('english', answer), 'B'))
+    );
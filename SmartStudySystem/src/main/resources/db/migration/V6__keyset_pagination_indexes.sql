@@ -0,0 +1,13 @@
+-- Keyset pagination orders reviews by (reviewed_at, id) so pages are stable
+-- when several reviews share a timestamp. Include id in the index so the
+-- "(reviewed_at, id) < (?, ?)" seek and the ORDER BY need no sort.
+
+-- ReviewDAO.getByUserIdPage / forEachByUserId (also serves getByUserId)
+CREATE INDEX IF NOT EXISTS idx_reviews_user_reviewed_id
+    ON reviews (user_id, reviewed_at DESC, id DESC);
+
+DROP INDEX IF EXISTS idx_reviews_user_reviewed;
+
+-- ReviewDAO.getPage / forEach
+CREATE INDEX IF NOT EXISTS idx_reviews_reviewed_id
+    ON reviews (reviewed_at DESC, id DESC);
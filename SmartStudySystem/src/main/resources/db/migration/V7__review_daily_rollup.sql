@@ -0,0 +1,30 @@
+-- Per-day review totals per (user, topic); see ReviewRollupDAO.
+-- ReviewDAO keeps it current from here on, so analytics read a few rows
+-- per day instead of scanning reviews.
+
+CREATE TABLE IF NOT EXISTS review_daily_rollup (
+    user_id   INTEGER NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    topic_id  INTEGER NOT NULL REFERENCES topics(id) ON DELETE CASCADE,
+    day       DATE    NOT NULL,
+    reviews   INTEGER NOT NULL DEFAULT 0,
+    correct   INTEGER NOT NULL DEFAULT 0,
+    new_cards INTEGER NOT NULL DEFAULT 0,  -- first review of a card
+    lapses    INTEGER NOT NULL DEFAULT 0,  -- wrong right after a correct answer
+    PRIMARY KEY (user_id, day, topic_id)
+);
+
+-- Backfill the existing history. Must stay in line with
+-- ReviewRollupDAO.contributionSql (ReviewRollupBackfill re-runs it per user).
+DELETE FROM review_daily_rollup;
+
+INSERT INTO review_daily_rollup (user_id, topic_id, day, reviews, correct, new_cards, lapses)
+SELECT r.user_id, q.topic_id, r.reviewed_at::date AS day, COUNT(*),
+       COUNT(*) FILTER (WHERE r.was_correct),
+       COUNT(*) FILTER (WHERE r.previous_correct IS NULL),
+       COUNT(*) FILTER (WHERE NOT r.was_correct AND r.previous_correct)
+FROM (SELECT user_id, question_id, reviewed_at, was_correct,
+             LAG(was_correct) OVER (PARTITION BY user_id, question_id ORDER BY reviewed_at, id)
+                 AS previous_correct
+      FROM reviews) r
+JOIN questions q ON q.id = r.question_id
+GROUP BY r.user_id, q.topic_id, r.reviewed_at::date;
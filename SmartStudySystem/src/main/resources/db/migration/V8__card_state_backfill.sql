@@ -0,0 +1,16 @@
+-- Due and new counts now come from card_state instead of the latest row of
+-- reviews, so every reviewed card needs a state row. Fill in the cards
+-- answered before V2; must stay in line with CardStateDAO.REFRESH_SQL.
+
+INSERT INTO card_state (user_id, question_id, ease_factor, interval_days, repetitions,
+                        next_review_date, last_reviewed_at)
+SELECT latest.user_id, latest.question_id, latest.ease_factor, latest.interval_days,
+       (SELECT COUNT(*) FROM reviews c
+        WHERE c.user_id = latest.user_id AND c.question_id = latest.question_id AND c.was_correct
+          AND c.reviewed_at > COALESCE((SELECT MAX(w.reviewed_at) FROM reviews w
+                                        WHERE w.user_id = latest.user_id AND w.question_id = latest.question_id
+                                          AND NOT w.was_correct), '-infinity'::timestamp)),
+       latest.next_review_date, latest.reviewed_at
+FROM (SELECT DISTINCT ON (user_id, question_id) *
+      FROM reviews ORDER BY user_id, question_id, reviewed_at DESC, id DESC) latest
+ON CONFLICT (user_id, question_id) DO NOTHING;